@@ -0,0 +1,81 @@
+package br.edu.ifpr.gep.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.utils.EmissorTypes;
+
+/**
+ * Gerador determinístico de portarias para os benchmarks.
+ * A mesma quantidade e a mesma semente produzem sempre os mesmos dados,
+ * então resultados de versões diferentes podem ser comparados.
+ *
+ * A chave de cada portaria é única por construção: o emissor percorre os
+ * emissores pré-definidos e o número cresce a cada volta.
+ */
+public final class DadosSinteticos {
+
+    public static final long SEMENTE = 20240901L;
+
+    /** Emissores pré-definidos (índices de 0 a 33) */
+    public static final int EMISSORES = 34;
+
+    private static final String[] PRENOMES = {
+        "Ana", "Beatriz", "Carlos", "Débora", "Eduardo", "Fábio", "Gabriela", "Hugo",
+        "Isabela", "João", "Juliana", "Lúcia", "Marcos", "Maria", "Murilo", "Pietra",
+        "Raul", "Sueli", "Thales", "Vitória"
+    };
+    private static final String[] SOBRENOMES = {
+        "Silva", "Souza", "Pereira", "Conceição", "Araújo", "Lima", "Farias", "Vieira",
+        "Teixeira", "Campos", "Melo", "Martins", "Santos", "Jesus", "Paula", "Gonçalves"
+    };
+    private static final LocalDate INICIO = LocalDate.of(2000, 1, 1);
+    private static final int DIAS = 25 * 365;
+
+    private DadosSinteticos() {
+    }
+
+    /** Gera {@code quantidade} portarias com a semente padrão */
+    public static List<Portaria> gerar(int quantidade) {
+        return gerar(quantidade, SEMENTE);
+    }
+
+    public static List<Portaria> gerar(int quantidade, long semente) {
+        SplittableRandom random = new SplittableRandom(semente);
+        List<Portaria> result = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            result.add(new Portaria(
+                    i % EMISSORES,
+                    i / EMISSORES + 1,
+                    INICIO.plusDays(random.nextInt(DIAS)),
+                    membro(random)));
+        }
+        return result;
+    }
+
+    /** Uma portaria com chave fora das geradas por {@link #gerar(int)} (número negativo) */
+    public static Portaria nova(int sequencia) {
+        return new Portaria(sequencia % EMISSORES, -1 - sequencia / EMISSORES,
+                INICIO.plusDays(sequencia % DIAS), "Membro Novo " + sequencia);
+    }
+
+    private static String membro(SplittableRandom random) {
+        return PRENOMES[random.nextInt(PRENOMES.length)] + " "
+                + PRENOMES[random.nextInt(PRENOMES.length)] + " "
+                + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " "
+                + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+    }
+
+    /** Nome de um emissor pré-definido, pelo índice */
+    public static String emissor(int index) {
+        return EmissorTypes.fromValue(index % EMISSORES).getNome();
+    }
+
+    /** Sobrenome para buscas parciais por membro */
+    public static String sobrenome(int i) {
+        return SOBRENOMES[i % SOBRENOMES.length];
+    }
+}
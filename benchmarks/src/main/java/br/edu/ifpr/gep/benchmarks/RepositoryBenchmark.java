@@ -0,0 +1,139 @@
+package br.edu.ifpr.gep.benchmarks;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.StringSearch;
+import br.edu.ifpr.gep.model.repository.PortariaCriteria;
+import br.edu.ifpr.gep.model.repository.PortariaPage;
+import br.edu.ifpr.gep.model.repository.PortariaRepository;
+
+/**
+ * Modificações e consultas do {@link PortariaRepository}.
+ * O repositório usa um diretório de dados próprio (gep.dados) e a
+ * durabilidade PERIODIC, para medir o custo em memória e do journal sem
+ * esperar pelo fsync a cada operação. O cache de consultas fica desligado:
+ * as consultas se repetem a cada iteração e, com ele, só os acertos do
+ * cache seriam medidos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dgep.dados=target/jmh-dados", "-Dgep.durabilidade=PERIODIC",
+        "-Dgep.cache.consultas=0"})
+public class RepositoryBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int tamanho;
+
+    private PortariaRepository repo;
+    private List<Portaria> dados;
+    private int posicao;
+    private int sequencia;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void carregar() {
+        repo = PortariaRepository.INSTANCE;
+        repo.deleteAll();
+        dados = DadosSinteticos.gerar(tamanho);
+        for (Portaria portaria : dados) {
+            repo.insert(portaria);
+        }
+        repo.checkpoint();
+    }
+
+    /** Próxima portaria existente, em ordem espalhada pelo acervo */
+    private Portaria proxima() {
+        posicao = (posicao + 7919) % tamanho;
+        return dados.get(posicao);
+    }
+
+    @Benchmark
+    public boolean insertDelete() {
+        Portaria nova = DadosSinteticos.nova(sequencia++);
+        repo.insert(nova);
+        return repo.delete(nova.getEmissor().getNome(), nova.getNumero(), nova.getPublicacao().getYear());
+    }
+
+    @Benchmark
+    public boolean update() {
+        return repo.update(proxima());
+    }
+
+    @Benchmark
+    public Optional<Portaria> findPortaria() {
+        Portaria p = proxima();
+        return repo.findPortaria(p.getEmissor().getNome(), p.getNumero(), p.getPublicacao().getYear());
+    }
+
+    @Benchmark
+    public List<Portaria> findByNumero() {
+        return repo.findByNumero(proxima().getNumero());
+    }
+
+    @Benchmark
+    public List<Portaria> findByEmissor() {
+        return repo.findByEmissor(DadosSinteticos.emissor(posicao++), true);
+    }
+
+    @Benchmark
+    public List<Portaria> findByAno() {
+        return repo.findByAno(proxima().getPublicacao().getYear());
+    }
+
+    @Benchmark
+    public List<Portaria> findByPublicacao() {
+        return repo.findByPublicacao(proxima().getPublicacao());
+    }
+
+    @Benchmark
+    public List<Portaria> findByPeriodo() {
+        LocalDate inicio = proxima().getPublicacao();
+        return repo.findByPeriodo(inicio, inicio.plusDays(30));
+    }
+
+    @Benchmark
+    public List<Portaria> findByMembroParcial() {
+        return repo.findByMembro(DadosSinteticos.sobrenome(posicao++), false);
+    }
+
+    @Benchmark
+    public List<Portaria> findByMembroExato() {
+        return repo.findByMembro(proxima().getMembro(), true);
+    }
+
+    @Benchmark
+    public List<Portaria> findComposto() {
+        Portaria p = proxima();
+        return repo.find(new PortariaCriteria()
+                .emissor(p.getEmissor().getNome(), StringSearch.EXACT)
+                .periodo(p.getPublicacao().minusYears(2), p.getPublicacao().plusYears(2))
+                .membro(DadosSinteticos.sobrenome(posicao), StringSearch.PARTIAL_CASE_INSENSITIVE));
+    }
+
+    @Benchmark
+    public PortariaPage findPage() {
+        PortariaPage page = repo.findPage(cursor, 50);
+        cursor = page.isUltima() ? null : page.getCursor();
+        return page;
+    }
+}
@@ -0,0 +1,132 @@
+package br.edu.ifpr.gep.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.repository.PortariaPK;
+import br.edu.ifpr.gep.model.repository.PortariaPKKeyDeserializer;
+import br.edu.ifpr.gep.model.utils.EmissorComparator;
+import br.edu.ifpr.gep.model.utils.EmissorNúmeroAnoComparator;
+import br.edu.ifpr.gep.model.utils.EmissorTypes;
+import br.edu.ifpr.gep.model.utils.NúmeroComparator;
+import br.edu.ifpr.gep.model.utils.PublicaçãoComparator;
+
+/**
+ * Emissores, chave legada e comparadores de model.utils.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dgep.dados=target/jmh-dados")
+public class UtilsBenchmark {
+
+    private final PortariaPKKeyDeserializer keyDeserializer = new PortariaPKKeyDeserializer();
+    private String[] nomes;
+    private String[] variantes;
+    private String[] chaves;
+    private int posicao;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        List<EmissorTypes> emissores = EmissorTypes.values();
+        nomes = new String[emissores.size()];
+        variantes = new String[emissores.size()];
+        for (int i = 0; i < nomes.length; i++) {
+            nomes[i] = emissores.get(i).getNome();
+            variantes[i] = EmissorTypes.normalize(nomes[i]).toUpperCase();
+        }
+        List<Portaria> dados = DadosSinteticos.gerar(1024);
+        chaves = new String[dados.size()];
+        for (int i = 0; i < chaves.length; i++) {
+            chaves[i] = PortariaPK.of(dados.get(i)).toString();
+        }
+    }
+
+    @Benchmark
+    public EmissorTypes fromNameExato() {
+        return EmissorTypes.fromName(nomes[posicao++ % nomes.length]);
+    }
+
+    @Benchmark
+    public EmissorTypes fromNameNormalizado() {
+        return EmissorTypes.fromName(variantes[posicao++ % variantes.length]);
+    }
+
+    @Benchmark
+    public EmissorTypes fromNameInexistente() {
+        return EmissorTypes.fromName("Campus Inexistente " + (posicao++ & 7));
+    }
+
+    @Benchmark
+    public EmissorTypes fromValue() {
+        return EmissorTypes.fromValue(posicao++ % DadosSinteticos.EMISSORES);
+    }
+
+    @Benchmark
+    public Object deserializeKey() throws IOException {
+        return keyDeserializer.deserializeKey(chaves[posicao++ & 1023], null);
+    }
+
+    /** Ordenação de uma cópia do acervo com cada comparador */
+    @State(Scope.Benchmark)
+    public static class Ordenacao {
+        @Param({"10000", "100000"})
+        int tamanho;
+
+        List<Portaria> dados;
+
+        @Setup(Level.Trial)
+        public void gerar() {
+            dados = DadosSinteticos.gerar(tamanho);
+        }
+
+        List<Portaria> ordenar(Comparator<Portaria> comparador) {
+            List<Portaria> copia = new ArrayList<>(dados);
+            copia.sort(comparador);
+            return copia;
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Portaria> sortEmissor(Ordenacao o) {
+        return o.ordenar(new EmissorComparator());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Portaria> sortEmissorNumeroAno(Ordenacao o) {
+        return o.ordenar(new EmissorNúmeroAnoComparator());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Portaria> sortNumero(Ordenacao o) {
+        return o.ordenar(new NúmeroComparator());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Portaria> sortPublicacao(Ordenacao o) {
+        return o.ordenar(new PublicaçãoComparator());
+    }
+}
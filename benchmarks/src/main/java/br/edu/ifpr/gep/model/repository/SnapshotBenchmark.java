@@ -0,0 +1,91 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import br.edu.ifpr.gep.benchmarks.DadosSinteticos;
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Leitura e gravação dos snapshots (o que loadData e saveData fazem),
+ * em JSON e no formato binário. Fica no pacote do repositório para
+ * acessar os leitores e gravadores, que não são públicos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int tamanho;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private File diretorio;
+    private File json;
+    private File binario;
+    private List<Portaria> dados;
+
+    @Setup(Level.Trial)
+    public void gerar() throws IOException {
+        dados = DadosSinteticos.gerar(tamanho);
+        diretorio = Files.createTempDirectory("gep-snapshot").toFile();
+        json = new File(diretorio, "portarias.json");
+        binario = new File(diretorio, "portarias.bin");
+        new PortariaJsonWriter(jsonFactory).write(json, dados);
+        PortariaBinarySnapshot.write(binario, dados);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpar() {
+        File[] arquivos = diretorio.listFiles();
+        if (arquivos != null) {
+            for (File arquivo : arquivos) {
+                arquivo.delete();
+            }
+        }
+        diretorio.delete();
+    }
+
+    @Benchmark
+    public void saveJson() throws IOException {
+        new PortariaJsonWriter(jsonFactory).write(new File(diretorio, "saida.json"), dados);
+    }
+
+    @Benchmark
+    public void loadJson(Blackhole bh) throws IOException {
+        new PortariaJsonReader(jsonFactory).read(json, bh::consume);
+    }
+
+    @Benchmark
+    public void saveBinario() throws IOException {
+        PortariaBinarySnapshot.write(new File(diretorio, "saida.bin"), dados);
+    }
+
+    @Benchmark
+    public int loadBinario(Blackhole bh) throws IOException {
+        return PortariaBinarySnapshot.read(binario, bh::consume);
+    }
+}
@@ -0,0 +1,372 @@
+package br.edu.ifpr.gep.aplicacao;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.repository.PortariaPK;
+import br.edu.ifpr.gep.model.repository.PortariaRepository;
+import br.edu.ifpr.gep.model.utils.EmissorTypes;
+
+/**
+ * Importação em massa de portarias, sem interface gráfica.
+ *
+ * Lê um arquivo CSV (separado por vírgula ou ponto e vírgula, com
+ * cabeçalho emissor, numero, publicacao, membro) ou JSON Lines (um objeto
+ * por linha, com os mesmos campos). As linhas são validadas em blocos,
+ * em paralelo; o emissor pode ser o nome ou o índice de {@link EmissorTypes}
+ * e a data pode estar em yyyy-MM-dd ou dd/MM/yyyy. Chaves repetidas no
+ * arquivo ou já existentes no repositório são rejeitadas. As portarias
+ * válidas são gravadas de uma só vez por
+ * {@link PortariaRepository#insertAll(java.util.Collection)}, e as linhas
+ * rejeitadas vão para um arquivo com o número da linha e o motivo.
+ *
+ * Uso: ImportadorPortarias arquivo.csv|arquivo.jsonl [rejeitados.csv]
+ * (os dados do repositório ficam no diretório da propriedade gep.dados).
+ * Campos CSV entre aspas não podem conter quebras de linha.
+ */
+public class ImportadorPortarias {
+
+    private static final int TAMANHO_BLOCO = 10_000;
+    private static final DateTimeFormatter DATA_BR =
+            DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+    private static final DateTimeFormatter DATA_ISO =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd").withResolverStyle(ResolverStyle.STRICT);
+    private static final String[] COLUNAS_PADRAO = {"emissor", "numero", "publicacao", "membro"};
+
+    /** Resultado da validação de um bloco de linhas */
+    private static class Bloco {
+        final List<Portaria> validas = new ArrayList<>();
+        final List<Integer> linhasValidas = new ArrayList<>();
+        final List<String> rejeitadas = new ArrayList<>();
+    }
+
+    /** Resumo de uma importação */
+    public static class Resultado {
+        private final int lidas;
+        private final int importadas;
+        private final int rejeitadas;
+        private final boolean semCabecalho;
+
+        Resultado(int lidas, int importadas, int rejeitadas, boolean semCabecalho) {
+            this.lidas = lidas;
+            this.importadas = importadas;
+            this.rejeitadas = rejeitadas;
+            this.semCabecalho = semCabecalho;
+        }
+
+        public int getLidas() { return lidas; }
+        public int getImportadas() { return importadas; }
+        public int getRejeitadas() { return rejeitadas; }
+        /** CSV sem cabeçalho reconhecido, lido na ordem emissor, numero, publicacao, membro */
+        public boolean isSemCabecalho() { return semCabecalho; }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private boolean jsonLines;
+    private char separador = ';';
+    private int[] colunas; // posição de emissor, numero, publicacao e membro no CSV
+    private boolean semCabecalho;
+
+    public static void main(String[] args) {
+        System.exit(executar(args));
+    }
+
+    /**
+     * Executa a importação da linha de comando e informa o resultado.
+     * @return código de saída: 0 se a importação terminou, 1 em caso de
+     *         erro de leitura ou gravação, 2 se faltar o arquivo
+     */
+    static int executar(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Uso: ImportadorPortarias arquivo.csv|arquivo.jsonl [rejeitados.csv]");
+            return 2;
+        }
+        File entrada = new File(args[0]);
+        File rejeitados = args.length > 1 ? new File(args[1]) : new File(args[0] + ".rejeitados.csv");
+        try {
+            long inicio = System.nanoTime();
+            Resultado resultado = new ImportadorPortarias().importar(entrada, rejeitados, PortariaRepository.INSTANCE);
+            if (resultado.isSemCabecalho()) {
+                System.out.println("Cabeçalho não reconhecido; usando a ordem " + String.join(", ", COLUNAS_PADRAO) + ".");
+            }
+            System.out.printf("Importação concluída em %.1f s: %d linhas, %d portarias importadas, %d rejeitadas.%n",
+                    (System.nanoTime() - inicio) / 1e9, resultado.getLidas(),
+                    resultado.getImportadas(), resultado.getRejeitadas());
+            if (resultado.getRejeitadas() > 0) {
+                System.out.println("Linhas rejeitadas em " + rejeitados.getPath());
+            }
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Erro na importação de " + entrada.getName() + ": " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Importa o arquivo para o repositório.
+     * @param rejeitados arquivo das linhas rejeitadas (só é criado se houver alguma)
+     */
+    public Resultado importar(File entrada, File rejeitados, PortariaRepository repo) throws IOException {
+        List<String> linhas = Files.readAllLines(entrada.toPath(), StandardCharsets.UTF_8);
+        if (!linhas.isEmpty() && linhas.get(0).startsWith("\uFEFF")) {
+            linhas.set(0, linhas.get(0).substring(1));
+        }
+        int primeira = detectarFormato(entrada, linhas);
+
+        // Validação em paralelo, um bloco de linhas por tarefa; a ordem dos blocos é mantida
+        int total = linhas.size() - primeira;
+        int blocos = (total + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+        List<Bloco> resultados = IntStream.range(0, blocos)
+                .parallel()
+                .mapToObj(b -> validar(linhas, primeira + b * TAMANHO_BLOCO,
+                        Math.min(linhas.size(), primeira + (b + 1) * TAMANHO_BLOCO)))
+                .collect(Collectors.toList());
+
+        // Elimina as chaves repetidas no arquivo (vale a primeira ocorrência)
+        List<String> rejeicoes = new ArrayList<>();
+        List<Portaria> unicas = new ArrayList<>(total);
+        Map<PortariaPK, Integer> vistas = new HashMap<>(total * 2);
+        for (Bloco bloco : resultados) {
+            rejeicoes.addAll(bloco.rejeitadas);
+            for (int i = 0; i < bloco.validas.size(); i++) {
+                Portaria portaria = bloco.validas.get(i);
+                int numeroLinha = bloco.linhasValidas.get(i);
+                Integer anterior = vistas.putIfAbsent(PortariaPK.of(portaria), numeroLinha);
+                if (anterior == null) {
+                    unicas.add(portaria);
+                } else {
+                    rejeicoes.add(rejeicao(numeroLinha, "chave repetida (linha " + anterior + ")",
+                            linhas.get(numeroLinha - 1)));
+                }
+            }
+        }
+
+        // Uma única gravação para todas as portarias
+        List<Portaria> existentes = repo.insertAll(unicas);
+        for (Portaria portaria : existentes) {
+            int numeroLinha = vistas.get(PortariaPK.of(portaria));
+            rejeicoes.add(rejeicao(numeroLinha, "portaria já existe no repositório", linhas.get(numeroLinha - 1)));
+        }
+
+        if (!rejeicoes.isEmpty()) {
+            gravarRejeitadas(rejeitados, rejeicoes);
+        }
+        int lidas = (int) linhas.stream().skip(primeira).filter(l -> !l.isBlank()).count();
+        return new Resultado(lidas, unicas.size() - existentes.size(), rejeicoes.size(), semCabecalho);
+    }
+
+    /**
+     * Identifica JSON Lines ou CSV (pela extensão ou pela primeira linha) e,
+     * no CSV, o separador e a posição das colunas.
+     * @return índice da primeira linha de dados
+     */
+    private int detectarFormato(File entrada, List<String> linhas) {
+        semCabecalho = false;
+        String nome = entrada.getName().toLowerCase(Locale.ROOT);
+        String primeiraLinha = linhas.stream().filter(l -> !l.isBlank()).findFirst().orElse("");
+        jsonLines = nome.endsWith(".jsonl") || nome.endsWith(".ndjson") || primeiraLinha.trim().startsWith("{");
+        if (jsonLines || linhas.isEmpty()) {
+            return 0;
+        }
+
+        String cabecalho = linhas.get(0);
+        separador = contar(cabecalho, ';') >= contar(cabecalho, ',') ? ';' : ',';
+        List<String> campos = dividir(cabecalho, separador);
+        colunas = new int[] {-1, -1, -1, -1};
+        for (int i = 0; i < campos.size(); i++) {
+            switch (EmissorTypes.normalize(campos.get(i))) {
+                case "emissor" -> colunas[0] = i;
+                case "numero" -> colunas[1] = i;
+                case "publicacao", "data" -> colunas[2] = i;
+                case "membro", "nome" -> colunas[3] = i;
+                default -> { }
+            }
+        }
+        for (int coluna : colunas) {
+            if (coluna < 0) {
+                // Sem cabeçalho reconhecido: colunas na ordem padrão, desde a primeira linha
+                semCabecalho = true;
+                colunas = new int[] {0, 1, 2, 3};
+                return 0;
+            }
+        }
+        return 1;
+    }
+
+    /** Valida as linhas [de, ate) e monta as portarias */
+    private Bloco validar(List<String> linhas, int de, int ate) {
+        Bloco bloco = new Bloco();
+        Map<String, EmissorTypes> emissores = new HashMap<>(); // cache do bloco
+        String[] valores = new String[4];
+        for (int i = de; i < ate; i++) {
+            String linha = linhas.get(i);
+            if (linha.isBlank()) {
+                continue;
+            }
+            int numeroLinha = i + 1;
+            try {
+                if (jsonLines) {
+                    lerJson(linha, valores);
+                } else {
+                    lerCsv(linha, valores);
+                }
+                bloco.validas.add(criar(valores, emissores));
+                bloco.linhasValidas.add(numeroLinha);
+            } catch (IllegalArgumentException e) {
+                bloco.rejeitadas.add(rejeicao(numeroLinha, e.getMessage(), linha));
+            } catch (IOException e) {
+                bloco.rejeitadas.add(rejeicao(numeroLinha, "JSON inválido", linha));
+            }
+        }
+        return bloco;
+    }
+
+    private void lerJson(String linha, String[] valores) throws IOException {
+        JsonNode node = objectMapper.readTree(linha);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("linha não é um objeto JSON");
+        }
+        for (int i = 0; i < COLUNAS_PADRAO.length; i++) {
+            JsonNode campo = node.get(COLUNAS_PADRAO[i]);
+            valores[i] = campo == null || campo.isNull() ? null : campo.asText();
+        }
+    }
+
+    private void lerCsv(String linha, String[] valores) {
+        List<String> campos = dividir(linha, separador);
+        for (int i = 0; i < colunas.length; i++) {
+            valores[i] = colunas[i] < campos.size() ? campos.get(colunas[i]) : null;
+        }
+    }
+
+    /** Valida os valores lidos de uma linha e cria a portaria */
+    private Portaria criar(String[] valores, Map<String, EmissorTypes> emissores) {
+        String emissorTexto = obrigatorio(valores[0], "emissor");
+        EmissorTypes emissor = emissores.computeIfAbsent(emissorTexto, ImportadorPortarias::resolverEmissor);
+        if (emissor == null) {
+            throw new IllegalArgumentException("emissor desconhecido: " + emissorTexto);
+        }
+        Integer numero;
+        try {
+            numero = Integer.valueOf(obrigatorio(valores[1], "numero"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("número inválido: " + valores[1]);
+        }
+        if (numero <= 0) {
+            throw new IllegalArgumentException("número deve ser positivo: " + numero);
+        }
+        LocalDate publicacao = data(obrigatorio(valores[2], "publicacao"));
+        String membro = obrigatorio(valores[3], "membro");
+
+        Portaria portaria = new Portaria();
+        portaria.setEmissor(emissor);
+        portaria.setNumero(numero);
+        portaria.setPublicacao(publicacao);
+        portaria.setMembro(membro);
+        return portaria;
+    }
+
+    /** Emissor pelo índice numérico ou pelo nome (sem acentos e maiúsculas); null se não existir */
+    private static EmissorTypes resolverEmissor(String texto) {
+        if (texto.chars().allMatch(Character::isDigit)) {
+            try {
+                return EmissorTypes.fromValue(Integer.parseInt(texto));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return EmissorTypes.fromName(texto);
+    }
+
+    private static LocalDate data(String texto) {
+        try {
+            return LocalDate.parse(texto, texto.indexOf('/') >= 0 ? DATA_BR : DATA_ISO);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("data inválida: " + texto);
+        }
+    }
+
+    private static String obrigatorio(String valor, String campo) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException("campo '" + campo + "' vazio");
+        }
+        return valor.trim();
+    }
+
+    /** Divide uma linha CSV; campos entre aspas podem conter o separador e aspas duplicadas ("") */
+    private static List<String> dividir(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean aspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (aspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    aspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                aspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private static int contar(String texto, char c) {
+        int n = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == c) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /** Linha do arquivo de rejeitadas: número da linha, motivo e conteúdo original */
+    private static String rejeicao(int numeroLinha, String motivo, String linha) {
+        return numeroLinha + ";\"" + motivo.replace("\"", "\"\"") + "\";\"" + linha.replace("\"", "\"\"") + "\"";
+    }
+
+    private static void gravarRejeitadas(File arquivo, List<String> rejeicoes) throws IOException {
+        // Ordena pelo número da linha (os blocos e as verificações de chave geram fora de ordem)
+        rejeicoes.sort((a, b) -> Integer.compare(
+                Integer.parseInt(a.substring(0, a.indexOf(';'))),
+                Integer.parseInt(b.substring(0, b.indexOf(';')))));
+        try (BufferedWriter writer = Files.newBufferedWriter(arquivo.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("linha;motivo;conteudo");
+            writer.newLine();
+            for (String rejeicao : rejeicoes) {
+                writer.write(rejeicao);
+                writer.newLine();
+            }
+        }
+    }
+}
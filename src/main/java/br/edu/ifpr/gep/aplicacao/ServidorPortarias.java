@@ -0,0 +1,403 @@
+package br.edu.ifpr.gep.aplicacao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.StringSearch;
+import br.edu.ifpr.gep.model.repository.ExportFormat;
+import br.edu.ifpr.gep.model.repository.PortariaCriteria;
+import br.edu.ifpr.gep.model.repository.PortariaOrder;
+import br.edu.ifpr.gep.model.repository.PortariaRepository;
+
+/**
+ * Servidor HTTP/JSON do repositório, sem interface gráfica: vários clientes
+ * passam a usar o mesmo acervo em vez de uma cópia do portarias.json em
+ * cada máquina. Usa o {@link HttpServer} do JDK, com uma thread virtual
+ * por requisição, e o ObjectMapper configurado pelo repositório.
+ *
+ * Rotas:
+ * GET /portarias (todas; ?ordem=publicacao; ?offset=&limite= ou
+ * ?cursor=&limite= para páginas), POST /portarias (inclusão),
+ * DELETE /portarias (exclui todas);
+ * GET, PUT e DELETE /portarias/{emissor}/{numero}/{ano};
+ * GET /consultas/emissor?nome=&estrito=, /consultas/ano?ano=,
+ * /consultas/membro?nome=&estrito=, /consultas/numero?numero=,
+ * /consultas/publicacao?data=, /consultas/periodo?inicio=&fim= e
+ * /consultas/criterios?emissor=&numero=&ano=&inicio=&fim=&membro=.
+ *
+ * As listas são escritas em streaming, uma portaria por vez; com
+ * Accept: application/x-ndjson, GET /portarias devolve JSON Lines lidas do
+ * repositório em páginas, sem prender o lock enquanto o cliente recebe.
+ * As respostas de GET levam um ETag com a versão do acervo
+ * ({@link PortariaRepository#getVersao()}): um If-None-Match com a versão
+ * atual recebe 304, sem executar a consulta. Com Accept-Encoding: gzip a
+ * resposta é compactada.
+ *
+ * Uso: ServidorPortarias [porta] (padrão 8080). O endereço vem de
+ * gep.servidor.endereco (padrão localhost; 0.0.0.0 para aceitar outras
+ * máquinas). Não há autenticação.
+ */
+public class ServidorPortarias {
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String NDJSON = "application/x-ndjson";
+    /** Portarias lidas por vez ao escrever JSON Lines */
+    private static final int LOTE_NDJSON = 1000;
+
+    /** Requisição com parâmetros inválidos (responde 400) */
+    private static class RequisicaoInvalida extends RuntimeException {
+        RequisicaoInvalida(String mensagem) {
+            super(mensagem);
+        }
+    }
+
+    private final PortariaRepository repo;
+    private final ObjectMapper objectMapper;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ServidorPortarias(PortariaRepository repo, InetSocketAddress endereco) throws IOException {
+        this.repo = repo;
+        this.objectMapper = repo.getObjectMapper();
+        this.server = HttpServer.create(endereco, 0);
+        server.createContext("/portarias", this::tratar);
+        server.createContext("/consultas", this::tratar);
+        server.setExecutor(executor);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        String host = System.getProperty("gep.servidor.endereco", "localhost");
+        ServidorPortarias servidor = new ServidorPortarias(PortariaRepository.INSTANCE, new InetSocketAddress(host, porta));
+        servidor.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(servidor::stop, "servidor-portarias-stop"));
+        System.out.println("Servidor de portarias em http://" + host + ":" + servidor.getPorta() + "/portarias");
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** Para de aceitar requisições e espera até 2 segundos pelas que estão em andamento */
+    public void stop() {
+        server.stop(2);
+        executor.shutdown();
+    }
+
+    /** Porta em uso (útil quando o servidor foi criado com a porta 0) */
+    public int getPorta() {
+        return server.getAddress().getPort();
+    }
+
+    private void tratar(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                rotear(exchange, segmentos(exchange), parametros(exchange));
+            } catch (RequisicaoInvalida | IllegalArgumentException | DateTimeParseException e) {
+                erro(exchange, 400, e.getMessage());
+            } catch (JsonProcessingException e) {
+                // Sem a posição no fonte, que o Jackson acrescenta à mensagem
+                erro(exchange, 400, e.getOriginalMessage());
+            } catch (UncheckedIOException e) {
+                // A modificação não foi gravada (e foi desfeita no repositório)
+                System.err.println("Erro de gravação: " + e.getMessage());
+                erro(exchange, 503, e.getMessage());
+            } catch (IOException e) {
+                // Cliente desconectado durante a resposta: não há a quem responder
+                System.err.println("Erro de E/S no servidor: " + e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Erro no servidor: " + e);
+                erro(exchange, 500, "Erro interno.");
+            }
+        }
+    }
+
+    private void rotear(HttpExchange exchange, List<String> caminho, Map<String, String> parametros) throws IOException {
+        String metodo = exchange.getRequestMethod();
+        if (caminho.get(0).equals("consultas")) {
+            if (caminho.size() != 2) {
+                erro(exchange, 404, "Consulta inexistente.");
+            } else if (exigir(exchange, metodo, "GET")) {
+                consultar(exchange, caminho.get(1), parametros);
+            }
+            return;
+        }
+        if (!caminho.get(0).equals("portarias")) {
+            erro(exchange, 404, "Recurso inexistente.");
+            return;
+        }
+        if (caminho.size() == 1) {
+            switch (metodo) {
+                case "GET" -> listar(exchange, parametros);
+                case "POST" -> inserir(exchange);
+                case "DELETE" -> responder(exchange, 200, Map.of("excluidas", repo.deleteAll()));
+                default -> exigir(exchange, metodo, "GET, POST, DELETE");
+            }
+            return;
+        }
+        if (caminho.size() != 4) {
+            erro(exchange, 404, "Recurso inexistente.");
+            return;
+        }
+        String emissor = caminho.get(1);
+        int numero = inteiro(caminho.get(2), "número");
+        int ano = inteiro(caminho.get(3), "ano");
+        switch (metodo) {
+            case "GET" -> {
+                if (naoModificado(exchange)) {
+                    return;
+                }
+                Optional<Portaria> portaria = repo.findPortaria(emissor, numero, ano);
+                if (portaria.isPresent()) {
+                    responder(exchange, 200, portaria.get());
+                } else {
+                    erro(exchange, 404, "Portaria não encontrada.");
+                }
+            }
+            case "PUT" -> atualizar(exchange, emissor, numero, ano);
+            case "DELETE" -> {
+                if (repo.delete(emissor, numero, ano)) {
+                    exchange.sendResponseHeaders(204, -1);
+                } else {
+                    erro(exchange, 404, "Portaria não encontrada.");
+                }
+            }
+            default -> exigir(exchange, metodo, "GET, PUT, DELETE");
+        }
+    }
+
+    /** Responde 405 se o método não estiver entre os permitidos */
+    private boolean exigir(HttpExchange exchange, String metodo, String permitidos) throws IOException {
+        if (List.of(permitidos.split(", ")).contains(metodo)) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", permitidos);
+        erro(exchange, 405, "Método não permitido: " + metodo);
+        return false;
+    }
+
+    private void listar(HttpExchange exchange, Map<String, String> parametros) throws IOException {
+        if (naoModificado(exchange)) {
+            return;
+        }
+        PortariaOrder ordem = "publicacao".equalsIgnoreCase(parametros.get("ordem"))
+                ? PortariaOrder.PUBLICACAO : PortariaOrder.EMISSOR_NUMERO_ANO;
+        if (parametros.containsKey("limite")) {
+            int limite = inteiro(parametros.get("limite"), "limite");
+            if (parametros.containsKey("offset")) {
+                responder(exchange, 200, repo.findPage(ordem, inteiro(parametros.get("offset"), "offset"), limite));
+            } else {
+                responder(exchange, 200, repo.findPage(parametros.get("cursor"), limite));
+            }
+            return;
+        }
+        String aceita = exchange.getRequestHeaders().getFirst("Accept");
+        if (aceita != null && aceita.contains(NDJSON)) {
+            // Em páginas, cada uma lida sob o seu próprio lock: um cliente lento não bloqueia as escritas
+            exchange.getResponseHeaders().set("Content-Type", NDJSON);
+            try (OutputStream out = abrirResposta(exchange, 200)) {
+                repo.exportPaged(out, ExportFormat.JSON_LINES, ordem, LOTE_NDJSON, false);
+            }
+            return;
+        }
+        responder(exchange, 200, repo.findAll(ordem));
+    }
+
+    private void consultar(HttpExchange exchange, String consulta, Map<String, String> parametros) throws IOException {
+        if (naoModificado(exchange)) {
+            return;
+        }
+        boolean estrito = Boolean.parseBoolean(parametros.get("estrito"));
+        List<Portaria> resultado = switch (consulta) {
+            case "emissor" -> repo.findByEmissor(obrigatorio(parametros, "nome"), estrito);
+            case "ano" -> repo.findByAno(inteiro(obrigatorio(parametros, "ano"), "ano"));
+            case "membro" -> repo.findByMembro(obrigatorio(parametros, "nome"), estrito);
+            case "numero" -> repo.findByNumero(inteiro(obrigatorio(parametros, "numero"), "número"));
+            case "publicacao" -> repo.findByPublicacao(LocalDate.parse(obrigatorio(parametros, "data")));
+            case "periodo" -> repo.findByPeriodo(LocalDate.parse(obrigatorio(parametros, "inicio")),
+                    LocalDate.parse(obrigatorio(parametros, "fim")));
+            case "criterios" -> repo.find(criterios(parametros));
+            default -> null;
+        };
+        if (resultado == null) {
+            erro(exchange, 404, "Consulta inexistente: " + consulta);
+        } else {
+            responder(exchange, 200, resultado);
+        }
+    }
+
+    /** Critérios da consulta composta; textos em busca parcial sem maiúsculas, ou exata com estrito=true */
+    private PortariaCriteria criterios(Map<String, String> parametros) {
+        StringSearch modo = Boolean.parseBoolean(parametros.get("estrito"))
+                ? StringSearch.EXACT_CASE_INSENSITIVE : StringSearch.PARTIAL_CASE_INSENSITIVE;
+        PortariaCriteria criteria = new PortariaCriteria();
+        if (parametros.containsKey("emissor")) criteria.emissor(parametros.get("emissor"), modo);
+        if (parametros.containsKey("numero")) criteria.numero(inteiro(parametros.get("numero"), "número"));
+        if (parametros.containsKey("ano")) criteria.ano(inteiro(parametros.get("ano"), "ano"));
+        if (parametros.containsKey("inicio") || parametros.containsKey("fim")) {
+            criteria.periodo(data(parametros.get("inicio")), data(parametros.get("fim")));
+        }
+        if (parametros.containsKey("membro")) criteria.membro(parametros.get("membro"), modo);
+        return criteria;
+    }
+
+    private void inserir(HttpExchange exchange) throws IOException {
+        Portaria portaria = lerPortaria(exchange);
+        if (repo.insert(portaria)) {
+            exchange.getResponseHeaders().set("Location", "/portarias/"
+                    + codificar(portaria.getEmissor().getNome()) + "/" + portaria.getNumero()
+                    + "/" + portaria.getPublicacao().getYear());
+            responder(exchange, 201, portaria);
+        } else {
+            erro(exchange, 409, "Portaria já existe.");
+        }
+    }
+
+    private void atualizar(HttpExchange exchange, String emissor, int numero, int ano) throws IOException {
+        Portaria portaria = lerPortaria(exchange);
+        if (!portaria.getEmissor().getNome().equalsIgnoreCase(emissor) || portaria.getNumero() != numero
+                || portaria.getPublicacao().getYear() != ano) {
+            throw new RequisicaoInvalida("A chave do corpo difere da chave do caminho.");
+        }
+        if (repo.update(portaria)) {
+            responder(exchange, 200, portaria);
+        } else {
+            erro(exchange, 404, "Portaria não encontrada.");
+        }
+    }
+
+    private Portaria lerPortaria(HttpExchange exchange) throws IOException {
+        Portaria portaria;
+        try (InputStream in = exchange.getRequestBody()) {
+            portaria = objectMapper.readValue(in, Portaria.class);
+        }
+        if (portaria == null || portaria.getEmissor() == null) {
+            throw new RequisicaoInvalida("Portaria sem emissor válido.");
+        }
+        return portaria;
+    }
+
+    /**
+     * Grava o ETag com a versão atual e responde 304 se o cliente já tiver
+     * essa versão. A versão é lida antes da consulta: uma escrita durante a
+     * consulta só faz o próximo pedido repetir o trabalho.
+     */
+    private boolean naoModificado(HttpExchange exchange) throws IOException {
+        String etag = "\"" + Long.toHexString(repo.getVersao()) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        String recebido = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (recebido != null && (recebido.equals("*") || List.of(recebido.split("\\s*,\\s*")).contains(etag))) {
+            exchange.sendResponseHeaders(304, -1);
+            return true;
+        }
+        return false;
+    }
+
+    /** Escreve o objeto em JSON; listas são escritas uma portaria por vez */
+    private void responder(HttpExchange exchange, int status, Object corpo) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        try (OutputStream out = abrirResposta(exchange, status);
+             JsonGenerator gerador = objectMapper.getFactory().createGenerator(out)) {
+            if (corpo instanceof List<?> lista) {
+                gerador.writeStartArray();
+                for (Object item : lista) {
+                    gerador.writeObject(item);
+                }
+                gerador.writeEndArray();
+            } else {
+                gerador.writeObject(corpo);
+            }
+        }
+    }
+
+    private void erro(HttpExchange exchange, int status, String mensagem) throws IOException {
+        exchange.getResponseHeaders().remove("ETag");
+        responder(exchange, status, Map.of("erro", mensagem == null ? "" : mensagem));
+    }
+
+    /** Envia os cabeçalhos (em chunks, sem tamanho conhecido) e abre o corpo, compactado se o cliente aceitar */
+    private OutputStream abrirResposta(HttpExchange exchange, int status) throws IOException {
+        String codificacoes = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        boolean gzip = codificacoes != null && codificacoes.contains("gzip");
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Vary", "Accept, Accept-Encoding");
+        exchange.sendResponseHeaders(status, 0);
+        OutputStream out = exchange.getResponseBody();
+        return gzip ? new GZIPOutputStream(out, 8192) : out;
+    }
+
+    private static List<String> segmentos(HttpExchange exchange) {
+        List<String> result = new ArrayList<>();
+        for (String segmento : exchange.getRequestURI().getRawPath().split("/")) {
+            if (!segmento.isEmpty()) {
+                result.add(URLDecoder.decode(segmento.replace("+", "%2B"), StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, String> parametros(HttpExchange exchange) {
+        Map<String, String> result = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return result;
+        }
+        for (String par : query.split("&")) {
+            int igual = par.indexOf('=');
+            String nome = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            result.put(URLDecoder.decode(nome, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+
+    private static String obrigatorio(Map<String, String> parametros, String nome) {
+        String valor = parametros.get(nome);
+        if (valor == null || valor.isEmpty()) {
+            throw new RequisicaoInvalida("Parâmetro obrigatório: " + nome);
+        }
+        return valor;
+    }
+
+    private static int inteiro(String valor, String campo) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new RequisicaoInvalida("Valor inválido para " + campo + ": " + valor);
+        }
+    }
+
+    private static LocalDate data(String valor) {
+        return valor == null || valor.isEmpty() ? null : LocalDate.parse(valor);
+    }
+
+    private static String codificar(String texto) {
+        return URLEncoder.encode(texto, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -31,6 +31,14 @@ public class Portaria {
         this.membro = membro;
     }
 
+    /** Cópia de outra portaria */
+    public Portaria(Portaria outra) {
+        this.emissor = outra.emissor;
+        this.numero = outra.numero;
+        this.publicacao = outra.publicacao;
+        this.membro = outra.membro;
+    }
+
     // Getters e Setters
     public EmissorTypes getEmissor() { return emissor; }
     public void setEmissor(EmissorTypes emissor) { this.emissor = emissor; }
@@ -1,8 +1,26 @@
 package br.edu.ifpr.gep.model;
 
+/**
+ * Modos de comparação de um campo de texto nas consultas.
+ */
 public enum StringSearch {
    EXACT,
    PARTIAL,
    EXACT_CASE_INSENSITIVE,
    PARTIAL_CASE_INSENSITIVE;
+
+   /** Verifica se o campo atende ao valor procurado neste modo */
+   public boolean matches(String field, String value) {
+      if (field == null || value == null) return false;
+      switch (this) {
+         case EXACT:
+            return field.equals(value);
+         case PARTIAL:
+            return field.contains(value);
+         case EXACT_CASE_INSENSITIVE:
+            return field.equalsIgnoreCase(value);
+         default:
+            return field.toLowerCase().contains(value.toLowerCase());
+      }
+   }
 }
@@ -0,0 +1,589 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiPredicate;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.utils.EmissorNúmeroAnoComparator;
+import br.edu.ifpr.gep.model.utils.EmissorTypes;
+
+/**
+ * Armazenamento colunar: cada portaria é uma linha de arrays primitivos
+ * (índice do emissor em short, número em int, publicação em dias desde a
+ * época, o ano da publicação em short e o membro como código de um
+ * dicionário de nomes). O ano fica em uma coluna própria para que a chave
+ * de uma linha, comparada a cada passo das buscas binárias, seja montada
+ * sem criar objetos. Objetos
+ * {@link Portaria} só são criados ao devolver resultados; alterá-los não
+ * altera o acervo.
+ *
+ * Por linha ficam 16 bytes de colunas, cerca de 20 bytes no mapa de chaves
+ * ({@link LongIntMap}) e 8 bytes nas duas ordens; cada nome distinto de
+ * membro é guardado uma única vez. As consultas percorrem as colunas
+ * (um laço sobre int[] por critério), exceto as por data e as paginadas,
+ * que usam as ordens mantidas por busca binária.
+ *
+ * Linhas excluídas ficam livres (emissor -1) e são reaproveitadas pelas
+ * próximas inclusões. Em cargas em lote as ordens são reconstruídas uma
+ * única vez, no fim.
+ */
+class ColumnarStore implements PortariaStore {
+
+    private static final short LIVRE = -1;
+    private static final int SEM_MEMBRO = -1;
+
+    // Colunas, indexadas pela linha
+    private short[] emissores = new short[16];
+    private int[] numeros = new int[16];
+    private int[] dias = new int[16];
+    private short[] anos = new short[16]; // de 0 a 65535, sem sinal
+    private int[] membros = new int[16];
+    private int linhas;       // linhas usadas, incluindo as livres
+    private int tamanho;      // linhas ocupadas
+    private final Pilha linhasLivres = new Pilha();
+
+    // Chave de emissor, número e ano -> linha
+    private final LongIntMap chaves = new LongIntMap(16);
+
+    // Dicionário de membros: código -> nome (e nome normalizado, para a busca parcial)
+    private String[] nomes = new String[16];
+    private String[] normalizados = new String[16];
+    private int[] usos = new int[16];
+    private int totalNomes;
+    private final Map<String, Integer> codigos = new HashMap<>();
+    private final Pilha codigosLivres = new Pilha();
+
+    // Linhas em ordem de chave e em ordem de publicação (desempate pela chave)
+    private int[] porChave = new int[16];
+    private int[] porPublicacao = new int[16];
+    private int ordenadas;    // linhas nas ordens (igual ao tamanho fora das cargas em lote)
+    private boolean emLote;
+
+    @Override
+    public boolean contains(long chave) {
+        return chaves.get(chave) >= 0;
+    }
+
+    @Override
+    public Portaria get(long chave) {
+        int linha = chaves.get(chave);
+        return linha < 0 ? null : materializar(linha);
+    }
+
+    @Override
+    public Portaria put(long chave, Portaria portaria) {
+        int linha = chaves.get(chave);
+        if (linha >= 0) {
+            Portaria anterior = materializar(linha);
+            if (emLote) {
+                gravar(linha, portaria);
+                return anterior;
+            }
+            // A data pode mudar: a linha sai da ordem de publicação e volta na nova posição
+            excluir(porPublicacao, ordenadas, posicaoPublicacao(dias[linha], chave, ordenadas));
+            gravar(linha, portaria);
+            porPublicacao = inserir(porPublicacao, ordenadas - 1,
+                    posicaoPublicacao(dias[linha], chave, ordenadas - 1), linha);
+            return anterior;
+        }
+        linha = novaLinha();
+        gravar(linha, portaria);
+        chaves.put(chave, linha);
+        if (!emLote) {
+            porChave = inserir(porChave, ordenadas, posicaoChave(chave), linha);
+            porPublicacao = inserir(porPublicacao, ordenadas, posicaoPublicacao(dias[linha], chave, ordenadas), linha);
+            ordenadas++;
+        }
+        tamanho++;
+        return null;
+    }
+
+    @Override
+    public Portaria remove(long chave) {
+        int linha = chaves.get(chave);
+        if (linha < 0) {
+            return null;
+        }
+        Portaria removida = materializar(linha);
+        if (!emLote) {
+            excluir(porChave, ordenadas, posicaoChave(chave));
+            excluir(porPublicacao, ordenadas, posicaoPublicacao(dias[linha], chave, ordenadas));
+            ordenadas--;
+        }
+        chaves.remove(chave);
+        liberarMembro(membros[linha]);
+        emissores[linha] = LIVRE;
+        linhasLivres.push(linha);
+        tamanho--;
+        return removida;
+    }
+
+    @Override
+    public List<Portaria> putAllAbsent(Collection<Portaria> novas) {
+        List<Portaria> existentes = new ArrayList<>();
+        for (Portaria portaria : novas) {
+            long chave = PortariaPK.chave(portaria);
+            if (chaves.get(chave) >= 0) {
+                existentes.add(portaria);
+            } else {
+                put(chave, portaria);
+            }
+        }
+        return existentes;
+    }
+
+    @Override
+    public void clear() {
+        emissores = new short[16];
+        numeros = new int[16];
+        dias = new int[16];
+        anos = new short[16];
+        membros = new int[16];
+        linhas = 0;
+        tamanho = 0;
+        linhasLivres.clear();
+        chaves.clear();
+        nomes = new String[16];
+        normalizados = new String[16];
+        usos = new int[16];
+        totalNomes = 0;
+        codigos.clear();
+        codigosLivres.clear();
+        porChave = new int[16];
+        porPublicacao = new int[16];
+        ordenadas = 0;
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+
+    @Override
+    public void beginBulk() {
+        emLote = true;
+    }
+
+    /**
+     * Reconstrói as ordens: as chaves das linhas ocupadas são ordenadas como
+     * long[] e a ordem de publicação é o par (dia, posição na ordem de
+     * chave) empacotado em outro long[].
+     */
+    @Override
+    public void endBulk() {
+        emLote = false;
+        long[] chavesOrdenadas = new long[tamanho];
+        int n = 0;
+        int menorDia = Integer.MAX_VALUE;
+        for (int linha = 0; linha < linhas; linha++) {
+            if (emissores[linha] != LIVRE) {
+                chavesOrdenadas[n++] = chave(linha);
+                menorDia = Math.min(menorDia, dias[linha]);
+            }
+        }
+        Arrays.parallelSort(chavesOrdenadas);
+        int capacidade = Math.max(16, tamanho + (tamanho >> 3));
+        int[] novaPorChave = new int[capacidade];
+        long[] publicacoes = new long[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            int linha = chaves.get(chavesOrdenadas[i]);
+            novaPorChave[i] = linha;
+            publicacoes[i] = ((long) dias[linha] - menorDia) << 32 | i;
+        }
+        chavesOrdenadas = null;
+        Arrays.parallelSort(publicacoes);
+        int[] novaPorPublicacao = new int[capacidade];
+        for (int i = 0; i < tamanho; i++) {
+            novaPorPublicacao[i] = novaPorChave[(int) publicacoes[i]];
+        }
+        porChave = novaPorChave;
+        porPublicacao = novaPorPublicacao;
+        ordenadas = tamanho;
+    }
+
+    /** Visão das linhas ocupadas; cada portaria é criada ao ser percorrida */
+    @Override
+    public Collection<Portaria> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Portaria> iterator() {
+                return new Iterator<>() {
+                    private int proxima = ocupadaAPartirDe(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return proxima < linhas;
+                    }
+
+                    @Override
+                    public Portaria next() {
+                        if (proxima >= linhas) {
+                            throw new NoSuchElementException();
+                        }
+                        Portaria portaria = materializar(proxima);
+                        proxima = ocupadaAPartirDe(proxima + 1);
+                        return portaria;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return tamanho;
+            }
+        };
+    }
+
+    @Override
+    public List<Portaria> findAll() {
+        return new ArrayList<>(values());
+    }
+
+    private int ocupadaAPartirDe(int linha) {
+        while (linha < linhas && emissores[linha] == LIVRE) {
+            linha++;
+        }
+        return linha;
+    }
+
+    @Override
+    public List<Portaria> findByNumero(int numero) {
+        List<Portaria> result = new ArrayList<>();
+        int[] coluna = numeros;
+        for (int linha = 0; linha < linhas; linha++) {
+            if (coluna[linha] == numero && emissores[linha] != LIVRE) {
+                result.add(materializar(linha));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Portaria> findByEmissores(List<Integer> aceitos) {
+        BitSet conjunto = new BitSet();
+        for (Integer emissor : aceitos) {
+            conjunto.set(emissor);
+        }
+        List<Portaria> result = new ArrayList<>();
+        short[] coluna = emissores;
+        for (int linha = 0; linha < linhas; linha++) {
+            if (coluna[linha] != LIVRE && conjunto.get(coluna[linha])) {
+                result.add(materializar(linha));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Portaria> findByPublicacao(long de, long ate) {
+        List<Portaria> result = new ArrayList<>();
+        for (int i = primeiraPublicacao(de); i < ordenadas && dias[porPublicacao[i]] <= ate; i++) {
+            result.add(materializar(porPublicacao[i]));
+        }
+        return result;
+    }
+
+    /** O predicado é avaliado uma vez por nome distinto do dicionário */
+    @Override
+    public List<Portaria> findByMembro(String termo, BiPredicate<String, String> predicado) {
+        BitSet aceitos = membrosAceitos(termo, predicado);
+        List<Portaria> result = new ArrayList<>();
+        if (aceitos.isEmpty()) {
+            return result;
+        }
+        int[] coluna = membros;
+        for (int linha = 0; linha < linhas; linha++) {
+            int codigo = coluna[linha];
+            if (codigo != SEM_MEMBRO && aceitos.get(codigo) && emissores[linha] != LIVRE) {
+                result.add(materializar(linha));
+            }
+        }
+        return result;
+    }
+
+    private BitSet membrosAceitos(String termo, BiPredicate<String, String> predicado) {
+        BitSet aceitos = new BitSet();
+        String normalizado = predicado == null ? EmissorTypes.normalize(termo) : null;
+        for (int codigo = 0; codigo < totalNomes; codigo++) {
+            if (nomes[codigo] == null) {
+                continue;
+            }
+            if (predicado == null ? normalizados[codigo].contains(normalizado) : predicado.test(nomes[codigo], termo)) {
+                aceitos.set(codigo);
+            }
+        }
+        return aceitos;
+    }
+
+    /**
+     * Os critérios são avaliados sobre as colunas, sem criar objetos; só as
+     * portarias aceitas são materializadas. Com critério de data, percorre
+     * apenas o trecho correspondente da ordem de publicação.
+     */
+    @Override
+    public List<Portaria> find(PortariaCriteria criteria, List<Integer> aceitos) {
+        BitSet conjuntoEmissores = null;
+        if (aceitos != null) {
+            conjuntoEmissores = new BitSet();
+            for (Integer emissor : aceitos) {
+                conjuntoEmissores.set(emissor);
+            }
+        }
+        BitSet conjuntoMembros = criteria.temMembro()
+                ? membrosAceitos(criteria.getMembro(), criteria.getMembroModo()::matches) : null;
+        Integer numero = criteria.getNumero();
+        long de = criteria.temData() ? criteria.primeiroDia() : Long.MIN_VALUE;
+        long ate = criteria.temData() ? criteria.ultimoDia() : Long.MAX_VALUE;
+
+        List<Portaria> result = new ArrayList<>();
+        if (criteria.temData()) {
+            for (int i = primeiraPublicacao(de); i < ordenadas && dias[porPublicacao[i]] <= ate; i++) {
+                int linha = porPublicacao[i];
+                if (aceita(linha, numero, conjuntoEmissores, conjuntoMembros)) {
+                    result.add(materializar(linha));
+                }
+            }
+        } else {
+            for (int linha = 0; linha < linhas; linha++) {
+                if (emissores[linha] != LIVRE && aceita(linha, numero, conjuntoEmissores, conjuntoMembros)) {
+                    result.add(materializar(linha));
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean aceita(int linha, Integer numero, BitSet conjuntoEmissores, BitSet conjuntoMembros) {
+        if (numero != null && numeros[linha] != numero) {
+            return false;
+        }
+        if (conjuntoEmissores != null && !conjuntoEmissores.get(emissores[linha])) {
+            return false;
+        }
+        return conjuntoMembros == null || (membros[linha] != SEM_MEMBRO && conjuntoMembros.get(membros[linha]));
+    }
+
+    @Override
+    public Portaria get(PortariaOrder ordem, int posicao) {
+        return materializar(ordem(ordem)[posicao]);
+    }
+
+    @Override
+    public List<Portaria> slice(PortariaOrder ordem, int offset, int limite) {
+        int[] linhasOrdenadas = ordem(ordem);
+        int fim = (int) Math.min((long) offset + limite, ordenadas);
+        List<Portaria> result = new ArrayList<>(Math.max(0, fim - offset));
+        for (int i = offset; i < fim; i++) {
+            result.add(materializar(linhasOrdenadas[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Portaria> after(long depoisDe, int limite) {
+        if (depoisDe == Long.MAX_VALUE) {
+            return new ArrayList<>();
+        }
+        return slice(PortariaOrder.EMISSOR_NUMERO_ANO, posicaoChave(depoisDe + 1), limite);
+    }
+
+    @Override
+    public int positionOf(Portaria portaria) {
+        return posicaoChave(EmissorNúmeroAnoComparator.chave(portaria));
+    }
+
+    private int[] ordem(PortariaOrder ordem) {
+        return ordem == PortariaOrder.PUBLICACAO ? porPublicacao : porChave;
+    }
+
+    @Override
+    public Map<String, Integer> sizes() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("linhas", linhas);
+        result.put("chaves", chaves.size());
+        result.put("membro", codigos.size());
+        result.put("chaveOrdenada", ordenadas);
+        result.put("publicacaoOrdenada", ordenadas);
+        return result;
+    }
+
+    private long chave(int linha) {
+        return EmissorNúmeroAnoComparator.chave(emissores[linha], numeros[linha], anos[linha] & 0xFFFF);
+    }
+
+    private Portaria materializar(int linha) {
+        Portaria portaria = new Portaria();
+        portaria.setEmissor(EmissorTypes.fromValue(emissores[linha]));
+        portaria.setNumero(numeros[linha]);
+        portaria.setPublicacao(LocalDate.ofEpochDay(dias[linha]));
+        int membro = membros[linha];
+        portaria.setMembro(membro == SEM_MEMBRO ? null : nomes[membro]);
+        return portaria;
+    }
+
+    private void gravar(int linha, Portaria portaria) {
+        int anterior = emissores[linha] == LIVRE ? SEM_MEMBRO : membros[linha];
+        emissores[linha] = (short) portaria.getEmissor().getIndex();
+        numeros[linha] = portaria.getNumero();
+        dias[linha] = Math.toIntExact(portaria.getPublicacao().toEpochDay());
+        anos[linha] = (short) portaria.getPublicacao().getYear();
+        membros[linha] = codigoDe(portaria.getMembro());
+        liberarMembro(anterior);
+    }
+
+    private int novaLinha() {
+        if (!linhasLivres.isEmpty()) {
+            return linhasLivres.pop();
+        }
+        if (linhas == emissores.length) {
+            int capacidade = linhas + (linhas >> 1);
+            emissores = Arrays.copyOf(emissores, capacidade);
+            numeros = Arrays.copyOf(numeros, capacidade);
+            dias = Arrays.copyOf(dias, capacidade);
+            anos = Arrays.copyOf(anos, capacidade);
+            membros = Arrays.copyOf(membros, capacidade);
+        }
+        emissores[linhas] = LIVRE;
+        return linhas++;
+    }
+
+    /** Código do nome no dicionário, incluindo-o se for novo */
+    private int codigoDe(String nome) {
+        if (nome == null) {
+            return SEM_MEMBRO;
+        }
+        Integer existente = codigos.get(nome);
+        int codigo;
+        if (existente != null) {
+            codigo = existente;
+        } else {
+            if (!codigosLivres.isEmpty()) {
+                codigo = codigosLivres.pop();
+            } else {
+                if (totalNomes == nomes.length) {
+                    int capacidade = totalNomes + (totalNomes >> 1);
+                    nomes = Arrays.copyOf(nomes, capacidade);
+                    normalizados = Arrays.copyOf(normalizados, capacidade);
+                    usos = Arrays.copyOf(usos, capacidade);
+                }
+                codigo = totalNomes++;
+            }
+            String normalizado = EmissorTypes.normalize(nome);
+            nomes[codigo] = nome;
+            normalizados[codigo] = normalizado.equals(nome) ? nome : normalizado;
+            codigos.put(nome, codigo);
+        }
+        usos[codigo]++;
+        return codigo;
+    }
+
+    /** Libera uma referência ao nome; sem referências, o código volta a ficar livre */
+    private void liberarMembro(int codigo) {
+        if (codigo == SEM_MEMBRO || --usos[codigo] > 0) {
+            return;
+        }
+        codigos.remove(nomes[codigo]);
+        nomes[codigo] = null;
+        normalizados[codigo] = null;
+        codigosLivres.push(codigo);
+    }
+
+    /** Primeira posição da ordem de chave com chave maior ou igual à indicada */
+    private int posicaoChave(long chave) {
+        int baixo = 0;
+        int alto = ordenadas;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (chave(porChave[meio]) < chave) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /** Primeira posição entre as n primeiras da ordem de publicação com (dia, chave) maior ou igual ao par */
+    private int posicaoPublicacao(int dia, long chave, int n) {
+        int baixo = 0;
+        int alto = n;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            int linha = porPublicacao[meio];
+            if (dias[linha] < dia || (dias[linha] == dia && chave(linha) < chave)) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /** Primeira posição da ordem de publicação com dia maior ou igual ao indicado */
+    private int primeiraPublicacao(long dia) {
+        int baixo = 0;
+        int alto = ordenadas;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (dias[porPublicacao[meio]] < dia) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /**
+     * Insere a linha na posição de uma ordem com n elementos.
+     * @return o array da ordem (outro, se foi preciso aumentá-lo)
+     */
+    private static int[] inserir(int[] ordem, int n, int posicao, int linha) {
+        int[] destino = n == ordem.length ? Arrays.copyOf(ordem, n + (n >> 1)) : ordem;
+        System.arraycopy(ordem, posicao, destino, posicao + 1, n - posicao);
+        destino[posicao] = linha;
+        return destino;
+    }
+
+    /** Remove a posição de uma ordem com n elementos */
+    private static void excluir(int[] ordem, int n, int posicao) {
+        System.arraycopy(ordem, posicao + 1, ordem, posicao, n - posicao - 1);
+    }
+
+    /** Pilha de inteiros (linhas e códigos livres) */
+    private static final class Pilha {
+        private int[] itens = new int[16];
+        private int tamanho;
+
+        void push(int valor) {
+            if (tamanho == itens.length) {
+                itens = Arrays.copyOf(itens, tamanho << 1);
+            }
+            itens[tamanho++] = valor;
+        }
+
+        int pop() {
+            return itens[--tamanho];
+        }
+
+        boolean isEmpty() {
+            return tamanho == 0;
+        }
+
+        void clear() {
+            itens = new int[16];
+            tamanho = 0;
+        }
+    }
+}
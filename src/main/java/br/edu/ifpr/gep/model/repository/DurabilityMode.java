@@ -0,0 +1,13 @@
+package br.edu.ifpr.gep.model.repository;
+
+/**
+ * Modos de durabilidade da gravação do repositório.
+ */
+public enum DurabilityMode {
+    /** Grava e sincroniza com o disco na própria thread que fez a modificação */
+    SYNC,
+    /** Agrupa as modificações que chegam dentro de uma janela em uma única gravação */
+    GROUP_COMMIT,
+    /** Grava em segundo plano e sincroniza com o disco a cada intervalo */
+    PERIODIC;
+}
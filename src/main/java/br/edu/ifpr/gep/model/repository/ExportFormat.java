@@ -0,0 +1,23 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.Locale;
+
+/**
+ * Formatos de exportação de portarias ({@link PortariaRepository#export}).
+ * Os dois formatos são aceitos pela importação em massa.
+ */
+public enum ExportFormat {
+    /** CSV separado por ponto e vírgula, com cabeçalho emissor;numero;publicacao;membro */
+    CSV,
+    /** Um objeto JSON por linha, com os campos emissor, numero, publicacao e membro */
+    JSON_LINES;
+
+    /** Formato pela extensão do arquivo (.csv ou .jsonl, com ou sem .gz); JSON Lines nos demais casos */
+    public static ExportFormat of(String nomeArquivo) {
+        String nome = nomeArquivo.toLowerCase(Locale.ROOT);
+        if (nome.endsWith(".gz")) {
+            nome = nome.substring(0, nome.length() - 3);
+        }
+        return nome.endsWith(".csv") ? CSV : JSON_LINES;
+    }
+}
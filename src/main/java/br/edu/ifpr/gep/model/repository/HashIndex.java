@@ -0,0 +1,81 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Índice de igualdade com vários valores por chave (por exemplo, número
+ * ou índice do emissor). Consultas custam O(1 + k).
+ *
+ * O valor indexado de cada chave é guardado à parte, para que a remoção
+ * funcione mesmo que a portaria tenha sido alterada depois de indexada.
+ * As estruturas são concorrentes: a escrita é serializada pelo repositório
+ * e a leitura pode ocorrer em paralelo.
+ */
+class HashIndex<K> implements PortariaIndex {
+
+    private final Function<Portaria, K> extrator;
+    private final Map<K, Map<Long, Portaria>> grupos = new ConcurrentHashMap<>();
+    private final Map<Long, K> valores = new ConcurrentHashMap<>();
+
+    HashIndex(Function<Portaria, K> extrator) {
+        this.extrator = extrator;
+    }
+
+    @Override
+    public void add(long chave, Portaria portaria) {
+        remove(chave);
+        K valor = extrator.apply(portaria);
+        valores.put(chave, valor);
+        grupos.computeIfAbsent(valor, v -> new ConcurrentHashMap<>()).put(chave, portaria);
+    }
+
+    @Override
+    public void remove(long chave) {
+        if (!valores.containsKey(chave)) {
+            return;
+        }
+        K valor = valores.remove(chave);
+        Map<Long, Portaria> grupo = grupos.get(valor);
+        grupo.remove(chave);
+        if (grupo.isEmpty()) {
+            grupos.remove(valor);
+        }
+    }
+
+    @Override
+    public void clear() {
+        grupos.clear();
+        valores.clear();
+    }
+
+    @Override
+    public int size() {
+        return grupos.size();
+    }
+
+    /** Portarias com o valor indicado */
+    List<Portaria> get(K valor) {
+        Map<Long, Portaria> grupo = grupos.get(valor);
+        return grupo == null ? new ArrayList<>() : new ArrayList<>(grupo.values());
+    }
+
+    /** Quantidade de portarias com o valor indicado */
+    int count(K valor) {
+        Map<Long, Portaria> grupo = grupos.get(valor);
+        return grupo == null ? 0 : grupo.size();
+    }
+
+    /** Acrescenta ao resultado as portarias com o valor indicado */
+    void addTo(K valor, List<Portaria> result) {
+        Map<Long, Portaria> grupo = grupos.get(valor);
+        if (grupo != null) {
+            result.addAll(grupo.values());
+        }
+    }
+}
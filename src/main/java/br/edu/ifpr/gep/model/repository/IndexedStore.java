@@ -0,0 +1,257 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.utils.EmissorNúmeroAnoComparator;
+import br.edu.ifpr.gep.model.utils.PublicaçãoComparator;
+
+/**
+ * Armazenamento padrão: as portarias ficam em um mapa de chaves primitivas
+ * ({@link LongObjectMap}, sem objetos de chave por portaria), acompanhado
+ * de índices secundários (datas, números, emissores e trigramas do
+ * membro) e de duas visões ordenadas. As portarias guardadas são cópias
+ * das recebidas e as consultas devolvem cópias: os índices nunca veem uma
+ * portaria alterada por fora.
+ */
+class IndexedStore implements PortariaStore {
+
+    private final LongObjectMap<Portaria> portarias = new LongObjectMap<>(16);
+    private final SortedIndex publicacaoIndex = new SortedIndex(p -> p.getPublicacao().toEpochDay());
+    private final HashIndex<Integer> numeroIndex = new HashIndex<>(Portaria::getNumero);
+    private final HashIndex<Integer> emissorIndex = new HashIndex<>(p -> p.getEmissor().getIndex());
+    private final TrigramIndex membroIndex = new TrigramIndex(Portaria::getMembro);
+    // Visões ordenadas com chaves primitivas pré-calculadas
+    private final SortedView chaveView = new SortedView(EmissorNúmeroAnoComparator::chave, p -> 0L);
+    private final SortedView publicacaoView = new SortedView(PublicaçãoComparator::chave, EmissorNúmeroAnoComparator::chave);
+    private final List<PortariaIndex> indexes =
+            List.of(publicacaoIndex, numeroIndex, emissorIndex, membroIndex, chaveView, publicacaoView);
+
+    @Override
+    public boolean contains(long chave) {
+        return portarias.containsKey(chave);
+    }
+
+    @Override
+    public Portaria get(long chave) {
+        Portaria portaria = portarias.get(chave);
+        return portaria == null ? null : new Portaria(portaria);
+    }
+
+    @Override
+    public Portaria put(long chave, Portaria recebida) {
+        Portaria portaria = new Portaria(recebida);
+        Portaria anterior = portarias.put(chave, portaria);
+        for (PortariaIndex index : indexes) {
+            index.add(chave, portaria);
+        }
+        return anterior;
+    }
+
+    @Override
+    public Portaria remove(long chave) {
+        Portaria removida = portarias.remove(chave);
+        if (removida == null) {
+            return null;
+        }
+        for (PortariaIndex index : indexes) {
+            index.remove(chave);
+        }
+        return removida;
+    }
+
+    /** Os índices são independentes entre si: cada um é preenchido por uma thread */
+    @Override
+    public List<Portaria> putAllAbsent(Collection<Portaria> novas) {
+        List<Portaria> existentes = new ArrayList<>();
+        long[] chaves = new long[novas.size()];
+        List<Portaria> inseridas = new ArrayList<>(novas.size());
+        for (Portaria recebida : novas) {
+            long chave = PortariaPK.chave(recebida);
+            Portaria portaria = new Portaria(recebida);
+            if (portarias.putIfAbsent(chave, portaria) != null) {
+                existentes.add(recebida);
+            } else {
+                chaves[inseridas.size()] = chave;
+                inseridas.add(portaria);
+            }
+        }
+        indexes.parallelStream().forEach(index -> {
+            for (int i = 0; i < inseridas.size(); i++) {
+                index.add(chaves[i], inseridas.get(i));
+            }
+        });
+        return existentes;
+    }
+
+    @Override
+    public void clear() {
+        portarias.clear();
+        for (PortariaIndex index : indexes) {
+            index.clear();
+        }
+    }
+
+    @Override
+    public int size() {
+        return portarias.size();
+    }
+
+    @Override
+    public void beginBulk() {
+        for (PortariaIndex index : indexes) {
+            index.beginBulk();
+        }
+    }
+
+    @Override
+    public void endBulk() {
+        indexes.parallelStream().forEach(PortariaIndex::endBulk);
+    }
+
+    @Override
+    public Collection<Portaria> values() {
+        return portarias.values();
+    }
+
+    @Override
+    public List<Portaria> findAll() {
+        return copias(new ArrayList<>(portarias.values()));
+    }
+
+    @Override
+    public List<Portaria> findByNumero(int numero) {
+        return copias(numeroIndex.get(numero));
+    }
+
+    @Override
+    public List<Portaria> findByEmissores(List<Integer> emissores) {
+        List<Portaria> result = new ArrayList<>();
+        for (Integer emissor : emissores) {
+            emissorIndex.addTo(emissor, result);
+        }
+        return copias(result);
+    }
+
+    @Override
+    public List<Portaria> findByPublicacao(long de, long ate) {
+        return copias(publicacaoIndex.range(de, ate));
+    }
+
+    @Override
+    public List<Portaria> findByMembro(String termo, BiPredicate<String, String> predicado) {
+        return copias(predicado == null ? membroIndex.searchPartial(termo) : membroIndex.search(termo, predicado));
+    }
+
+    /**
+     * O planejador estima quantos candidatos cada índice aplicável
+     * devolveria (número, emissor, data ou trigramas do membro), lê apenas
+     * o mais seletivo e filtra os candidatos pelos demais critérios. Sem
+     * critérios indexáveis, percorre todas as portarias.
+     */
+    @Override
+    public List<Portaria> find(PortariaCriteria criteria, List<Integer> emissores) {
+        List<Portaria> result = new ArrayList<>();
+        for (Portaria portaria : plan(criteria, emissores)) {
+            if (criteria.matches(portaria)) {
+                result.add(new Portaria(portaria));
+            }
+        }
+        return result;
+    }
+
+    /** Escolhe o caminho de acesso com menor estimativa de candidatos e o percorre */
+    private List<Portaria> plan(PortariaCriteria criteria, List<Integer> emissores) {
+        Supplier<List<Portaria>> melhor = () -> new ArrayList<>(portarias.values());
+        int custo = portarias.size();
+
+        if (criteria.getNumero() != null) {
+            int estimativa = numeroIndex.count(criteria.getNumero());
+            if (estimativa < custo) {
+                custo = estimativa;
+                melhor = () -> numeroIndex.get(criteria.getNumero());
+            }
+        }
+        if (emissores != null) {
+            int estimativa = 0;
+            for (Integer emissor : emissores) {
+                estimativa += emissorIndex.count(emissor);
+            }
+            if (estimativa < custo) {
+                custo = estimativa;
+                melhor = () -> {
+                    List<Portaria> candidatos = new ArrayList<>();
+                    for (Integer emissor : emissores) {
+                        emissorIndex.addTo(emissor, candidatos);
+                    }
+                    return candidatos;
+                };
+            }
+        }
+        if (criteria.temData()) {
+            long de = criteria.primeiroDia();
+            long ate = criteria.ultimoDia();
+            int estimativa = publicacaoIndex.count(de, ate, custo);
+            if (estimativa < custo) {
+                custo = estimativa;
+                melhor = () -> publicacaoIndex.range(de, ate);
+            }
+        }
+        if (criteria.temMembro()) {
+            // Os candidatos do índice contêm o termo normalizado, o que todos os modos exigem
+            int estimativa = membroIndex.estimate(criteria.getMembro());
+            if (estimativa < custo) {
+                melhor = () -> membroIndex.search(criteria.getMembro(), criteria.getMembroModo()::matches);
+            }
+        }
+        return melhor.get();
+    }
+
+    @Override
+    public Portaria get(PortariaOrder ordem, int posicao) {
+        return new Portaria(view(ordem).get(posicao));
+    }
+
+    @Override
+    public List<Portaria> slice(PortariaOrder ordem, int offset, int limite) {
+        return copias(view(ordem).slice(offset, limite));
+    }
+
+    @Override
+    public List<Portaria> after(long depoisDe, int limite) {
+        return copias(chaveView.after(depoisDe, limite));
+    }
+
+    @Override
+    public int positionOf(Portaria portaria) {
+        return chaveView.positionOf(portaria);
+    }
+
+    /** Troca as portarias da lista (nova) por cópias, que quem consulta pode alterar */
+    private static List<Portaria> copias(List<Portaria> lista) {
+        lista.replaceAll(Portaria::new);
+        return lista;
+    }
+
+    private SortedView view(PortariaOrder ordem) {
+        return ordem == PortariaOrder.PUBLICACAO ? publicacaoView : chaveView;
+    }
+
+    @Override
+    public Map<String, Integer> sizes() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("publicacao", publicacaoIndex.size());
+        result.put("numero", numeroIndex.size());
+        result.put("emissor", emissorIndex.size());
+        result.put("membro", membroIndex.size());
+        result.put("chaveOrdenada", chaveView.size());
+        result.put("publicacaoOrdenada", publicacaoView.size());
+        return result;
+    }
+}
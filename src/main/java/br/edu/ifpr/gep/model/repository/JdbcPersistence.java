@@ -0,0 +1,305 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.repository.PortariaMetrics.Operacao;
+import br.edu.ifpr.gep.model.utils.EmissorTypes;
+
+/**
+ * Persistência em um banco de dados embutido, acessado por JDBC dentro do
+ * próprio processo, sem servidor externo: H2 (o padrão) ou SQLite.
+ *
+ * As portarias ficam na tabela portarias, com chave primária (emissor,
+ * numero, ano). As consultas são respondidas pelo armazenamento em
+ * memória, não pelo banco, que por isso não tem outros índices. Cada
+ * modificação é um comando sobre uma única linha, localizada pela chave
+ * primária: o custo de uma escrita não depende do tamanho do acervo, e
+ * não há snapshot nem checkpoint que regrave tudo. As modificações que
+ * chegam dentro da janela do {@link DurabilityMode} são confirmadas em uma
+ * única transação.
+ *
+ * A URL vem de gep.jdbc.url (padrão: o arquivo portarias.mv.db do H2 no
+ * diretório de dados; jdbc:sqlite:... usa o SQLite), e o driver precisa
+ * estar no classpath. Se o banco não puder ser aberto, o repositório não é
+ * iniciado. Na primeira execução, com a tabela vazia, o acervo dos
+ * arquivos existentes (snapshot e journal) é importado.
+ */
+class JdbcPersistence implements PortariaPersistence {
+
+    private static final String CRIAR_TABELA = "CREATE TABLE IF NOT EXISTS portarias ("
+            + "emissor INTEGER NOT NULL, numero INTEGER NOT NULL, ano INTEGER NOT NULL, "
+            + "publicacao DATE NOT NULL, membro VARCHAR(1000), PRIMARY KEY (emissor, numero, ano))";
+    /** Índices criados por versões anteriores, que só encareciam as escritas */
+    private static final String[] EXCLUIR_INDICES = {
+            "DROP INDEX IF EXISTS portarias_publicacao", "DROP INDEX IF EXISTS portarias_numero"};
+    private static final String GRAVAR_H2 = "MERGE INTO portarias (emissor, numero, ano, publicacao, membro) "
+            + "KEY (emissor, numero, ano) VALUES (?, ?, ?, ?, ?)";
+    private static final String GRAVAR_SQLITE = "INSERT OR REPLACE INTO portarias "
+            + "(emissor, numero, ano, publicacao, membro) VALUES (?, ?, ?, ?, ?)";
+    private static final String EXCLUIR = "DELETE FROM portarias WHERE emissor = ? AND numero = ? AND ano = ?";
+    private static final int LOTE = 1000;
+
+    private final PortariaStore store;
+    private final JsonFilePersistence arquivos;
+    private final PortariaMetrics metrics;
+    private final DurabilityMode durabilityMode;
+    private final long durabilityJanela;
+    private final File arquivoBanco; // null quando a URL foi informada
+    private final String url;
+    private Tabela tabela;
+    private PersistenceWriter<PortariaJournal.Registro> writer;
+
+    /**
+     * @param arquivos persistência em arquivos do mesmo diretório, de onde
+     *                 o acervo é importado na primeira execução
+     */
+    JdbcPersistence(File dataDir, PortariaStore store, JsonFilePersistence arquivos,
+                    PortariaMetrics metrics, DurabilityMode durabilityMode, long durabilityJanela) {
+        this.store = store;
+        this.arquivos = arquivos;
+        this.metrics = metrics;
+        this.durabilityMode = durabilityMode;
+        this.durabilityJanela = durabilityJanela;
+        String configurada = System.getProperty("gep.jdbc.url");
+        if (configurada == null) {
+            // O repositório fecha o banco no seu próprio shutdown hook, depois de gravar o que estiver pendente
+            this.arquivoBanco = new File(dataDir, "portarias.mv.db");
+            this.url = "jdbc:h2:file:" + new File(dataDir, "portarias").getAbsoluteFile().toPath().normalize() + ";DB_CLOSE_ON_EXIT=FALSE";
+        } else {
+            this.arquivoBanco = null;
+            this.url = configurada;
+        }
+    }
+
+    /** Abre o banco, cria a tabela se preciso e carrega as portarias */
+    @Override
+    public void load() {
+        System.out.println("Iniciando repositório... Banco de dados: " + url);
+        PortariaPersistenceEvent evento = new PortariaPersistenceEvent();
+        evento.begin();
+        try {
+            tabela = new Tabela(DriverManager.getConnection(url), url.startsWith("jdbc:sqlite:"));
+            int lidas = tabela.carregar();
+            if (lidas == 0 && arquivos.temArquivos()) {
+                importarArquivos();
+            } else {
+                System.out.println("Carregadas " + lidas + " portarias do banco de dados.");
+            }
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Erro ao abrir o banco de dados " + url + ": " + e.getMessage(), e);
+        }
+        if (arquivoBanco != null) {
+            evento.concluir("load", arquivoBanco, arquivoBanco.length(), store.size());
+        } else {
+            evento.concluir("load", url, 0, store.size());
+        }
+        writer = new PersistenceWriter<>(tabela, null, durabilityMode, durabilityJanela);
+    }
+
+    /** Primeira execução com o banco vazio: importa o snapshot e o journal existentes */
+    private void importarArquivos() throws IOException {
+        int importadas = arquivos.importar();
+        tabela.gravarTodas(store.values());
+        System.out.println("Banco de dados vazio: importadas " + importadas + " portarias dos arquivos.");
+    }
+
+    @Override
+    public void record(PortariaJournal.Registro registro) throws IOException {
+        writer.submit(registro);
+    }
+
+    /** Grava só as portarias alteradas pela carga, em lotes, em uma única transação */
+    @Override
+    public void saveAll(Collection<Portaria> alteradas) throws IOException {
+        if (!writer.flush()) {
+            throw new IOException("As modificações anteriores não foram gravadas.", writer.getFalha());
+        }
+        tabela.gravarTodas(alteradas);
+    }
+
+    /** Não há journal a compactar: confirma as modificações pendentes */
+    @Override
+    public void checkpoint() {
+        PortariaOperationEvent evento = metrics.iniciar(Operacao.CHECKPOINT);
+        try {
+            writer.flush();
+        } finally {
+            metrics.concluir(evento, store.size());
+        }
+    }
+
+    @Override
+    public boolean flush() {
+        return writer.flush();
+    }
+
+    @Override
+    public boolean awaitDurable() {
+        return writer.awaitDurable();
+    }
+
+    @Override
+    public int getRegistrosJournal() {
+        return 0;
+    }
+
+    @Override
+    public long getBytesJournal() {
+        return 0;
+    }
+
+    /** Confirma o que estiver pendente e fecha o banco */
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    /**
+     * A tabela portarias, destino dos registros da thread de gravação.
+     * Os comandos de um lote ficam na mesma transação até {@link #sync()}.
+     */
+    private final class Tabela implements PersistenceWriter.Destino<PortariaJournal.Registro> {
+        private final Connection conexao;
+        private final PreparedStatement gravar;
+        private final PreparedStatement excluir;
+
+        Tabela(Connection conexao, boolean sqlite) throws SQLException {
+            this.conexao = conexao;
+            conexao.setAutoCommit(false);
+            try (Statement st = conexao.createStatement()) {
+                st.execute(CRIAR_TABELA);
+                for (String comando : EXCLUIR_INDICES) {
+                    st.execute(comando);
+                }
+            }
+            conexao.commit();
+            gravar = conexao.prepareStatement(sqlite ? GRAVAR_SQLITE : GRAVAR_H2);
+            excluir = conexao.prepareStatement(EXCLUIR);
+        }
+
+        /** Lê todas as linhas para o armazenamento */
+        synchronized int carregar() throws SQLException {
+            int lidas = 0;
+            try (Statement st = conexao.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT emissor, numero, publicacao, membro FROM portarias")) {
+                while (rs.next()) {
+                    Portaria portaria = new Portaria(rs.getInt(1), rs.getInt(2), rs.getDate(3).toLocalDate(),
+                            rs.getString(4));
+                    store.put(PortariaPK.chave(portaria), portaria);
+                    lidas++;
+                }
+            }
+            conexao.commit();
+            return lidas;
+        }
+
+        @Override
+        public synchronized void append(List<PortariaJournal.Registro> registros) throws IOException {
+            try {
+                for (PortariaJournal.Registro registro : registros) {
+                    switch (registro.op) {
+                        case INSERT, UPDATE -> {
+                            preencher(registro.emissor, registro.numero, registro.publicacao, registro.membro);
+                            gravar.executeUpdate();
+                        }
+                        case DELETE -> {
+                            EmissorTypes tipo = EmissorTypes.fromName(registro.emissorNome);
+                            if (tipo != null) {
+                                excluir.setInt(1, tipo.getIndex());
+                                excluir.setInt(2, registro.numero);
+                                excluir.setInt(3, registro.ano);
+                                excluir.executeUpdate();
+                            }
+                        }
+                        case CLEAR -> {
+                            try (Statement st = conexao.createStatement()) {
+                                st.executeUpdate("DELETE FROM portarias");
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                throw desfazer(e);
+            }
+        }
+
+        /** Grava as portarias em lotes de comandos e confirma a transação */
+        synchronized void gravarTodas(Collection<Portaria> portarias) throws IOException {
+            try {
+                int pendentes = 0;
+                for (Portaria portaria : portarias) {
+                    preencher(portaria.getEmissor().getIndex(), portaria.getNumero(), portaria.getPublicacao(),
+                            portaria.getMembro());
+                    gravar.addBatch();
+                    if (++pendentes == LOTE) {
+                        gravar.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+                gravar.executeBatch();
+                conexao.commit();
+            } catch (SQLException e) {
+                throw desfazer(e);
+            }
+        }
+
+        private void preencher(int emissor, int numero, LocalDate publicacao, String membro) throws SQLException {
+            gravar.setInt(1, emissor);
+            gravar.setInt(2, numero);
+            gravar.setInt(3, publicacao.getYear());
+            gravar.setDate(4, Date.valueOf(publicacao));
+            gravar.setString(5, membro);
+        }
+
+        /** Desfaz a transação em andamento e devolve o erro como falha de gravação */
+        private IOException desfazer(SQLException e) {
+            try {
+                conexao.rollback();
+            } catch (SQLException erro) {
+                e.addSuppressed(erro);
+            }
+            return new IOException("Erro no banco de dados: " + e.getMessage(), e);
+        }
+
+        @Override
+        public synchronized void sync() throws IOException {
+            long inicio = System.nanoTime();
+            try {
+                conexao.commit();
+            } catch (SQLException e) {
+                throw desfazer(e);
+            }
+            metrics.record(Operacao.FSYNC, inicio);
+        }
+
+        /** Os registros vão direto para a tabela: não há o que descartar */
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                gravar.close();
+                excluir.close();
+                conexao.close();
+            } catch (SQLException e) {
+                throw new IOException("Erro ao fechar o banco de dados: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.repository.PortariaMetrics.Operacao;
+
+/**
+ * Persistência em arquivos (o padrão): um snapshot do acervo inteiro
+ * (portarias.json, ou portarias.bin com gep.snapshot=binario) e, no modo
+ * journal, o arquivo portarias.journal com as modificações feitas desde o
+ * último snapshot.
+ *
+ * No modo journal, cada modificação é acrescentada ao journal em vez de
+ * regravar o snapshot inteiro. Na inicialização o snapshot é carregado e o
+ * journal é reaplicado; um checkpoint em segundo plano compacta
+ * periodicamente o journal em um novo snapshot. Fora do modo journal, cada
+ * modificação regrava o snapshot.
+ *
+ * Propriedades de sistema: gep.journal (true/false), gep.checkpoint.limite
+ * (registros no journal que disparam o checkpoint), gep.checkpoint.intervalo
+ * (segundos entre verificações) e gep.snapshot (json ou binario).
+ */
+class JsonFilePersistence implements PortariaPersistence {
+
+    private final PortariaStore store;
+    private final StampedLock lock;
+    private final ObjectMapper objectMapper;
+    private final PortariaMetrics metrics;
+    private final DurabilityMode durabilityMode;
+    private final long durabilityJanela;
+
+    private final File dataFile;
+    private final File binaryFile;
+    private final File journalFile;
+    private final boolean binarySnapshot = "binario".equalsIgnoreCase(System.getProperty("gep.snapshot", "json"));
+    private final boolean journalMode = Boolean.parseBoolean(System.getProperty("gep.journal", "true"));
+    private final int checkpointLimite = Integer.getInteger("gep.checkpoint.limite", 1000);
+    private final long checkpointIntervalo = Long.getLong("gep.checkpoint.intervalo", 30L);
+    private final PortariaJournal journal;
+    private PersistenceWriter<String> writer;
+    private boolean journalAtivo;
+    private ScheduledExecutorService checkpointer;
+
+    /**
+     * @param lock lock do repositório: a gravação de um snapshot toma o lock
+     *             de leitura, para ver um estado consistente
+     */
+    JsonFilePersistence(File dataDir, PortariaStore store, StampedLock lock, ObjectMapper objectMapper,
+                        PortariaMetrics metrics, DurabilityMode durabilityMode, long durabilityJanela) {
+        this.store = store;
+        this.lock = lock;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.durabilityMode = durabilityMode;
+        this.durabilityJanela = durabilityJanela;
+        this.dataFile = new File(dataDir, "portarias.json");
+        this.binaryFile = new File(dataDir, "portarias.bin");
+        this.journalFile = new File(dataDir, "portarias.journal");
+        this.journal = new PortariaJournal(journalFile, objectMapper, metrics);
+    }
+
+    /** Carrega o snapshot, reaplica o journal e inicia a thread de gravação */
+    @Override
+    public void load() {
+        System.out.println("Iniciando repositório... Arquivo JSON: " + dataFile.getAbsolutePath());
+        PortariaPersistenceEvent evento = new PortariaPersistenceEvent();
+        evento.begin();
+        loadData();
+        if (journalMode) {
+            startJournal();
+        }
+        File snapshot = binarySnapshot && binaryFile.exists() ? binaryFile : dataFile;
+        evento.concluir("load", snapshot, snapshot.length() + journalFile.length(), store.size());
+        if (writer == null) {
+            writer = new PersistenceWriter<>(null, this::saveDataLocked, durabilityMode, durabilityJanela);
+        }
+    }
+
+    /**
+     * Carrega dados do arquivo JSON para o mapa em memória.
+     * A leitura é feita em streaming, um registro por vez, e a chave de cada
+     * portaria é derivada do próprio registro.
+     * Um arquivo no formato legado (versão 1) é migrado para o formato atual,
+     * mantendo uma cópia do original em portarias.json.v1.bak.
+     * @throws IllegalStateException se o snapshot binário estiver ilegível:
+     *         o portarias.json pode estar desatualizado, então o repositório
+     *         não é iniciado a partir dele
+     */
+    private void loadData() {
+        if (binarySnapshot && binaryFile.exists()) {
+            try {
+                int lidas = PortariaBinarySnapshot.read(binaryFile, portaria -> store.put(PortariaPK.chave(portaria), portaria));
+                System.out.println("Carregadas " + lidas + " portarias do snapshot binário.");
+                return;
+            } catch (IOException e) {
+                // O binário fica no lugar, para que as próximas execuções também parem nele
+                copiarCorrompido(binaryFile);
+                throw new IllegalStateException("Snapshot binário ilegível (" + binaryFile.getAbsolutePath() + "): "
+                        + e.getMessage() + ". Restaure o arquivo ou remova-o para carregar o portarias.json,"
+                        + " que pode estar desatualizado.", e);
+            }
+        }
+
+        if (!dataFile.exists()) {
+            System.out.println("Arquivo JSON não encontrado. Iniciando vazio.");
+            return;
+        }
+
+        PortariaJsonReader reader = new PortariaJsonReader(objectMapper.getFactory());
+        try {
+            reader.read(dataFile, portaria -> store.put(PortariaPK.chave(portaria), portaria));
+            System.out.println("Carregadas " + reader.getValidas() + " portarias válidas de " + reader.getEntradas() + " entradas totais.");
+            if (binarySnapshot) {
+                // Primeira execução no modo binário: converte o JSON existente
+                saveData();
+            } else if (reader.getVersao() < PortariaJsonReader.VERSAO_ATUAL) {
+                migrateData(reader.getVersao());
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao carregar dados do JSON: " + e.getMessage());
+            store.clear(); // Inicia vazio em caso de erro
+        }
+    }
+
+    /** Copia um snapshot ilegível para arquivo.corrompido, para análise */
+    private static void copiarCorrompido(File arquivo) {
+        File destino = new File(arquivo.getPath() + ".corrompido");
+        try {
+            Files.copy(arquivo.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("Snapshot ilegível copiado para " + destino.getName() + ".");
+        } catch (IOException e) {
+            System.err.println("Erro ao guardar o snapshot ilegível: " + e.getMessage());
+        }
+    }
+
+    /** Há snapshot ou journal no diretório de dados */
+    boolean temArquivos() {
+        return dataFile.exists() || binaryFile.exists() || journalFile.exists();
+    }
+
+    /**
+     * Lê o snapshot e reaplica o journal sem migrar os arquivos nem abri-los
+     * para gravação: usado para levar o acervo a outra persistência.
+     * @return quantidade de portarias lidas
+     */
+    int importar() throws IOException {
+        if (binarySnapshot && binaryFile.exists()) {
+            PortariaBinarySnapshot.read(binaryFile, portaria -> store.put(PortariaPK.chave(portaria), portaria));
+        } else if (dataFile.exists()) {
+            new PortariaJsonReader(objectMapper.getFactory())
+                    .read(dataFile, portaria -> store.put(PortariaPK.chave(portaria), portaria));
+        }
+        journal.replay(this::apply);
+        return store.size();
+    }
+
+    /** Regrava um snapshot de versão antiga no formato atual */
+    private void migrateData(int versao) {
+        File backup = new File(dataFile.getPath() + ".v" + versao + ".bak");
+        try {
+            Files.copy(dataFile.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Erro ao copiar o JSON legado, migração adiada: " + e.getMessage());
+            return;
+        }
+        if (saveData()) {
+            System.out.println("JSON migrado da versão " + versao + " para a versão "
+                    + PortariaJsonReader.VERSAO_ATUAL + ". Original em " + backup.getName());
+        }
+    }
+
+    /**
+     * Reaplica o journal sobre o snapshot carregado, abre o journal para
+     * novas gravações e agenda o checkpoint em segundo plano.
+     */
+    private void startJournal() {
+        try {
+            int reaplicados = journal.replay(this::apply);
+            if (reaplicados > 0) {
+                System.out.println("Journal reaplicado: " + reaplicados + " registros.");
+            }
+            journal.open();
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir o journal: " + e.getMessage());
+            return;
+        }
+        writer = new PersistenceWriter<>(journal, this::saveDataLocked, durabilityMode, durabilityJanela);
+        journalAtivo = true;
+
+        checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "portarias-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        checkpointer.scheduleWithFixedDelay(() -> {
+            if (journal.size() >= checkpointLimite) {
+                checkpoint();
+            }
+        }, checkpointIntervalo, checkpointIntervalo, TimeUnit.SECONDS);
+    }
+
+    /** Aplica um registro do journal ao mapa em memória (sem gravar novamente) */
+    private void apply(PortariaJournal.Registro registro) {
+        switch (registro.op) {
+            case INSERT, UPDATE -> {
+                Portaria portaria = registro.toPortaria();
+                store.put(PortariaPK.chave(portaria), portaria);
+            }
+            case DELETE -> store.remove(PortariaPK.chave(registro.emissorNome, registro.numero, registro.ano));
+            case CLEAR -> store.clear();
+        }
+    }
+
+    /**
+     * Compacta o journal: grava um snapshot completo e descarta os registros
+     * já incorporados.
+     */
+    @Override
+    public synchronized void checkpoint() {
+        if (!journalAtivo || journal.size() == 0) {
+            return;
+        }
+        PortariaOperationEvent evento = metrics.iniciar(Operacao.CHECKPOINT);
+        // O lock de leitura impede escritas durante o checkpoint, mas não bloqueia consultas
+        long stamp = lock.readLock();
+        try {
+            writer.flush();
+            if (saveData()) {
+                writer.reset();
+                System.out.println("Checkpoint concluído: " + store.size() + " portarias.");
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao reiniciar o journal: " + e.getMessage());
+        } finally {
+            lock.unlockRead(stamp);
+            metrics.concluir(evento, store.size());
+        }
+    }
+
+    /**
+     * Registra uma modificação: no modo journal acrescenta um registro,
+     * caso contrário agenda a regravação do JSON inteiro.
+     * O registro é serializado aqui, mas a gravação fica com a thread de gravação.
+     */
+    @Override
+    public void record(PortariaJournal.Registro registro) throws IOException {
+        if (!journalAtivo) {
+            if (durabilityMode == DurabilityMode.SYNC) {
+                if (!saveData()) { // já sob o lock de escrita
+                    throw new IOException("O snapshot não foi gravado.");
+                }
+            } else {
+                writer.submitSnapshot();
+            }
+            return;
+        }
+        writer.submit(journal.encode(registro));
+    }
+
+    /**
+     * Grava o acervo inteiro em um novo snapshot, descartando o journal
+     * (usado após as cargas em massa, qualquer que seja a parte alterada).
+     */
+    @Override
+    public void saveAll(Collection<Portaria> alteradas) throws IOException {
+        if (journalAtivo) {
+            writer.flush();
+        }
+        if (!saveData()) {
+            throw new IOException("O snapshot não foi gravado.");
+        }
+        if (journalAtivo) {
+            writer.reset();
+        }
+    }
+
+    /**
+     * Salva dados do mapa para o arquivo de snapshot (JSON ou binário).
+     * Grava em um arquivo temporário e o move sobre o original, para que uma
+     * falha no meio da gravação não corrompa o snapshot.
+     * Deve ser chamado com o lock do repositório (leitura ou escrita), ou
+     * durante a inicialização.
+     * @return true se o snapshot foi gravado
+     */
+    private boolean saveData() {
+        File destino = binarySnapshot ? binaryFile : dataFile;
+        File tmpFile = new File(destino.getPath() + ".tmp");
+        PortariaPersistenceEvent evento = new PortariaPersistenceEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        try {
+            if (binarySnapshot) {
+                PortariaBinarySnapshot.write(tmpFile, store.values());
+            } else {
+                new PortariaJsonWriter(objectMapper.getFactory()).write(tmpFile, store.values());
+            }
+            Files.move(tmpFile.toPath(), destino.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long bytes = destino.length();
+            metrics.record(Operacao.SAVE, inicio);
+            metrics.snapshotGravado(bytes);
+            evento.concluir("save", destino, bytes, store.size());
+            System.out.println("Dados salvos em " + destino.getName() + ": " + store.size() + " portarias.");
+            return true;
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar dados em " + destino.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Grava o snapshot tomando o lock de leitura (usado pela thread de gravação) */
+    private void saveDataLocked() {
+        long stamp = lock.readLock();
+        try {
+            saveData();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean flush() {
+        return writer.flush();
+    }
+
+    @Override
+    public boolean awaitDurable() {
+        return writer.awaitDurable();
+    }
+
+    @Override
+    public int getRegistrosJournal() {
+        return journal.size();
+    }
+
+    @Override
+    public long getBytesJournal() {
+        return journal.bytesGravados();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,69 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências em faixas de potências de 2 (em nanossegundos).
+ * O registro é um incremento em LongAdder, sem lock; os percentis são
+ * aproximados pelo limite superior da faixa (erro de até 2x).
+ */
+class LatencyHistogram {
+    private static final int FAIXAS = 64;
+
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0L);
+    private final LongAdder[] faixas = new LongAdder[FAIXAS];
+
+    LatencyHistogram() {
+        for (int i = 0; i < FAIXAS; i++) {
+            faixas[i] = new LongAdder();
+        }
+    }
+
+    /** Registra uma duração; a faixa i contém as durações em [2^(i-1), 2^i) ns */
+    void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        total.add(nanos);
+        max.accumulate(nanos);
+        faixas[Math.min(FAIXAS - 1, 64 - Long.numberOfLeadingZeros(nanos))].increment();
+    }
+
+    OperationStats snapshot() {
+        long[] contagens = new long[FAIXAS];
+        long n = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            contagens[i] = faixas[i].sum();
+            n += contagens[i];
+        }
+        double media = n == 0 ? 0 : total.sum() / (double) n / 1000.0;
+        return new OperationStats(n, media, max.get() / 1000.0,
+                percentil(contagens, n, 0.50), percentil(contagens, n, 0.90), percentil(contagens, n, 0.99));
+    }
+
+    /** Limite superior, em microssegundos, da faixa que contém o percentil */
+    private static double percentil(long[] contagens, long n, double p) {
+        if (n == 0) {
+            return 0;
+        }
+        long alvo = (long) Math.ceil(p * n);
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return (i == 0 ? 1L : 1L << Math.min(62, i)) / 1000.0;
+            }
+        }
+        return Long.MAX_VALUE / 1000.0;
+    }
+
+    void reset() {
+        total.reset();
+        max.reset();
+        for (LongAdder faixa : faixas) {
+            faixa.reset();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de chaves long para valores int não negativos, com endereçamento
+ * aberto (sondagem linear) em dois arrays primitivos: sem objetos por
+ * entrada. A remoção desloca as entradas seguintes da sequência, sem
+ * marcadores de exclusão.
+ *
+ * Não é sincronizado. Uma leitura concorrente com uma escrita pode devolver
+ * um valor errado ou lançar uma exceção, mas sempre termina; quem lê deve
+ * validar o resultado (ver a leitura otimista do repositório).
+ */
+final class LongIntMap {
+
+    /** Valor devolvido para chaves ausentes (e que marca posições livres) */
+    static final int AUSENTE = -1;
+
+    private long[] chaves;
+    private int[] valores;
+    private int tamanho;
+
+    LongIntMap(int capacidade) {
+        int posicoes = Integer.highestOneBit(Math.max(16, capacidade * 2 - 1));
+        chaves = new long[posicoes];
+        valores = new int[posicoes];
+        Arrays.fill(valores, AUSENTE);
+    }
+
+    int size() {
+        return tamanho;
+    }
+
+    /** Valor da chave, ou {@link #AUSENTE} */
+    int get(long chave) {
+        long[] k = chaves;
+        int[] v = valores;
+        int mascara = k.length - 1;
+        int i = posicao(chave, mascara);
+        for (int sondagens = 0; sondagens < k.length; sondagens++) {
+            int valor = v[i];
+            if (valor == AUSENTE) {
+                return AUSENTE;
+            }
+            if (k[i] == chave) {
+                return valor;
+            }
+            i = (i + 1) & mascara;
+        }
+        return AUSENTE;
+    }
+
+    /**
+     * Associa o valor (>= 0) à chave.
+     * @return o valor anterior, ou {@link #AUSENTE}
+     */
+    int put(long chave, int valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valor negativo: " + valor);
+        }
+        int mascara = chaves.length - 1;
+        int i = posicao(chave, mascara);
+        while (valores[i] != AUSENTE) {
+            if (chaves[i] == chave) {
+                int anterior = valores[i];
+                valores[i] = valor;
+                return anterior;
+            }
+            i = (i + 1) & mascara;
+        }
+        chaves[i] = chave;
+        valores[i] = valor;
+        if (++tamanho > (chaves.length >> 1) + (chaves.length >> 2)) {
+            redimensionar(chaves.length << 1);
+        }
+        return AUSENTE;
+    }
+
+    /**
+     * Remove a chave.
+     * @return o valor removido, ou {@link #AUSENTE}
+     */
+    int remove(long chave) {
+        int mascara = chaves.length - 1;
+        int i = posicao(chave, mascara);
+        while (valores[i] != AUSENTE) {
+            if (chaves[i] == chave) {
+                int removido = valores[i];
+                deslocar(i, mascara);
+                tamanho--;
+                return removido;
+            }
+            i = (i + 1) & mascara;
+        }
+        return AUSENTE;
+    }
+
+    void clear() {
+        chaves = new long[16];
+        valores = new int[16];
+        Arrays.fill(valores, AUSENTE);
+        tamanho = 0;
+    }
+
+    /** Libera a posição e traz para trás as entradas que a sondagem passaria por ela */
+    private void deslocar(int livre, int mascara) {
+        int i = livre;
+        while (true) {
+            i = (i + 1) & mascara;
+            if (valores[i] == AUSENTE) {
+                break;
+            }
+            int ideal = posicao(chaves[i], mascara);
+            // A entrada em i pode ocupar a posição livre se a sua posição ideal não estiver entre (livre, i]
+            boolean podeMover = livre <= i ? (ideal <= livre || ideal > i) : (ideal <= livre && ideal > i);
+            if (podeMover) {
+                chaves[livre] = chaves[i];
+                valores[livre] = valores[i];
+                livre = i;
+            }
+        }
+        valores[livre] = AUSENTE;
+    }
+
+    private void redimensionar(int posicoes) {
+        long[] antigasChaves = chaves;
+        int[] antigosValores = valores;
+        long[] novasChaves = new long[posicoes];
+        int[] novosValores = new int[posicoes];
+        Arrays.fill(novosValores, AUSENTE);
+        int mascara = posicoes - 1;
+        for (int j = 0; j < antigasChaves.length; j++) {
+            if (antigosValores[j] != AUSENTE) {
+                int i = posicao(antigasChaves[j], mascara);
+                while (novosValores[i] != AUSENTE) {
+                    i = (i + 1) & mascara;
+                }
+                novasChaves[i] = antigasChaves[j];
+                novosValores[i] = antigosValores[j];
+            }
+        }
+        chaves = novasChaves;
+        valores = novosValores;
+    }
+
+    /** Posição ideal da chave na tabela com a máscara indicada */
+    static int posicao(long chave, int mascara) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
@@ -0,0 +1,203 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Mapa de chaves long para objetos, com endereçamento aberto (sondagem
+ * linear) em dois arrays: sem objetos de chave nem nós por entrada. Valores
+ * null marcam as posições livres. Como em {@link LongIntMap}, a remoção
+ * desloca as entradas seguintes da sequência.
+ *
+ * Não é sincronizado. Uma leitura concorrente com uma escrita pode devolver
+ * um valor errado ou lançar uma exceção, mas sempre termina; quem lê deve
+ * validar o resultado (ver a leitura otimista do repositório).
+ */
+final class LongObjectMap<V> {
+
+    private long[] chaves;
+    private Object[] valores;
+    private int tamanho;
+
+    LongObjectMap(int capacidade) {
+        int posicoes = Integer.highestOneBit(Math.max(16, capacidade * 2 - 1));
+        chaves = new long[posicoes];
+        valores = new Object[posicoes];
+    }
+
+    int size() {
+        return tamanho;
+    }
+
+    /** Valor da chave, ou null */
+    @SuppressWarnings("unchecked")
+    V get(long chave) {
+        long[] k = chaves;
+        Object[] v = valores;
+        int mascara = k.length - 1;
+        int i = posicao(chave, mascara);
+        for (int sondagens = 0; sondagens < k.length; sondagens++) {
+            Object valor = v[i];
+            if (valor == null) {
+                return null;
+            }
+            if (k[i] == chave) {
+                return (V) valor;
+            }
+            i = (i + 1) & mascara;
+        }
+        return null;
+    }
+
+    boolean containsKey(long chave) {
+        return get(chave) != null;
+    }
+
+    /**
+     * Associa o valor (não nulo) à chave.
+     * @return o valor anterior, ou null
+     */
+    @SuppressWarnings("unchecked")
+    V put(long chave, V valor) {
+        if (valor == null) {
+            throw new NullPointerException("Valor nulo para a chave " + chave);
+        }
+        int mascara = chaves.length - 1;
+        int i = posicao(chave, mascara);
+        while (valores[i] != null) {
+            if (chaves[i] == chave) {
+                Object anterior = valores[i];
+                valores[i] = valor;
+                return (V) anterior;
+            }
+            i = (i + 1) & mascara;
+        }
+        chaves[i] = chave;
+        valores[i] = valor;
+        if (++tamanho > (chaves.length >> 1) + (chaves.length >> 2)) {
+            redimensionar(chaves.length << 1);
+        }
+        return null;
+    }
+
+    /** Associa o valor só se a chave não existir; devolve o valor existente, ou null */
+    V putIfAbsent(long chave, V valor) {
+        V existente = get(chave);
+        return existente != null ? existente : put(chave, valor);
+    }
+
+    /**
+     * Remove a chave.
+     * @return o valor removido, ou null
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long chave) {
+        int mascara = chaves.length - 1;
+        int i = posicao(chave, mascara);
+        while (valores[i] != null) {
+            if (chaves[i] == chave) {
+                Object removido = valores[i];
+                deslocar(i, mascara);
+                tamanho--;
+                return (V) removido;
+            }
+            i = (i + 1) & mascara;
+        }
+        return null;
+    }
+
+    void clear() {
+        chaves = new long[16];
+        valores = new Object[16];
+        tamanho = 0;
+    }
+
+    /** Visão dos valores, na ordem da tabela (sem cópia) */
+    Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                Object[] v = valores;
+                return new Iterator<>() {
+                    private int proxima = ocupadaAPartirDe(v, 0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return proxima < v.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public V next() {
+                        if (proxima >= v.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Object valor = v[proxima];
+                        proxima = ocupadaAPartirDe(v, proxima + 1);
+                        return (V) valor;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return tamanho;
+            }
+        };
+    }
+
+    private static int ocupadaAPartirDe(Object[] v, int i) {
+        while (i < v.length && v[i] == null) {
+            i++;
+        }
+        return i;
+    }
+
+    /** Libera a posição e traz para trás as entradas que a sondagem passaria por ela */
+    private void deslocar(int livre, int mascara) {
+        int i = livre;
+        while (true) {
+            i = (i + 1) & mascara;
+            if (valores[i] == null) {
+                break;
+            }
+            int ideal = posicao(chaves[i], mascara);
+            // A entrada em i pode ocupar a posição livre se a sua posição ideal não estiver entre (livre, i]
+            boolean podeMover = livre <= i ? (ideal <= livre || ideal > i) : (ideal <= livre && ideal > i);
+            if (podeMover) {
+                chaves[livre] = chaves[i];
+                valores[livre] = valores[i];
+                livre = i;
+            }
+        }
+        valores[livre] = null;
+    }
+
+    private void redimensionar(int posicoes) {
+        long[] antigasChaves = chaves;
+        Object[] antigosValores = valores;
+        long[] novasChaves = new long[posicoes];
+        Object[] novosValores = new Object[posicoes];
+        int mascara = posicoes - 1;
+        for (int j = 0; j < antigasChaves.length; j++) {
+            if (antigosValores[j] != null) {
+                int i = posicao(antigasChaves[j], mascara);
+                while (novosValores[i] != null) {
+                    i = (i + 1) & mascara;
+                }
+                novasChaves[i] = antigasChaves[j];
+                novosValores[i] = antigosValores[j];
+            }
+        }
+        chaves = novasChaves;
+        valores = novosValores;
+    }
+
+    /** Posição ideal da chave na tabela com a máscara indicada */
+    static int posicao(long chave, int mascara) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
@@ -0,0 +1,37 @@
+package br.edu.ifpr.gep.model.repository;
+
+/**
+ * Estatísticas de uma operação do repositório (tempos em microssegundos).
+ * Exposto pelo {@link PortariaMetricsMXBean}; os percentis são aproximados.
+ */
+public class OperationStats {
+    private final long count;
+    private final double mediaMicros;
+    private final double maxMicros;
+    private final double p50Micros;
+    private final double p90Micros;
+    private final double p99Micros;
+
+    OperationStats(long count, double mediaMicros, double maxMicros,
+                   double p50Micros, double p90Micros, double p99Micros) {
+        this.count = count;
+        this.mediaMicros = mediaMicros;
+        this.maxMicros = maxMicros;
+        this.p50Micros = p50Micros;
+        this.p90Micros = p90Micros;
+        this.p99Micros = p99Micros;
+    }
+
+    public long getCount() { return count; }
+    public double getMediaMicros() { return mediaMicros; }
+    public double getMaxMicros() { return maxMicros; }
+    public double getP50Micros() { return p50Micros; }
+    public double getP90Micros() { return p90Micros; }
+    public double getP99Micros() { return p99Micros; }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d média=%.1fµs p50=%.1fµs p90=%.1fµs p99=%.1fµs max=%.1fµs",
+                count, mediaMicros, p50Micros, p90Micros, p99Micros, maxMicros);
+    }
+}
@@ -0,0 +1,323 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread de gravação do repositório.
+ * Recebe os registros das modificações (linhas do journal, ou registros
+ * do banco de dados) ou pedidos de snapshot, fora do modo journal, e os
+ * grava fora da thread que fez a modificação, agrupando em uma única
+ * gravação tudo o que chegar dentro da janela configurada.
+ *
+ * Cada submissão recebe um número de sequência; {@link #awaitDurable(long)}
+ * espera até que ela esteja no disco e {@link #flush()} força a gravação
+ * imediata de tudo o que estiver pendente.
+ *
+ * Um erro do destino é fatal: o que não foi confirmado pode ter sido
+ * descartado (rollback, ou journal gravado pela metade), então nada mais
+ * é gravado, todas as submissões pendentes são dadas como não duráveis e
+ * as novas são recusadas com o erro. No modo SYNC o erro é lançado pela
+ * própria submissão que falhou.
+ */
+class PersistenceWriter<T> implements Closeable {
+
+    /** Destino dos registros: o journal ou o banco de dados */
+    interface Destino<T> extends Closeable {
+        /** Grava os registros, na ordem; podem ficar pendentes até {@link #sync()} */
+        void append(List<T> registros) throws IOException;
+
+        /** Torna duráveis os registros gravados (fsync ou commit) */
+        void sync() throws IOException;
+
+        /** Descarta os registros já incorporados a um snapshot (após um checkpoint) */
+        void reset() throws IOException;
+    }
+
+    private final Destino<T> destino;        // null fora do modo journal
+    private final Runnable snapshot;         // grava o snapshot completo
+    private final DurabilityMode mode;
+    private final long janelaNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendente = lock.newCondition();
+    private final Condition concluido = lock.newCondition();
+    private final Object io = new Object();  // serializa o acesso ao destino
+
+    private List<T> fila = new ArrayList<>();
+    private boolean snapshotPendente;
+    private boolean flushSolicitado;
+    private boolean fechado;
+    private long ultimoSubmetido;
+    private long ultimoEscrito;
+    private long ultimoConcluido;
+    private long ultimoDuravel;
+    private volatile IOException falha;      // primeiro erro do destino
+
+    private final Thread thread;
+
+    /**
+     * @param destino destino dos registros, ou null para gravar apenas snapshots
+     * @param snapshot ação que grava o snapshot completo (null se não houver snapshots)
+     * @param mode modo de durabilidade
+     * @param janelaMillis janela de agrupamento (GROUP_COMMIT) ou intervalo de sincronização (PERIODIC)
+     */
+    PersistenceWriter(Destino<T> destino, Runnable snapshot, DurabilityMode mode, long janelaMillis) {
+        this.destino = destino;
+        this.snapshot = snapshot;
+        this.mode = mode;
+        this.janelaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, janelaMillis));
+
+        if (mode == DurabilityMode.SYNC) {
+            thread = null;
+        } else {
+            thread = new Thread(this::executar, "portarias-writer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    DurabilityMode getMode() {
+        return mode;
+    }
+
+    /** Primeiro erro de gravação, ou null se não houve erros */
+    IOException getFalha() {
+        return falha;
+    }
+
+    /**
+     * Submete um registro para gravação; no modo SYNC, grava e sincroniza
+     * antes de retornar.
+     * @throws IOException se a gravação falhou (SYNC) ou se um erro anterior
+     *         interrompeu a gravação; nesse caso o registro não será gravado
+     */
+    long submit(T registro) throws IOException {
+        if (mode == DurabilityMode.SYNC) {
+            synchronized (io) {
+                recusarAposFalha();
+                try {
+                    destino.append(List.of(registro));
+                    destino.sync();
+                } catch (IOException e) {
+                    falhar(e);
+                    throw e;
+                }
+            }
+            return 0;
+        }
+        lock.lock();
+        try {
+            recusarAposFalha();
+            fila.add(registro);
+            pendente.signal();
+            return ++ultimoSubmetido;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Solicita a gravação do snapshot completo (pedidos próximos são agrupados)
+     * @throws IOException se um erro anterior interrompeu a gravação
+     */
+    long submitSnapshot() throws IOException {
+        if (mode == DurabilityMode.SYNC) {
+            snapshot.run();
+            return 0;
+        }
+        lock.lock();
+        try {
+            recusarAposFalha();
+            snapshotPendente = true;
+            pendente.signal();
+            return ++ultimoSubmetido;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava e sincroniza imediatamente tudo o que foi submetido até agora.
+     * @return true se tudo chegou ao disco sem erros
+     */
+    boolean flush() {
+        if (mode == DurabilityMode.SYNC) {
+            return falha == null;
+        }
+        lock.lock();
+        try {
+            flushSolicitado = true;
+            pendente.signal();
+        } finally {
+            lock.unlock();
+        }
+        return awaitDurable();
+    }
+
+    /** Espera até que todas as submissões feitas até agora estejam no disco */
+    boolean awaitDurable() {
+        lock.lock();
+        try {
+            return awaitDurable(ultimoSubmetido);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Espera até que a submissão indicada esteja no disco.
+     * @return true se foi gravada, false se houve erro de gravação
+     */
+    boolean awaitDurable(long sequencia) {
+        if (mode == DurabilityMode.SYNC) {
+            return falha == null;
+        }
+        lock.lock();
+        try {
+            while (ultimoConcluido < sequencia && thread.isAlive()) {
+                concluido.await();
+            }
+            return ultimoDuravel >= sequencia;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Descarta os registros do destino após um checkpoint (chamar depois de {@link #flush()}) */
+    void reset() throws IOException {
+        synchronized (io) {
+            destino.reset();
+        }
+    }
+
+    private void executar() {
+        long ultimaSync = System.nanoTime();
+        boolean naoSincronizado = false;
+        while (true) {
+            List<T> lote;
+            boolean gravarSnapshot;
+            boolean forcar;
+            long ate;
+
+            lock.lock();
+            try {
+                while (fila.isEmpty() && !snapshotPendente && !flushSolicitado && !fechado) {
+                    if (naoSincronizado) {
+                        long restante = janelaNanos - (System.nanoTime() - ultimaSync);
+                        if (restante <= 0) break;
+                        pendente.awaitNanos(restante);
+                    } else {
+                        pendente.await();
+                    }
+                }
+                if (mode == DurabilityMode.GROUP_COMMIT && !flushSolicitado && !fechado) {
+                    // Janela de agrupamento: espera outras modificações chegarem
+                    long prazo = System.nanoTime() + janelaNanos;
+                    long restante;
+                    while (!flushSolicitado && !fechado && (restante = prazo - System.nanoTime()) > 0) {
+                        pendente.awaitNanos(restante);
+                    }
+                }
+                lote = fila;
+                fila = new ArrayList<>();
+                gravarSnapshot = snapshotPendente;
+                snapshotPendente = false;
+                forcar = flushSolicitado || fechado;
+                flushSolicitado = false;
+                ate = ultimoSubmetido;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            boolean ok = falha == null;
+            if (ok) {
+                synchronized (io) {
+                    try {
+                        if (!lote.isEmpty()) {
+                            destino.append(lote);
+                            naoSincronizado = true;
+                        }
+                        if (gravarSnapshot) {
+                            snapshot.run();
+                        }
+                        if (destino != null && naoSincronizado && (mode != DurabilityMode.PERIODIC
+                                || forcar || System.nanoTime() - ultimaSync >= janelaNanos)) {
+                            destino.sync();
+                            naoSincronizado = false;
+                            ultimaSync = System.nanoTime();
+                        }
+                    } catch (IOException e) {
+                        falhar(e);
+                        ok = false;
+                    }
+                }
+            }
+
+            lock.lock();
+            try {
+                ultimoEscrito = ate;
+                if (!ok) {
+                    ultimoConcluido = ate;
+                } else if (!naoSincronizado) {
+                    ultimoDuravel = ultimoEscrito;
+                    ultimoConcluido = ultimoEscrito;
+                }
+                concluido.signalAll();
+                if (fechado && fila.isEmpty() && !snapshotPendente) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void recusarAposFalha() throws IOException {
+        IOException erro = falha;
+        if (erro != null) {
+            throw new IOException("A gravação foi interrompida por um erro anterior: " + erro.getMessage(), erro);
+        }
+    }
+
+    /** Registra o erro; as modificações seguintes deixam de ser gravadas */
+    private void falhar(IOException e) {
+        falha = e;
+        System.err.println("Erro ao gravar as modificações (as próximas não serão gravadas): " + e.getMessage());
+    }
+
+    /** Grava o que estiver pendente e encerra a thread de gravação */
+    @Override
+    public void close() throws IOException {
+        if (thread != null) {
+            lock.lock();
+            try {
+                fechado = true;
+                pendente.signal();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (destino != null) {
+            synchronized (io) {
+                destino.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.utils.EmissorTypes;
+
+/**
+ * Snapshot binário do repositório (portarias.bin).
+ *
+ * Layout (big-endian):
+ * cabeçalho - magic "GEPB" (int), versão (int), quantidade (int), início do heap (long);
+ * registros de tamanho fixo - emissor (short), número (int), publicação em
+ * dias desde 1970-01-01 (int), posição e tamanho do membro no heap (int, int;
+ * tamanho -1 para membro nulo);
+ * heap - nomes dos membros em UTF-8.
+ *
+ * A leitura carrega o arquivo em um único buffer ({@link FileChannel#read})
+ * e acessa cada registro por posição; os nomes são decodificados direto do
+ * buffer. O arquivo não fica mapeado em memória, o que no Windows impediria
+ * substituí-lo no próximo snapshot. Arquivos de 2 GB ou mais são recusados.
+ *
+ * Um arquivo corrompido (cabeçalho, posições no heap ou emissor inválidos)
+ * gera IOException, nunca uma exceção de tempo de execução.
+ */
+class PortariaBinarySnapshot {
+
+    static final int MAGIC = 0x47455042; // "GEPB"
+    static final int VERSAO = 1;
+    static final int TAMANHO_CABECALHO = 4 + 4 + 4 + 8;
+    static final int TAMANHO_REGISTRO = 2 + 4 + 4 + 4 + 4;
+    /** Maior arquivo aceito: a leitura usa um único buffer, indexado por int */
+    static final long TAMANHO_MAXIMO = Integer.MAX_VALUE - 8;
+
+    private PortariaBinarySnapshot() {}
+
+    /** Grava as portarias no arquivo indicado */
+    static void write(File file, Collection<Portaria> portarias) throws IOException {
+        int quantidade = portarias.size();
+        ByteArrayOutputStream heap = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSAO);
+            out.writeInt(quantidade);
+            out.writeLong(TAMANHO_CABECALHO + (long) quantidade * TAMANHO_REGISTRO);
+
+            int escritos = 0;
+            for (Portaria portaria : portarias) {
+                int emissor = portaria.getEmissor().getIndex();
+                if (emissor > Short.MAX_VALUE) {
+                    throw new IOException("Índice de emissor fora do limite do formato binário: " + emissor);
+                }
+                out.writeShort(emissor);
+                out.writeInt(portaria.getNumero());
+                out.writeInt((int) portaria.getPublicacao().toEpochDay());
+                if (portaria.getMembro() == null) {
+                    out.writeInt(0);
+                    out.writeInt(-1);
+                } else {
+                    byte[] membro = portaria.getMembro().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(heap.size());
+                    out.writeInt(membro.length);
+                    heap.write(membro);
+                }
+                escritos++;
+            }
+            if (escritos != quantidade) {
+                throw new IOException("Coleção modificada durante a gravação do snapshot.");
+            }
+            if (TAMANHO_CABECALHO + (long) quantidade * TAMANHO_REGISTRO + heap.size() > TAMANHO_MAXIMO) {
+                throw new IOException("Snapshot binário ultrapassaria o limite de 2 GB do formato.");
+            }
+            heap.writeTo(out);
+        }
+    }
+
+    /** Lê o arquivo e entrega cada portaria ao consumidor */
+    static int read(File file, Consumer<Portaria> consumidor) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long tamanho = channel.size();
+            if (tamanho < TAMANHO_CABECALHO) {
+                throw new IOException("Snapshot binário truncado.");
+            }
+            if (tamanho > TAMANHO_MAXIMO) {
+                throw new IOException("Snapshot binário grande demais: " + tamanho + " bytes.");
+            }
+            buffer = ByteBuffer.allocate((int) tamanho);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Snapshot binário truncado.");
+                }
+            }
+        }
+        return read(buffer, consumidor);
+    }
+
+    private static int read(ByteBuffer buffer, Consumer<Portaria> consumidor) throws IOException {
+        int tamanho = buffer.capacity();
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Arquivo não é um snapshot binário de portarias.");
+        }
+        int versao = buffer.getInt(4);
+        if (versao != VERSAO) {
+            throw new IOException("Versão de snapshot binário não suportada: " + versao);
+        }
+        int quantidade = buffer.getInt(8);
+        long inicioHeap = buffer.getLong(12);
+        if (quantidade < 0 || inicioHeap != TAMANHO_CABECALHO + (long) quantidade * TAMANHO_REGISTRO
+                || inicioHeap > tamanho) {
+            throw new IOException("Cabeçalho do snapshot binário inconsistente.");
+        }
+        int heap = (int) inicioHeap;
+
+        Map<Integer, EmissorTypes> emissores = new HashMap<>();
+        byte[] bytes = buffer.array();
+        for (int i = 0; i < quantidade; i++) {
+            int pos = TAMANHO_CABECALHO + i * TAMANHO_REGISTRO;
+            int indice = buffer.getShort(pos);
+            int numero = buffer.getInt(pos + 2);
+            int dia = buffer.getInt(pos + 6);
+            int offset = buffer.getInt(pos + 10);
+            int length = buffer.getInt(pos + 14);
+
+            String membro = null;
+            if (length >= 0) {
+                if (offset < 0 || (long) heap + offset + length > tamanho) {
+                    throw new IOException("Registro " + i + " do snapshot binário aponta para fora do arquivo.");
+                }
+                membro = new String(bytes, heap + offset, length, StandardCharsets.UTF_8);
+            } else if (length != -1) {
+                throw new IOException("Registro " + i + " do snapshot binário com tamanho de membro inválido.");
+            }
+
+            EmissorTypes emissor;
+            try {
+                emissor = emissores.computeIfAbsent(indice, EmissorTypes::fromValue);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Registro " + i + " do snapshot binário com emissor inválido: " + indice, e);
+            }
+            Portaria portaria = new Portaria();
+            portaria.setEmissor(emissor);
+            portaria.setNumero(numero);
+            portaria.setPublicacao(LocalDate.ofEpochDay(dia));
+            portaria.setMembro(membro);
+            consumidor.accept(portaria);
+        }
+        return quantidade;
+    }
+}
@@ -0,0 +1,138 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.time.LocalDate;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.StringSearch;
+
+/**
+ * Critérios de uma consulta composta ao repositório.
+ * Os critérios informados são combinados com "e"; os não informados não
+ * restringem o resultado. Ano e período podem ser usados juntos (vale a
+ * interseção dos dois).
+ *
+ * <pre>
+ * repo.find(new PortariaCriteria()
+ *         .emissor("Reitoria", StringSearch.EXACT_CASE_INSENSITIVE)
+ *         .periodo(LocalDate.of(2019, 1, 1), LocalDate.of(2022, 12, 31))
+ *         .membro("Silva", StringSearch.PARTIAL_CASE_INSENSITIVE));
+ * </pre>
+ */
+public class PortariaCriteria {
+    private String emissor;
+    private StringSearch emissorModo;
+    private Integer numero;
+    private Integer ano;
+    private LocalDate inicio;
+    private LocalDate fim;
+    private String membro;
+    private StringSearch membroModo;
+
+    /** Filtra pelo nome do emissor */
+    public PortariaCriteria emissor(String nome, StringSearch modo) {
+        this.emissor = nome;
+        this.emissorModo = modo;
+        return this;
+    }
+
+    /** Filtra pelo número da portaria */
+    public PortariaCriteria numero(Integer numero) {
+        this.numero = numero;
+        return this;
+    }
+
+    /** Filtra pelo ano de publicação */
+    public PortariaCriteria ano(Integer ano) {
+        this.ano = ano;
+        return this;
+    }
+
+    /** Filtra pelo período de publicação (inclusive); uma ponta nula fica em aberto */
+    public PortariaCriteria periodo(LocalDate inicio, LocalDate fim) {
+        this.inicio = inicio;
+        this.fim = fim;
+        return this;
+    }
+
+    /** Filtra pelo nome do membro */
+    public PortariaCriteria membro(String nome, StringSearch modo) {
+        this.membro = nome;
+        this.membroModo = modo;
+        return this;
+    }
+
+    public String getEmissor() { return emissor; }
+    public StringSearch getEmissorModo() { return emissorModo; }
+    public Integer getNumero() { return numero; }
+    public Integer getAno() { return ano; }
+    public LocalDate getInicio() { return inicio; }
+    public LocalDate getFim() { return fim; }
+    public String getMembro() { return membro; }
+    public StringSearch getMembroModo() { return membroModo; }
+
+    /** Cópia independente dos critérios */
+    PortariaCriteria copia() {
+        return new PortariaCriteria().emissor(emissor, emissorModo).numero(numero).ano(ano)
+                .periodo(inicio, fim).membro(membro, membroModo);
+    }
+
+    boolean temEmissor() {
+        return emissor != null && emissorModo != null;
+    }
+
+    boolean temMembro() {
+        return membro != null && membroModo != null;
+    }
+
+    boolean temData() {
+        return ano != null || inicio != null || fim != null;
+    }
+
+    /** Primeiro dia (epochDay) aceito pelos critérios de ano e período */
+    long primeiroDia() {
+        long dia = Long.MIN_VALUE;
+        if (ano != null) dia = LocalDate.of(ano, 1, 1).toEpochDay();
+        if (inicio != null) dia = Math.max(dia, inicio.toEpochDay());
+        return dia;
+    }
+
+    /** Último dia (epochDay) aceito pelos critérios de ano e período */
+    long ultimoDia() {
+        long dia = Long.MAX_VALUE;
+        if (ano != null) dia = LocalDate.of(ano, 12, 31).toEpochDay();
+        if (fim != null) dia = Math.min(dia, fim.toEpochDay());
+        return dia;
+    }
+
+    /** Verifica se a portaria atende a todos os critérios */
+    public boolean matches(Portaria portaria) {
+        if (numero != null && !numero.equals(portaria.getNumero())) {
+            return false;
+        }
+        if (temData()) {
+            if (portaria.getPublicacao() == null) {
+                return false;
+            }
+            long dia = portaria.getPublicacao().toEpochDay();
+            if (dia < primeiroDia() || dia > ultimoDia()) {
+                return false;
+            }
+        }
+        if (temEmissor() && (portaria.getEmissor() == null
+                || !emissorModo.matches(portaria.getEmissor().getNome(), emissor))) {
+            return false;
+        }
+        return !temMembro() || membroModo.matches(portaria.getMembro(), membro);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PortariaCriteria[");
+        if (temEmissor()) sb.append("emissor ").append(emissorModo).append(" '").append(emissor).append("' ");
+        if (numero != null) sb.append("numero=").append(numero).append(' ');
+        if (ano != null) sb.append("ano=").append(ano).append(' ');
+        if (inicio != null || fim != null) sb.append("periodo=").append(inicio).append("..").append(fim).append(' ');
+        if (temMembro()) sb.append("membro ").append(membroModo).append(" '").append(membro).append("' ");
+        return sb.toString().trim() + "]";
+    }
+}
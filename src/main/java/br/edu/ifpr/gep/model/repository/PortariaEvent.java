@@ -0,0 +1,63 @@
+package br.edu.ifpr.gep.model.repository;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Modificação feita no repositório, publicada aos {@link PortariaListener}s.
+ */
+public class PortariaEvent {
+
+    /** Tipos de modificação */
+    public enum Tipo {
+        /** Uma portaria foi incluída */
+        ADDED,
+        /** Uma portaria existente foi substituída (mesma chave) */
+        UPDATED,
+        /** Uma portaria foi excluída */
+        REMOVED,
+        /** Todas as portarias foram excluídas */
+        CLEARED,
+        /** O acervo foi recarregado (importação); qualquer portaria pode ter mudado */
+        RELOADED
+    }
+
+    private final Tipo tipo;
+    private final PortariaPK chave;
+    private final Portaria portaria;
+    private final Portaria anterior;
+    private final int posicao;
+
+    PortariaEvent(Tipo tipo, PortariaPK chave, Portaria portaria, Portaria anterior, int posicao) {
+        this.tipo = tipo;
+        this.chave = chave;
+        this.portaria = portaria;
+        this.anterior = anterior;
+        this.posicao = posicao;
+    }
+
+    public Tipo getTipo() { return tipo; }
+
+    /** Chave da portaria modificada (null em CLEARED e RELOADED) */
+    public PortariaPK getChave() { return chave; }
+
+    /** Portaria incluída ou atualizada, ou a portaria excluída em REMOVED */
+    public Portaria getPortaria() { return portaria; }
+
+    /** Portaria substituída em UPDATED */
+    public Portaria getAnterior() { return anterior; }
+
+    /**
+     * Posição da portaria na ordem de emissor, número e ano (a de
+     * {@link PortariaRepository#findPage(int, int)}) logo após esta
+     * modificação, calculada sob o lock de escrita; em REMOVED, a posição
+     * que ela ocupava. Aplicando os eventos na ordem em que chegam, cada
+     * posição vale para a lista como estava após o evento anterior.
+     * -1 em CLEARED e RELOADED.
+     */
+    public int getPosicao() { return posicao; }
+
+    @Override
+    public String toString() {
+        return "PortariaEvent[" + tipo + (chave != null ? ", " + chave : "") + "]";
+    }
+}
@@ -0,0 +1,101 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Gravador de uma exportação em CSV ou JSON Lines. Cada portaria é escrita
+ * assim que é recebida (nada é acumulado em memória) e o emissor é gravado
+ * pelo nome. O fluxo de destino não é fechado: {@link #finish()} descarrega
+ * os buffers e encerra a compressão gzip, se houver.
+ */
+class PortariaExportWriter {
+
+    private static final int BUFFER = 1 << 16;
+
+    private final ExportFormat formato;
+    private final GZIPOutputStream gzip;
+    private JsonGenerator gen;
+    private Writer writer;
+    private int gravadas;
+
+    PortariaExportWriter(OutputStream out, ExportFormat formato, boolean comprimir, JsonFactory jsonFactory)
+            throws IOException {
+        this.formato = formato;
+        this.gzip = comprimir ? new GZIPOutputStream(out, BUFFER) : null;
+        OutputStream destino = gzip != null ? gzip : out;
+        if (formato == ExportFormat.JSON_LINES) {
+            gen = jsonFactory.createGenerator(destino, JsonEncoding.UTF8);
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.setRootValueSeparator(null); // cada objeto termina com '\n' (ver write)
+        } else {
+            writer = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), BUFFER);
+            writer.write("emissor;numero;publicacao;membro\n");
+        }
+    }
+
+    void write(Portaria portaria) throws IOException {
+        if (formato == ExportFormat.JSON_LINES) {
+            gen.writeStartObject();
+            gen.writeStringField("emissor", portaria.getEmissor().getNome());
+            gen.writeNumberField("numero", portaria.getNumero());
+            gen.writeStringField("publicacao", portaria.getPublicacao().toString());
+            if (portaria.getMembro() != null) {
+                gen.writeStringField("membro", portaria.getMembro());
+            }
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+        } else {
+            writer.write(campo(portaria.getEmissor().getNome()));
+            writer.write(';');
+            writer.write(Integer.toString(portaria.getNumero()));
+            writer.write(';');
+            writer.write(portaria.getPublicacao().toString());
+            writer.write(';');
+            writer.write(campo(portaria.getMembro()));
+            writer.write('\n');
+        }
+        gravadas++;
+    }
+
+    /** Descarrega os buffers e encerra o gzip, sem fechar o fluxo de destino */
+    void finish() throws IOException {
+        if (gen != null) {
+            gen.close();
+        } else {
+            writer.flush();
+        }
+        if (gzip != null) {
+            gzip.finish();
+        }
+    }
+
+    int getGravadas() {
+        return gravadas;
+    }
+
+    /** Campo CSV, entre aspas quando contém o separador, aspas ou quebra de linha */
+    private static String campo(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == ';' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + valor.replace("\"", "\"\"") + '"';
+            }
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,33 @@
+package br.edu.ifpr.gep.model.repository;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Índice secundário mantido pelo repositório a cada inserção,
+ * atualização e remoção.
+ */
+interface PortariaIndex {
+
+    /** Indexa (ou reindexa) a portaria com a chave indicada */
+    void add(long chave, Portaria portaria);
+
+    /** Remove a chave do índice, usando o valor registrado na indexação */
+    void remove(long chave);
+
+    /** Esvazia o índice */
+    void clear();
+
+    /** Quantidade de valores distintos indexados */
+    int size();
+
+    /**
+     * Início de uma carga em lote (leitura do snapshot, journal, importação).
+     * O índice pode adiar a manutenção da sua estrutura até {@link #endBulk()}.
+     */
+    default void beginBulk() {
+    }
+
+    /** Fim da carga em lote: o índice deve voltar a ficar consistente */
+    default void endBulk() {
+    }
+}
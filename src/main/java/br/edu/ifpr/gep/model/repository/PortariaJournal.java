@@ -0,0 +1,260 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Journal (write-ahead log) das modificações do repositório.
+ * Cada operação é acrescentada como uma linha JSON ao final do arquivo,
+ * então o custo de uma escrita não depende do tamanho do acervo.
+ * O snapshot (portarias.json) somado ao journal reconstrói o estado completo.
+ */
+class PortariaJournal implements PersistenceWriter.Destino<String> {
+
+    /** Tipos de operação registrados no journal */
+    enum Operacao { INSERT, UPDATE, DELETE, CLEAR }
+
+    /**
+     * Uma linha do journal.
+     * INSERT/UPDATE guardam a portaria inteira (emissor pelo índice);
+     * DELETE guarda apenas a chave (nome do emissor, número e ano).
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class Registro {
+        public Operacao op;
+        public Integer emissor;
+        public String emissorNome;
+        public Integer numero;
+        public Integer ano;
+        public LocalDate publicacao;
+        public String membro;
+
+        static Registro gravacao(Operacao op, Portaria portaria) {
+            Registro r = new Registro();
+            r.op = op;
+            r.emissor = portaria.getEmissor().getIndex();
+            r.numero = portaria.getNumero();
+            r.publicacao = portaria.getPublicacao();
+            r.membro = portaria.getMembro();
+            return r;
+        }
+
+        static Registro exclusao(String emissorNome, Integer numero, Integer ano) {
+            Registro r = new Registro();
+            r.op = Operacao.DELETE;
+            r.emissorNome = emissorNome;
+            r.numero = numero;
+            r.ano = ano;
+            return r;
+        }
+
+        static Registro limpeza() {
+            Registro r = new Registro();
+            r.op = Operacao.CLEAR;
+            return r;
+        }
+
+        /** Reconstrói a portaria de um registro INSERT/UPDATE */
+        Portaria toPortaria() {
+            return new Portaria(emissor, numero, publicacao, membro);
+        }
+    }
+
+    private final File file;
+    private final ObjectMapper objectMapper;
+    private final PortariaMetrics metrics;
+    private final LongAdder bytesGravados = new LongAdder();
+    private FileOutputStream output;
+    private Writer writer;
+    private volatile int registros;
+
+    PortariaJournal(File file, ObjectMapper objectMapper, PortariaMetrics metrics) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Reaplica os registros existentes no journal, na ordem em que foram gravados.
+     * Uma última linha incompleta (queda durante a escrita) é ignorada.
+     * @return quantidade de registros reaplicados
+     */
+    int replay(Consumer<Registro> aplicar) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        int aplicados = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String linha = reader.readLine();
+            int numeroLinha = 0;
+            while (linha != null) {
+                numeroLinha++;
+                String proxima = reader.readLine();
+                if (!linha.isBlank()) {
+                    try {
+                        aplicar.accept(objectMapper.readValue(linha, Registro.class));
+                        aplicados++;
+                    } catch (Exception e) {
+                        if (proxima == null) {
+                            System.err.println("Journal: última linha incompleta ignorada (" + numeroLinha + ").");
+                        } else {
+                            System.err.println("Journal: linha " + numeroLinha + " inválida ignorada: " + e.getMessage());
+                        }
+                    }
+                }
+                linha = proxima;
+            }
+        }
+        registros = aplicados;
+        return aplicados;
+    }
+
+    /**
+     * Abre o journal para acréscimo (append). Uma última linha sem o '\n'
+     * é terminada antes, para que o próximo registro não seja gravado nela:
+     * se for um registro válido (já reaplicado pelo {@link #replay}) recebe
+     * o '\n' que faltava; se estiver incompleta, é cortada.
+     */
+    void open() throws IOException {
+        if (file.exists()) {
+            terminarUltimaLinha();
+        }
+        output = new FileOutputStream(file, true);
+        writer = new BufferedWriter(new OutputStreamWriter(new ContadorOutputStream(output), StandardCharsets.UTF_8));
+    }
+
+    private void terminarUltimaLinha() throws IOException {
+        try (RandomAccessFile arquivo = new RandomAccessFile(file, "rw")) {
+            long tamanho = arquivo.length();
+            long fim = tamanho;
+            while (fim > 0) {
+                arquivo.seek(fim - 1);
+                if (arquivo.read() == '\n') {
+                    break;
+                }
+                fim--;
+            }
+            if (fim == tamanho) {
+                return;
+            }
+            byte[] ultima = new byte[(int) (tamanho - fim)];
+            arquivo.seek(fim);
+            arquivo.readFully(ultima);
+            if (valida(ultima)) {
+                arquivo.seek(tamanho);
+                arquivo.write('\n');
+            } else {
+                arquivo.setLength(fim);
+            }
+        }
+    }
+
+    /** Se a linha é um registro completo, com o mesmo critério do {@link #replay} */
+    private boolean valida(byte[] linha) {
+        if (new String(linha, StandardCharsets.UTF_8).isBlank()) {
+            return false;
+        }
+        try {
+            objectMapper.readValue(linha, Registro.class);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Serializa um registro na linha que será gravada no journal */
+    String encode(Registro registro) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(registro);
+    }
+
+    /**
+     * Acrescenta linhas já serializadas ao final do journal.
+     * Os dados ficam no buffer até {@link #sync()}.
+     */
+    @Override
+    public void append(List<String> linhas) throws IOException {
+        for (String linha : linhas) {
+            writer.write(linha);
+            writer.write('\n');
+        }
+        registros += linhas.size();
+    }
+
+    /** Descarrega o buffer e força a gravação física no disco (fsync) */
+    @Override
+    public void sync() throws IOException {
+        long inicio = System.nanoTime();
+        writer.flush();
+        output.getChannel().force(false);
+        metrics.record(PortariaMetrics.Operacao.FSYNC, inicio);
+    }
+
+    /** Descarta o conteúdo do journal (chamado após um checkpoint bem-sucedido) */
+    @Override
+    public void reset() throws IOException {
+        close();
+        new FileOutputStream(file, false).close();
+        registros = 0;
+        open();
+    }
+
+    /** Quantidade de registros desde o último checkpoint */
+    int size() {
+        return registros;
+    }
+
+    /** Bytes gravados no journal desde o início da execução */
+    long bytesGravados() {
+        return bytesGravados.sum();
+    }
+
+    /** Conta os bytes que saem do buffer em direção ao arquivo */
+    private class ContadorOutputStream extends FilterOutputStream {
+        ContadorOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytesGravados.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytesGravados.add(len);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            output = null;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.utils.EmissorTypes;
+
+/**
+ * Leitor em streaming do snapshot portarias.json.
+ * Percorre os tokens com o {@link JsonParser} e monta cada Portaria
+ * diretamente, sem criar a árvore genérica do arquivo: o pico de memória
+ * fica limitado a um registro por vez.
+ *
+ * Formatos aceitos:
+ * versão 2 (atual) - {"versao":2,"portarias":[{...}, ...]}, sem chave
+ * gravada: ela é derivada do próprio registro;
+ * versão 1 (legada) - {"PortariaPK [emissor=..., numero=..., ano=...]":{...}},
+ * a chave textual é ignorada e também derivada do registro.
+ */
+class PortariaJsonReader {
+
+    /** Versão do formato gravado por {@link PortariaJsonWriter} */
+    static final int VERSAO_ATUAL = 2;
+
+    private final JsonFactory jsonFactory;
+
+    private int versao;
+    private int entradas;
+    private int validas;
+
+    PortariaJsonReader(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Lê o arquivo e entrega cada portaria válida ao consumidor.
+     * Entradas inválidas são descartadas com uma mensagem em System.err.
+     */
+    void read(File file, Consumer<Portaria> consumidor) throws IOException {
+        versao = 1;
+        entradas = 0;
+        validas = 0;
+        try (JsonParser parser = jsonFactory.createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Snapshot deve começar com um objeto JSON.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                parser.nextToken();
+                if (entradas == 0 && versao == 1 && "versao".equals(campo)) {
+                    versao = parser.getValueAsInt();
+                    if (versao > VERSAO_ATUAL) {
+                        throw new IOException("Versão de snapshot não suportada: " + versao);
+                    }
+                } else if (versao >= 2) {
+                    if ("portarias".equals(campo) && parser.currentToken() == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            readEntry(parser, "#" + entradas, consumidor);
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                } else {
+                    // Formato legado: o nome do campo é o toString() da PortariaPK
+                    readEntry(parser, campo, consumidor);
+                }
+            }
+        }
+    }
+
+    private void readEntry(JsonParser parser, String origem, Consumer<Portaria> consumidor) throws IOException {
+        entradas++;
+        Portaria portaria;
+        try {
+            portaria = readPortaria(parser);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println("Erro ao processar entrada '" + origem + "': " + e.getMessage());
+            return;
+        }
+        if (portaria.getEmissor() == null) {
+            System.err.println("Emissor nulo na entrada '" + origem + "'. Pulando.");
+            return;
+        }
+        consumidor.accept(portaria);
+        validas++;
+    }
+
+    /**
+     * Lê o objeto da portaria na posição atual do parser (START_OBJECT).
+     * Em caso de erro o objeto é consumido até o fim, para que a leitura
+     * continue na próxima entrada.
+     */
+    static Portaria readPortaria(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            throw new IllegalArgumentException("valor não é um objeto");
+        }
+        Portaria portaria = new Portaria();
+        RuntimeException erro = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            if (valor == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            try {
+                switch (campo) {
+                    case "emissor" -> portaria.setEmissor(valor == JsonToken.VALUE_NUMBER_INT
+                            ? EmissorTypes.fromValue(readInt(parser, campo))
+                            : EmissorTypes.fromName(parser.getText()));
+                    case "numero" -> portaria.setNumero(readInt(parser, campo));
+                    case "publicacao" -> portaria.setPublicacao(LocalDate.parse(parser.getText()));
+                    case "membro" -> portaria.setMembro(parser.getText());
+                    default -> parser.skipChildren();
+                }
+            } catch (RuntimeException e) {
+                if (erro == null) erro = e;
+                parser.skipChildren();
+            }
+        }
+        if (erro != null) {
+            throw erro;
+        }
+        if (portaria.getNumero() == null || portaria.getPublicacao() == null) {
+            throw new IllegalArgumentException("número ou data de publicação ausente");
+        }
+        return portaria;
+    }
+
+    /**
+     * Lê o valor atual como int. Textos, frações e números fora do
+     * intervalo do int são recusados, em vez de convertidos.
+     */
+    private static int readInt(JsonParser parser, String campo) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT
+                || parser.getNumberType() != JsonParser.NumberType.INT) {
+            throw new IllegalArgumentException(campo + " não é um número inteiro: " + parser.getText());
+        }
+        return parser.getIntValue();
+    }
+
+    /** Versão do formato encontrada na última leitura */
+    int getVersao() {
+        return versao;
+    }
+
+    /** Entradas encontradas na última leitura */
+    int getEntradas() {
+        return entradas;
+    }
+
+    /** Entradas válidas na última leitura */
+    int getValidas() {
+        return validas;
+    }
+}
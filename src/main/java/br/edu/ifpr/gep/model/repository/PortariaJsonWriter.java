@@ -0,0 +1,49 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Gravador do snapshot portarias.json no formato atual (versão 2).
+ * A chave de cada portaria não é gravada: ela é derivada do registro na leitura.
+ * O emissor é gravado pelo índice.
+ */
+class PortariaJsonWriter {
+
+    private final JsonFactory jsonFactory;
+
+    PortariaJsonWriter(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    void write(File file, Collection<Portaria> portarias) throws IOException {
+        try (JsonGenerator gen = jsonFactory.createGenerator(file, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeNumberField("versao", PortariaJsonReader.VERSAO_ATUAL);
+            gen.writeArrayFieldStart("portarias");
+            for (Portaria portaria : portarias) {
+                writePortaria(gen, portaria);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+
+    static void writePortaria(JsonGenerator gen, Portaria portaria) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("emissor", portaria.getEmissor().getIndex());
+        gen.writeNumberField("numero", portaria.getNumero());
+        gen.writeStringField("publicacao", portaria.getPublicacao().toString());
+        if (portaria.getMembro() != null) {
+            gen.writeStringField("membro", portaria.getMembro());
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,14 @@
+package br.edu.ifpr.gep.model.repository;
+
+/**
+ * Recebe as modificações do repositório.
+ *
+ * Os eventos são entregues na thread que fez a modificação, ainda sob o
+ * lock de escrita, na mesma ordem em que foram aplicados. O listener deve
+ * ser rápido e não pode chamar o repositório nessa thread; para atualizar
+ * a interface, repasse o evento (por exemplo, com Platform.runLater).
+ */
+@FunctionalInterface
+public interface PortariaListener {
+    void onChange(PortariaEvent evento);
+}
@@ -0,0 +1,171 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Implementação das métricas do repositório. Cada operação registra a sua
+ * duração em um {@link LatencyHistogram}; os valores de estado (contagens,
+ * índices, journal) são lidos do repositório no momento da consulta.
+ */
+class PortariaMetrics implements PortariaMetricsMXBean {
+
+    static final String OBJECT_NAME = "br.edu.ifpr.gep:type=PortariaRepository";
+
+    /** Operações medidas */
+    enum Operacao {
+        INSERT("insert"), INSERT_ALL("insertAll"), UPDATE("update"), DELETE("delete"), DELETE_ALL("deleteAll"),
+        FIND_PORTARIA("findPortaria"), FIND_ALL("findAll"), FIND_BY_EMISSOR("findByEmissor"),
+        FIND_BY_ANO("findByAno"), FIND_BY_MEMBRO("findByMembro"), FIND_BY_NUMERO("findByNumero"),
+        FIND_BY_PUBLICACAO("findByPublicacao"), FIND_BY_PERIODO("findByPeriodo"), FIND("find"),
+        FIND_PAGE("findPage"), LOAD("load"), SAVE("save"), CHECKPOINT("checkpoint"),
+        IMPORT("importJson"), EXPORT("export"), FSYNC("fsync");
+
+        final String nome;
+
+        Operacao(String nome) {
+            this.nome = nome;
+        }
+    }
+
+    private final Map<Operacao, LatencyHistogram> histogramas = new EnumMap<>(Operacao.class);
+    private final LongAdder bytesSnapshot = new LongAdder();
+    private volatile long ultimoSnapshotBytes;
+    private final IntSupplier portarias;
+    private final Supplier<Map<String, Integer>> indices;
+    private final IntSupplier registrosJournal;
+    private final LongSupplier bytesJournal;
+    private final Supplier<String> durabilidade;
+    private final QueryCache cache;
+
+    PortariaMetrics(IntSupplier portarias, Supplier<Map<String, Integer>> indices,
+                    IntSupplier registrosJournal, LongSupplier bytesJournal, Supplier<String> durabilidade,
+                    QueryCache cache) {
+        for (Operacao operacao : Operacao.values()) {
+            histogramas.put(operacao, new LatencyHistogram());
+        }
+        this.portarias = portarias;
+        this.indices = indices;
+        this.registrosJournal = registrosJournal;
+        this.bytesJournal = bytesJournal;
+        this.durabilidade = durabilidade;
+        this.cache = cache;
+    }
+
+    /** Registra a duração de uma operação iniciada em {@code inicio} (System.nanoTime) */
+    void record(Operacao operacao, long inicio) {
+        histogramas.get(operacao).record(System.nanoTime() - inicio);
+    }
+
+    /** Inicia a medição de uma operação: o histograma e o evento do JFR */
+    PortariaOperationEvent iniciar(Operacao operacao) {
+        PortariaOperationEvent evento = new PortariaOperationEvent();
+        evento.tipo = operacao;
+        evento.begin();
+        evento.inicio = System.nanoTime();
+        return evento;
+    }
+
+    /** Encerra a medição, registrando a duração e gravando o evento do JFR */
+    void concluir(PortariaOperationEvent evento, int resultados) {
+        record(evento.tipo, evento.inicio);
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.operacao = evento.tipo.nome;
+            evento.resultados = resultados;
+            evento.commit();
+        }
+    }
+
+    void snapshotGravado(long bytes) {
+        bytesSnapshot.add(bytes);
+        ultimoSnapshotBytes = bytes;
+    }
+
+    /** Registra o MBean no servidor da plataforma */
+    void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nome = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(nome)) {
+                server.unregisterMBean(nome);
+            }
+            server.registerMBean(this, nome);
+        } catch (JMException | RuntimeException e) {
+            System.err.println("Erro ao registrar as métricas JMX: " + e.getMessage());
+        }
+    }
+
+    /** Estatísticas de uma operação */
+    OperationStats stats(Operacao operacao) {
+        return histogramas.get(operacao).snapshot();
+    }
+
+    @Override
+    public Map<String, OperationStats> getOperacoes() {
+        Map<String, OperationStats> result = new LinkedHashMap<>();
+        for (Map.Entry<Operacao, LatencyHistogram> entrada : histogramas.entrySet()) {
+            result.put(entrada.getKey().nome, entrada.getValue().snapshot());
+        }
+        return result;
+    }
+
+    @Override
+    public int getPortarias() {
+        return portarias.getAsInt();
+    }
+
+    @Override
+    public Map<String, Integer> getIndices() {
+        return indices.get();
+    }
+
+    @Override
+    public int getRegistrosJournal() {
+        return registrosJournal.getAsInt();
+    }
+
+    @Override
+    public long getBytesJournal() {
+        return bytesJournal.getAsLong();
+    }
+
+    @Override
+    public long getBytesSnapshot() {
+        return bytesSnapshot.sum();
+    }
+
+    @Override
+    public long getUltimoSnapshotBytes() {
+        return ultimoSnapshotBytes;
+    }
+
+    @Override
+    public Map<String, Long> getCache() {
+        return cache.estatisticas();
+    }
+
+    @Override
+    public String getDurabilidade() {
+        return durabilidade.get();
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram histograma : histogramas.values()) {
+            histograma.reset();
+        }
+        bytesSnapshot.reset();
+        cache.zerarEstatisticas();
+    }
+}
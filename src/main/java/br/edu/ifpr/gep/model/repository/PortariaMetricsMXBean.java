@@ -0,0 +1,44 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.Map;
+
+/**
+ * Métricas do repositório, registradas no servidor de MBeans da plataforma
+ * como br.edu.ifpr.gep:type=PortariaRepository (visíveis no JConsole e no
+ * VisualVM).
+ */
+public interface PortariaMetricsMXBean {
+
+    /** Contagem e latências por operação (insert, findByNumero, save, fsync...) */
+    Map<String, OperationStats> getOperacoes();
+
+    /** Quantidade de portarias em memória */
+    int getPortarias();
+
+    /** Tamanho de cada índice (valores distintos indexados) */
+    Map<String, Integer> getIndices();
+
+    /** Registros no journal desde o último checkpoint */
+    int getRegistrosJournal();
+
+    /** Bytes acrescentados ao journal desde o início */
+    long getBytesJournal();
+
+    /** Bytes gravados em snapshots desde o início */
+    long getBytesSnapshot();
+
+    /** Tamanho do último snapshot gravado, em bytes */
+    long getUltimoSnapshotBytes();
+
+    /**
+     * Cache de consultas: acertos, falhas, invalidações, descartes por
+     * tamanho, consultas e portarias guardadas
+     */
+    Map<String, Long> getCache();
+
+    /** Modo de durabilidade em uso */
+    String getDurabilidade();
+
+    /** Zera as contagens e os histogramas */
+    void reset();
+}
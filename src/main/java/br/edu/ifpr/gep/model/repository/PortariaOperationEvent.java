@@ -0,0 +1,32 @@
+package br.edu.ifpr.gep.model.repository;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento do JFR emitido a cada operação do repositório (inserção, exclusão,
+ * consultas...). A duração do evento inclui a espera pelo lock. Sem uma
+ * gravação do JFR ativa o custo é desprezível.
+ */
+@Name("br.edu.ifpr.gep.RepositoryOperation")
+@Label("Operação do repositório")
+@Category({"GEP", "Repositório"})
+@Description("Operação do PortariaRepository, com o tipo e a quantidade de resultados")
+@StackTrace(false)
+class PortariaOperationEvent extends Event {
+
+    @Label("Operação")
+    String operacao;
+
+    @Label("Resultados")
+    @Description("Portarias devolvidas pela consulta ou afetadas pela modificação")
+    int resultados;
+
+    // Usados pelas métricas, não gravados pelo JFR
+    transient PortariaMetrics.Operacao tipo;
+    transient long inicio;
+}
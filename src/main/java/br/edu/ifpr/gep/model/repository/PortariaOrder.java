@@ -0,0 +1,11 @@
+package br.edu.ifpr.gep.model.repository;
+
+/**
+ * Ordens mantidas pelo repositório para listagens e paginação.
+ */
+public enum PortariaOrder {
+    /** Índice do emissor, número e ano (a ordem da chave) */
+    EMISSOR_NUMERO_ANO,
+    /** Data de publicação; empates pela ordem da chave */
+    PUBLICACAO
+}
@@ -1,36 +1,110 @@
 package br.edu.ifpr.gep.model.repository;
 
-import java.util.Objects;
-
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.utils.EmissorNúmeroAnoComparator;
+import br.edu.ifpr.gep.model.utils.EmissorTypes;
+
+/**
+ * Chave de uma portaria: emissor, número e ano da publicação, empacotados
+ * em um único long (índice do emissor, número e ano, a mesma chave de
+ * {@link EmissorNúmeroAnoComparator#chave(Portaria)}). O repositório usa
+ * só o long; esta classe existe para os eventos e para quem precisa da
+ * chave como objeto.
+ *
+ * O emissor é resolvido pelo nome, ignorando acentos e maiúsculas. Um nome
+ * sem emissor cadastrado gera uma chave que não existe no repositório.
+ */
 public class PortariaPK {
-    private String emissor;
-    private Integer numero;
-    private Integer ano;
+    /** Índice reservado aos nomes sem emissor cadastrado */
+    private static final int EMISSOR_DESCONHECIDO = 0x7FFF;
+    /** Maior ano representável na chave (16 bits) */
+    static final int ANO_MAXIMO = 0xFFFF;
+
+    private final long chave;
+    private final String emissorDesconhecido; // só quando o nome não corresponde a um emissor
 
     @JsonCreator  // Essencial: Informa ao Jackson como criar a instância a partir do JSON
     public PortariaPK(@JsonProperty("emissor") String emissor,
                       @JsonProperty("numero") Integer numero,
                       @JsonProperty("ano") Integer ano) {
-        this.emissor = emissor.toLowerCase();  // Case-insensitive para buscas
-        this.numero = numero;
-        this.ano = ano;
+        EmissorTypes tipo = EmissorTypes.fromName(emissor);
+        this.chave = EmissorNúmeroAnoComparator.chave(
+                tipo == null ? EMISSOR_DESCONHECIDO : tipo.getIndex(), numero, ano);
+        this.emissorDesconhecido = tipo == null ? emissor.toLowerCase() : null;
+    }
+
+    private PortariaPK(long chave) {
+        this.chave = chave;
+        this.emissorDesconhecido = null;
+    }
+
+    /** Chave da portaria: nome do emissor, número e ano da publicação */
+    public static PortariaPK of(Portaria portaria) {
+        return new PortariaPK(chave(portaria));
+    }
+
+    /** Chave a partir do long empacotado */
+    public static PortariaPK of(long chave) {
+        return new PortariaPK(chave);
+    }
+
+    /** Chave empacotada da portaria, sem criar objetos */
+    public static long chave(Portaria portaria) {
+        return EmissorNúmeroAnoComparator.chave(portaria);
+    }
+
+    /**
+     * Chave empacotada a partir do nome do emissor, sem criar objetos quando
+     * o nome é exatamente o de um emissor cadastrado.
+     * @return a chave, ou -1 se o nome não corresponder a um emissor ou o
+     *         ano estiver fora do intervalo da chave (nenhuma portaria a tem)
+     */
+    public static long chave(String emissorNome, int numero, int ano) {
+        EmissorTypes tipo = EmissorTypes.fromName(emissorNome);
+        return tipo == null || ano < 0 || ano > ANO_MAXIMO ? -1L
+                : EmissorNúmeroAnoComparator.chave(tipo.getIndex(), numero, ano);
+    }
+
+    /**
+     * Verifica se a portaria tem todos os campos da chave e se o ano cabe
+     * nela; fora do intervalo, anos diferentes dariam a mesma chave.
+     * @throws IllegalArgumentException se a portaria não puder ser gravada
+     */
+    static void validar(Portaria portaria) {
+        if (portaria.getEmissor() == null || portaria.getNumero() == null || portaria.getPublicacao() == null) {
+            throw new IllegalArgumentException("Portaria sem emissor, número ou publicação: " + portaria);
+        }
+        int ano = portaria.getPublicacao().getYear();
+        if (ano < 0 || ano > ANO_MAXIMO) {
+            throw new IllegalArgumentException("Ano fora do intervalo aceito (0 a " + ANO_MAXIMO + "): " + ano);
+        }
+    }
+
+    /** A chave empacotada */
+    public long toLong() {
+        return chave;
+    }
+
+    /** Nome do emissor em minúsculas */
+    public String getEmissor() {
+        return emissorDesconhecido != null ? emissorDesconhecido
+                : EmissorTypes.fromValue((int) (chave >>> 48)).getNome().toLowerCase();
     }
 
-    public String getEmissor() { return emissor; }
-    public Integer getNumero() { return numero; }
-    public Integer getAno() { return ano; }
+    public Integer getNumero() { return (int) ((chave >>> 16) & 0xFFFFFFFFL) + Integer.MIN_VALUE; }
+    public Integer getAno() { return (int) (chave & 0xFFFF); }
 
     @Override
     public String toString() {
-        return "PortariaPK [emissor=" + emissor + ", numero=" + numero + ", ano=" + ano + "]";
+        return "PortariaPK [emissor=" + getEmissor() + ", numero=" + getNumero() + ", ano=" + getAno() + "]";
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(emissor, numero, ano);
+        return Long.hashCode(chave);
     }
 
     @Override
@@ -38,8 +112,8 @@ public class PortariaPK {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         PortariaPK other = (PortariaPK) obj;
-        return Objects.equals(ano, other.ano) &&
-                Objects.equals(emissor, other.emissor) &&
-                Objects.equals(numero, other.numero);
+        return chave == other.chave
+                && (emissorDesconhecido == null ? other.emissorDesconhecido == null
+                        : emissorDesconhecido.equals(other.emissorDesconhecido));
     }
-}
\ No newline at end of file
+}
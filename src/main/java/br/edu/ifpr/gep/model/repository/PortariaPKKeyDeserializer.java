@@ -5,6 +5,10 @@ import java.io.IOException;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.KeyDeserializer;
 
+/**
+ * Desserializa a chave textual do formato legado (versão 1) do portarias.json.
+ * O carregamento não usa mais esta classe: a chave é derivada do registro.
+ */
 public class PortariaPKKeyDeserializer extends KeyDeserializer {
 
     @Override
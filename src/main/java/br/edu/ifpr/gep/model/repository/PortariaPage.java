@@ -0,0 +1,40 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.List;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Uma página de portarias, por padrão em ordem de emissor (índice), número e ano.
+ * O cursor identifica a última portaria da página e continua válido
+ * mesmo que outras portarias sejam incluídas ou excluídas: a próxima
+ * página começa logo depois dela, sem repetir nem pular itens.
+ */
+public class PortariaPage {
+    private final List<Portaria> itens;
+    private final String cursor;
+    private final boolean ultima;
+
+    PortariaPage(List<Portaria> itens, String cursor, boolean ultima) {
+        this.itens = itens;
+        this.cursor = cursor;
+        this.ultima = ultima;
+    }
+
+    /** Portarias da página */
+    public List<Portaria> getItens() { return itens; }
+
+    /**
+     * Cursor para pedir a próxima página (null se a página está vazia ou
+     * não está na ordem de emissor, número e ano)
+     */
+    public String getCursor() { return cursor; }
+
+    /** Indica se não há portarias depois desta página */
+    public boolean isUltima() { return ultima; }
+
+    @Override
+    public String toString() {
+        return "PortariaPage[itens=" + itens.size() + ", cursor=" + cursor + ", ultima=" + ultima + "]";
+    }
+}
@@ -0,0 +1,78 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.locks.StampedLock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Persistência do acervo usada pelo {@link PortariaRepository}: carrega as
+ * portarias no {@link PortariaStore} na inicialização e grava cada
+ * modificação. O repositório continua dono do lock, dos eventos e das
+ * consultas, que são respondidas em memória.
+ *
+ * As modificações chegam sob o lock de escrita do repositório, na ordem em
+ * que foram feitas; a gravação pode ser feita depois, pela thread de
+ * gravação, conforme o {@link DurabilityMode}.
+ *
+ * Implementações: {@link JsonFilePersistence} (snapshot e journal em
+ * arquivos, o padrão) e {@link JdbcPersistence} (banco de dados embutido),
+ * escolhidas por gep.persistencia=json|jdbc.
+ */
+interface PortariaPersistence extends Closeable {
+
+    /** Cria a persistência indicada pela propriedade gep.persistencia */
+    static PortariaPersistence create(File dataDir, PortariaStore store, StampedLock lock, ObjectMapper objectMapper,
+                                      PortariaMetrics metrics, DurabilityMode durabilityMode, long durabilityJanela) {
+        String tipo = System.getProperty("gep.persistencia", "json");
+        JsonFilePersistence arquivos =
+                new JsonFilePersistence(dataDir, store, lock, objectMapper, metrics, durabilityMode, durabilityJanela);
+        return "jdbc".equalsIgnoreCase(tipo)
+                ? new JdbcPersistence(dataDir, store, arquivos, metrics, durabilityMode, durabilityJanela)
+                : arquivos;
+    }
+
+    /** Carrega o acervo no armazenamento (na inicialização, durante uma carga em lote) */
+    void load();
+
+    /**
+     * Registra uma modificação (chamado sob o lock de escrita).
+     * @throws IOException se a modificação não pôde ser gravada (no modo
+     *         SYNC) ou se a gravação foi interrompida por um erro anterior;
+     *         o repositório então desfaz a modificação
+     */
+    void record(PortariaJournal.Registro registro) throws IOException;
+
+    /**
+     * Grava o resultado de uma carga em massa, de uma só vez (chamado sob o
+     * lock de escrita).
+     * @param alteradas as portarias incluídas ou substituídas pela carga
+     */
+    void saveAll(Collection<Portaria> alteradas) throws IOException;
+
+    /** Consolida as modificações gravadas (no journal, compacta-o em um novo snapshot) */
+    void checkpoint();
+
+    /**
+     * Grava imediatamente tudo o que estiver pendente.
+     * @return true se as modificações chegaram ao disco
+     */
+    boolean flush();
+
+    /**
+     * Espera até que as modificações feitas até agora estejam no disco.
+     * @return true se as modificações chegaram ao disco
+     */
+    boolean awaitDurable();
+
+    /** Registros no journal desde o último checkpoint (0 sem journal) */
+    int getRegistrosJournal();
+
+    /** Bytes acrescentados ao journal desde o início (0 sem journal) */
+    long getBytesJournal();
+}
@@ -0,0 +1,51 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.io.File;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento do JFR emitido na carga e na gravação dos arquivos do repositório
+ * (snapshot, importação e exportação), com o tamanho do arquivo.
+ */
+@Name("br.edu.ifpr.gep.RepositoryPersistence")
+@Label("Persistência do repositório")
+@Category({"GEP", "Repositório"})
+@Description("Carga ou gravação de um arquivo de portarias")
+class PortariaPersistenceEvent extends Event {
+
+    @Label("Operação")
+    String operacao;
+
+    @Label("Arquivo")
+    String arquivo;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Portarias")
+    int portarias;
+
+    /** Encerra o evento e o grava, se houver uma gravação do JFR ativa */
+    void concluir(String operacao, File arquivo, long bytes, int portarias) {
+        concluir(operacao, arquivo.getName(), bytes, portarias);
+    }
+
+    /** Idem, para uma origem que não é um arquivo (a URL do banco de dados) */
+    void concluir(String operacao, String arquivo, long bytes, int portarias) {
+        end();
+        if (shouldCommit()) {
+            this.operacao = operacao;
+            this.arquivo = arquivo;
+            this.bytes = bytes;
+            this.portarias = portarias;
+            commit();
+        }
+    }
+}
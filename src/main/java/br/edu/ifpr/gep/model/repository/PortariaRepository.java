@@ -1,9 +1,16 @@
 package br.edu.ifpr.gep.model.repository;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,26 +23,72 @@ import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
 import br.edu.ifpr.gep.model.Portaria;
-import br.edu.ifpr.gep.model.repository.PortariaPK;
+import br.edu.ifpr.gep.model.repository.PortariaMetrics.Operacao;
+import br.edu.ifpr.gep.model.utils.EmissorNúmeroAnoComparator;
 import br.edu.ifpr.gep.model.utils.EmissorTypes;
 
 /**
  * Repositório em memória para gerenciar objetos do tipo Portaria.
  * Permite inserção, busca e listagem com filtros.
- * Carrega e salva dados em JSON.
+ *
+ * A carga e a gravação ficam com uma {@link PortariaPersistence}, escolhida
+ * por gep.persistencia: json (padrão, {@link JsonFilePersistence}), um
+ * snapshot em arquivo e o journal portarias.journal com as modificações
+ * desde o último checkpoint, ou jdbc ({@link JdbcPersistence}), um banco de
+ * dados embutido (H2 ou SQLite) em que cada modificação grava uma linha.
+ * O diretório dos arquivos é gep.dados (padrão o diretório atual).
+ *
+ * As gravações em disco são feitas por uma thread própria (ver
+ * {@link DurabilityMode}), configurada por gep.durabilidade (SYNC,
+ * GROUP_COMMIT ou PERIODIC) e gep.durabilidade.janela (milissegundos).
+ *
+ * O JSON continua disponível, em qualquer persistência, por
+ * {@link #importJson(File)} e {@link #exportJson(File)}.
+ *
+ * As portarias ficam em um {@link PortariaStore}, escolhido por
+ * gep.armazenamento: objetos (padrão), um mapa de portarias com índices
+ * secundários, ou colunar ({@link ColumnarStore}), colunas primitivas com
+ * os nomes dos membros em um dicionário, que ocupa uma fração da memória e
+ * cria os objetos Portaria só ao devolver os resultados.
+ *
+ * O repositório pode ser usado por várias threads. As escritas são serializadas por um
+ * {@link StampedLock}. As consultas fazem uma leitura otimista, sem bloquear,
+ * e só tomam o lock de leitura se uma escrita ocorrer durante a consulta;
+ * assim cada consulta enxerga um estado consistente do repositório.
+ *
+ * Cada modificação é publicada como um {@link PortariaEvent} aos listeners
+ * registrados com {@link #addListener(PortariaListener)}.
+ *
+ * Contagens e latências de cada operação, tamanhos dos índices e bytes
+ * gravados são expostos pelo MBean br.edu.ifpr.gep:type=PortariaRepository
+ * ({@link PortariaMetricsMXBean}), visível no JConsole e no VisualVM. As
+ * mesmas operações, a carga e a gravação dos arquivos emitem eventos do JFR
+ * (categoria GEP), que aparecem em qualquer gravação do Flight Recorder.
  */
 public class PortariaRepository {
 
     public static final PortariaRepository INSTANCE = new PortariaRepository();
 
-    private final Map<PortariaPK, Portaria> portarias = new HashMap<>();
+    private final PortariaStore store = PortariaStore.create();
+    private final StampedLock lock = new StampedLock();
+    private final List<PortariaListener> listeners = new CopyOnWriteArrayList<>();
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final File dataFile = new File("portarias.json");
-    private final PortariaPKKeyDeserializer keyDeserializer = new PortariaPKKeyDeserializer();
+    private final File dataDir = new File(System.getProperty("gep.dados", "."));
+    private final DurabilityMode durabilityMode =
+            DurabilityMode.valueOf(System.getProperty("gep.durabilidade", DurabilityMode.GROUP_COMMIT.name()));
+    private final QueryCache cache = new QueryCache(Integer.getInteger("gep.cache.consultas", 128),
+            Integer.getInteger("gep.cache.portarias", 200_000));
+    private final PortariaMetrics metrics = new PortariaMetrics(store::size, store::sizes,
+            () -> this.persistence.getRegistrosJournal(), () -> this.persistence.getBytesJournal(),
+            durabilityMode::name, cache);
+    private final long durabilityJanela = Long.getLong("gep.durabilidade.janela",
+            durabilityMode == DurabilityMode.PERIODIC ? 1000L : 20L);
+    private PortariaPersistence persistence; // atribuída uma vez, no construtor
+    private volatile long versao; // alterada só sob o lock de escrita
 
     /**
      * Construtor privado para singleton.
-     * Configura Jackson e carrega dados do JSON.
+     * Configura Jackson e carrega os dados pela persistência configurada.
      */
     private PortariaRepository() {
         // Registrar módulo para LocalDate
@@ -51,196 +104,798 @@ public class PortariaRepository {
         SimpleModule module = new SimpleModule();
         module.addSerializer(EmissorTypes.class, new EmissorTypesSerializer());
         module.addDeserializer(EmissorTypes.class, new EmissorTypesDeserializer());
+        module.addDeserializer(Portaria.class, new PortariaDeserializer());
         objectMapper.registerModule(module);
 
-        System.out.println("Iniciando repositório... Arquivo JSON: " + dataFile.getAbsolutePath());
-        loadData();
-        System.out.println("Dados carregados: " + portarias.size() + " portarias.");
+        dataDir.mkdirs();
+        persistence = PortariaPersistence.create(dataDir, store, lock, objectMapper, metrics,
+                durabilityMode, durabilityJanela);
+        long inicio = System.nanoTime();
+        beginBulk();
+        try {
+            persistence.load();
+        } finally {
+            endBulk();
+        }
+        metrics.record(Operacao.LOAD, inicio);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeWriter, "portarias-writer-close"));
+        metrics.register();
+        System.out.println("Dados carregados: " + store.size() + " portarias.");
     }
 
     /**
-     * Carrega dados do arquivo JSON para o mapa em memória.
+     * Consolida as modificações: no modo journal, grava um snapshot completo
+     * e descarta os registros já incorporados; no banco de dados, confirma o
+     * que estiver pendente. Também pode ser chamado manualmente.
      */
-    private void loadData() {
-        if (!dataFile.exists()) {
-            System.out.println("Arquivo JSON não encontrado. Iniciando vazio.");
-            return;
+    public void checkpoint() {
+        persistence.checkpoint();
+    }
+
+    private void closeWriter() {
+        try {
+            persistence.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar a persistência: " + e.getMessage());
         }
+    }
 
+    /**
+     * Registra uma modificação na persistência (journal, snapshot ou banco
+     * de dados). A gravação fica com a thread de gravação, conforme o modo
+     * de durabilidade. Se a persistência recusar o registro, a modificação
+     * é desfeita por {@code desfazer} (ainda sob o lock de escrita, antes
+     * dos eventos) e o erro é lançado para quem a pediu.
+     * @throws UncheckedIOException se a modificação não pôde ser gravada
+     */
+    private void persist(PortariaJournal.Registro registro, Runnable desfazer) {
         try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> loaded = objectMapper.readValue(dataFile, Map.class);
+            persistence.record(registro);
+        } catch (IOException e) {
+            desfazer.run();
+            throw new UncheckedIOException("A modificação não foi gravada: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Grava imediatamente tudo o que estiver pendente.
+     * @return true se as modificações chegaram ao disco
+     */
+    public boolean flush() {
+        return persistence.flush();
+    }
 
-            for (Map.Entry<String, Object> entry : loaded.entrySet()) {
-                String keyStr = entry.getKey();
-                Object valueObj = entry.getValue();
+    /**
+     * Espera até que as modificações feitas até agora estejam no disco,
+     * respeitando a janela do modo de durabilidade.
+     * @return true se as modificações chegaram ao disco
+     */
+    public boolean awaitDurable() {
+        return persistence.awaitDurable();
+    }
 
-                // Desserializar a chave usando o KeyDeserializer
-                PortariaPK pk;
-                try {
-                    pk = (PortariaPK) keyDeserializer.deserializeKey(keyStr, null);
-                } catch (Exception e) {
-                    System.err.println("Erro ao processar chave '" + keyStr + "': " + e.getMessage());
-                    continue;
-                }
+    /** Modo de durabilidade em uso */
+    public DurabilityMode getDurabilityMode() {
+        return durabilityMode;
+    }
+
+    /**
+     * ObjectMapper configurado pelo repositório: datas em ISO (yyyy-MM-dd),
+     * emissor gravado pelo nome e lido pelo nome ou pelo índice.
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
 
-                // Desserializar o valor como Portaria
-                Portaria portaria;
-                portaria = objectMapper.convertValue(valueObj, Portaria.class);
+    /** Métricas do repositório (as mesmas publicadas via JMX) */
+    public PortariaMetricsMXBean getMetrics() {
+        return metrics;
+    }
+
+    private void beginBulk() {
+        store.beginBulk();
+    }
+
+    private void endBulk() {
+        store.endBulk();
+    }
+
+    private void clearAll() {
+        store.clear();
+    }
+
+    private long keyOf(Portaria portaria) {
+        return PortariaPK.chave(portaria);
+    }
+
+    /** Registra um listener para as modificações do repositório */
+    public void addListener(PortariaListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(PortariaListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Versão do acervo: muda a cada modificação (inclusive importações e
+     * exclusões em massa). Serve para validar caches, como o ETag do
+     * servidor HTTP.
+     */
+    public long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Registra uma modificação de uma portaria (chamado sob o lock de
+     * escrita): avança a versão, descarta as consultas guardadas que a
+     * modificação pode afetar e publica o evento aos listeners. A chave e a
+     * posição só são calculadas se houver quem as receba.
+     */
+    private void fire(PortariaEvent.Tipo tipo, long chave, Portaria portaria, Portaria anterior) {
+        versao++;
+        cache.invalidar(portaria, anterior);
+        if (!listeners.isEmpty()) {
+            publicar(new PortariaEvent(tipo, PortariaPK.of(chave), portaria, anterior, store.positionOf(portaria)));
+        }
+    }
+
+    /** Registra uma modificação do acervo inteiro (CLEARED ou RELOADED) */
+    private void fire(PortariaEvent.Tipo tipo) {
+        versao++;
+        cache.clear();
+        if (!listeners.isEmpty()) {
+            publicar(new PortariaEvent(tipo, null, null, null, -1));
+        }
+    }
 
-                if (portaria.getEmissor() == null) {
-                    System.err.println("Emissor nulo para chave '" + keyStr + "'. Pulando.");
-                    continue;
+    private void publicar(PortariaEvent evento) {
+        for (PortariaListener listener : listeners) {
+            try {
+                listener.onChange(evento);
+            } catch (RuntimeException e) {
+                System.err.println("Erro no listener do repositório: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Importa portarias de um arquivo JSON (formato atual ou legado).
+     * Portarias com a mesma chave são substituídas. O arquivo é lido inteiro
+     * antes de qualquer modificação, e o resultado é gravado de uma vez (um
+     * novo snapshot, ou um lote no banco de dados). Se a gravação falhar,
+     * as portarias incluídas são removidas e as substituídas voltam, como
+     * em {@link #insertAll(Collection)}.
+     * @return quantidade de portarias importadas
+     * @throws IOException se o arquivo não pôde ser lido ou o resultado não
+     *         pôde ser gravado; nesse caso o repositório fica como estava
+     */
+    public int importJson(File arquivo) throws IOException {
+        PortariaJsonReader reader = new PortariaJsonReader(objectMapper.getFactory());
+        PortariaPersistenceEvent evento = new PortariaPersistenceEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        List<Portaria> lidas = new ArrayList<>();
+        long stamp = 0;
+        try {
+            reader.read(arquivo, lidas::add);
+            stamp = lock.writeLock();
+            // Valor anterior de cada chave alterada (null se a chave era nova)
+            Map<Long, Portaria> anteriores = new HashMap<>();
+            try {
+                beginBulk();
+                try {
+                    for (Portaria portaria : lidas) {
+                        long chave = keyOf(portaria);
+                        Portaria anterior = store.put(chave, portaria);
+                        if (!anteriores.containsKey(chave)) {
+                            anteriores.put(chave, anterior);
+                        }
+                    }
+                } finally {
+                    endBulk();
+                }
+                persistence.saveAll(lidas);
+            } catch (IOException | RuntimeException e) {
+                // Sem a gravação, a importação é desfeita: a memória continua igual ao disco
+                beginBulk();
+                try {
+                    for (Map.Entry<Long, Portaria> anterior : anteriores.entrySet()) {
+                        if (anterior.getValue() == null) {
+                            store.remove(anterior.getKey());
+                        } else {
+                            store.put(anterior.getKey(), anterior.getValue());
+                        }
+                    }
+                } finally {
+                    endBulk();
                 }
+                throw e;
+            }
+            fire(PortariaEvent.Tipo.RELOADED);
+        } finally {
+            if (stamp != 0) {
+                lock.unlockWrite(stamp);
+            }
+            lock.unlockWrite(stamp);
+            metrics.record(Operacao.IMPORT, inicio);
+            evento.concluir("import", arquivo, arquivo.length(), reader.getValidas());
+        }
+        return reader.getValidas();
+    }
 
-                // Verificar se o emissor na PK corresponde ao da Portaria
-                if (!pk.getEmissor().equals(portaria.getEmissor().getNome())) {
-                    System.err.println("Inconsistência de emissor na chave '" + keyStr + "'. Pulando.");
-                    continue;
+    /**
+     * Insere várias portarias de uma vez (carga em massa). Os índices são
+     * reconstruídos uma única vez e o resultado é gravado de uma vez (um
+     * novo snapshot, ou um lote no banco de dados), em vez de um registro
+     * por portaria; no
+     * armazenamento padrão os índices são preenchidos em paralelo, um por thread. Os listeners
+     * recebem um único evento RELOADED.
+     * @return as portarias não inseridas porque a chave já existia
+     * @throws IllegalArgumentException se alguma portaria não tiver emissor, número ou
+     *         publicação, ou tiver o ano fora do intervalo aceito (0 a 65535)
+     * @throws IOException se a carga não pôde ser gravada; nesse caso nenhuma portaria é inserida
+     */
+    public List<Portaria> insertAll(Collection<Portaria> novas) throws IOException {
+        for (Portaria portaria : novas) {
+            PortariaPK.validar(portaria);
+        }
+        PortariaOperationEvent evento = metrics.iniciar(Operacao.INSERT_ALL);
+        int afetadas = 0;
+        long stamp = lock.writeLock();
+        try {
+            List<Portaria> existentes;
+            beginBulk();
+            try {
+                existentes = store.putAllAbsent(novas);
+            } finally {
+                endBulk();
+            }
+            if (existentes.size() < novas.size()) {
+                List<Portaria> inseridas = inseridas(novas, existentes);
+                try {
+                    persistence.saveAll(inseridas);
+                } catch (IOException e) {
+                    // Sem a gravação, a carga é desfeita: a memória continua igual ao disco
+                    beginBulk();
+                    try {
+                        for (Portaria portaria : inseridas) {
+                            store.remove(keyOf(portaria));
+                        }
+                    } finally {
+                        endBulk();
+                    }
+                    throw e;
                 }
+                afetadas = inseridas.size();
+                fire(PortariaEvent.Tipo.RELOADED);
+            }
+            return existentes;
+        } finally {
+            lock.unlockWrite(stamp);
+            metrics.concluir(evento, afetadas);
+        }
+    }
+
+    /** As portarias da carga que não estão entre as rejeitadas (comparadas pela identidade) */
+    private static List<Portaria> inseridas(Collection<Portaria> novas, List<Portaria> existentes) {
+        if (existentes.isEmpty()) {
+            return new ArrayList<>(novas);
+        }
+        Set<Portaria> rejeitadas = Collections.newSetFromMap(new IdentityHashMap<>());
+        rejeitadas.addAll(existentes);
+        List<Portaria> result = new ArrayList<>(novas.size() - existentes.size());
+        for (Portaria portaria : novas) {
+            if (!rejeitadas.contains(portaria)) {
+                result.add(portaria);
+            }
+        }
+        return result;
+    }
 
-                portarias.put(pk, portaria);
+    /**
+     * Exporta as portarias que atendem ao filtro em CSV ou JSON Lines,
+     * escrevendo cada uma diretamente no fluxo, sem montar uma lista
+     * intermediária (memória constante, mesmo para o acervo inteiro).
+     * Como em {@link #exportJson(File)}, o lock de leitura é mantido
+     * durante a exportação: o resultado é consistente e as escritas esperam.
+     * O fluxo não é fechado.
+     * @param filtro critério das portarias exportadas (null para todas),
+     *               por exemplo {@code criteria::matches}
+     * @param ordem ordem da exportação (null para a ordem de armazenamento)
+     * @param gzip comprime a saída com gzip
+     * @return quantidade de portarias exportadas
+     */
+    public int export(OutputStream out, ExportFormat formato, Predicate<Portaria> filtro,
+                      PortariaOrder ordem, boolean gzip) throws IOException {
+        PortariaOperationEvent evento = metrics.iniciar(Operacao.EXPORT);
+        PortariaExportWriter exportador = new PortariaExportWriter(out, formato, gzip, objectMapper.getFactory());
+        long stamp = lock.readLock();
+        try {
+            if (ordem == null) {
+                for (Portaria portaria : store.values()) {
+                    if (filtro == null || filtro.test(portaria)) {
+                        exportador.write(portaria);
+                    }
+                }
+            } else {
+                for (int i = 0; i < store.size(); i++) {
+                    Portaria portaria = store.get(ordem, i);
+                    if (filtro == null || filtro.test(portaria)) {
+                        exportador.write(portaria);
+                    }
+                }
             }
+            exportador.finish();
+        } finally {
+            lock.unlockRead(stamp);
+            metrics.concluir(evento, exportador.getGravadas());
+        }
+        return exportador.getGravadas();
+    }
 
-            System.out.println("Carregadas " + portarias.size() + " portarias válidas de " + loaded.size() + " entradas totais.");
-        } catch (IOException e) {
-            System.err.println("Erro ao carregar dados do JSON: " + e.getMessage());
-            portarias.clear(); // Inicia vazio em caso de erro
+    /**
+     * Exporta todas as portarias em páginas de {@code lote}, cada uma lida
+     * sob o seu próprio lock de leitura ({@link #findPage(String, int)}): o
+     * lock não fica preso enquanto o fluxo é escrito, então um destino lento,
+     * como um cliente HTTP, não bloqueia as escritas. Em troca, o resultado
+     * não é um retrato único do acervo: uma modificação feita durante a
+     * exportação pode aparecer ou não. Na ordem de publicação as páginas são
+     * por posição, e uma inclusão ou exclusão durante a exportação pode
+     * repetir ou pular uma portaria. O fluxo não é fechado.
+     * @param ordem ordem da exportação (null para a ordem de emissor, número e ano)
+     * @return quantidade de portarias exportadas
+     */
+    public int exportPaged(OutputStream out, ExportFormat formato, PortariaOrder ordem, int lote,
+                           boolean gzip) throws IOException {
+        if (lote <= 0) {
+            throw new IllegalArgumentException("Lote deve ser > 0.");
+        }
+        PortariaOperationEvent evento = metrics.iniciar(Operacao.EXPORT);
+        PortariaExportWriter exportador = new PortariaExportWriter(out, formato, gzip, objectMapper.getFactory());
+        try {
+            PortariaPage pagina;
+            String cursor = null;
+            int offset = 0;
+            do {
+                pagina = ordem == PortariaOrder.PUBLICACAO ? findPage(ordem, offset, lote) : findPage(cursor, lote);
+                for (Portaria portaria : pagina.getItens()) {
+                    exportador.write(portaria);
+                }
+                cursor = pagina.getCursor();
+                offset += pagina.getItens().size();
+            } while (!pagina.isUltima());
+            exportador.finish();
+        } finally {
+            metrics.concluir(evento, exportador.getGravadas());
         }
+        return exportador.getGravadas();
     }
 
     /**
-     * Salva dados do mapa para o arquivo JSON.
-     * Chamado automaticamente em operações de modificação, se necessário.
+     * Exporta para um arquivo; o formato e a compressão vêm da extensão
+     * (.csv, .jsonl, .csv.gz ou .jsonl.gz).
+     * @see #export(OutputStream, ExportFormat, Predicate, PortariaOrder, boolean)
      */
-    private void saveData() {
+    public int export(File arquivo, Predicate<Portaria> filtro, PortariaOrder ordem) throws IOException {
+        String nome = arquivo.getName();
+        PortariaPersistenceEvent evento = new PortariaPersistenceEvent();
+        evento.begin();
+        int exportadas = 0;
+        try (OutputStream out = new FileOutputStream(arquivo)) {
+            exportadas = export(out, ExportFormat.of(nome), filtro, ordem, nome.toLowerCase().endsWith(".gz"));
+        } finally {
+            evento.concluir("export", arquivo, arquivo.length(), exportadas);
+        }
+        return exportadas;
+    }
+
+    /** Exporta todas as portarias para um arquivo JSON no formato atual */
+    public void exportJson(File arquivo) throws IOException {
+        PortariaPersistenceEvent evento = new PortariaPersistenceEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        long stamp = lock.readLock();
+        int exportadas = 0;
         try {
-            objectMapper.writeValue(dataFile, portarias);
-            System.out.println("Dados salvos no JSON: " + portarias.size() + " portarias.");
-        } catch (IOException e) {
-            System.err.println("Erro ao salvar dados no JSON: " + e.getMessage());
+            exportadas = store.size();
+            new PortariaJsonWriter(objectMapper.getFactory()).write(arquivo, store.values());
+        } finally {
+            lock.unlockRead(stamp);
+            metrics.record(Operacao.EXPORT, inicio);
+            evento.concluir("export", arquivo, arquivo.length(), exportadas);
         }
     }
 
     /**
      * Insere uma nova portaria no repositório.
      * Evita duplicidade de chave (emissor + número + ano).
-     * Salva no JSON após inserção.
+     * Registra a inserção na persistência (journal, JSON ou banco de dados).
+     * @throws IllegalArgumentException se faltar o número ou a publicação, ou
+     *         o ano estiver fora do intervalo aceito (0 a 65535)
+     * @throws UncheckedIOException se a inclusão não pôde ser gravada (o
+     *         repositório fica como estava)
      */
     public boolean insert(Portaria portaria) {
         if (portaria.getEmissor() == null) {
             System.err.println("Emissor nulo na inserção. Operação cancelada.");
             return false;
         }
+        PortariaPK.validar(portaria);
 
-        PortariaPK pk = new PortariaPK(
-                portaria.getEmissor().getNome(),
-                portaria.getNumero(),
-                portaria.getPublicacao().getYear()
-        );
+        long chave = keyOf(portaria);
 
-        if (portarias.containsKey(pk)) {
-            System.err.println("Portaria já existe: " + pk);
-            return false; // Já existe
-        }
+        PortariaOperationEvent evento = metrics.iniciar(Operacao.INSERT);
+        int afetadas = 0;
+        long stamp = lock.writeLock();
+        try {
+            if (store.contains(chave)) {
+                System.err.println("Portaria já existe: " + PortariaPK.of(chave));
+                return false; // Já existe
+            }
 
-        portarias.put(pk, portaria);
-        saveData(); // Salva após inserção
-        return true;
+            store.put(chave, portaria);
+            persist(PortariaJournal.Registro.gravacao(PortariaJournal.Operacao.INSERT, portaria),
+                    () -> store.remove(chave));
+            fire(PortariaEvent.Tipo.ADDED, chave, portaria, null);
+            afetadas = 1;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+            metrics.concluir(evento, afetadas);
+        }
     }
 
-    /** Atualiza uma portaria existente */
+    /**
+     * Atualiza uma portaria existente
+     * @throws IllegalArgumentException como em {@link #insert(Portaria)}
+     * @throws UncheckedIOException como em {@link #insert(Portaria)}
+     */
     public boolean update(Portaria portaria) {
         if (portaria.getEmissor() == null) {
             System.err.println("Emissor nulo na atualização. Operação cancelada.");
             return false;
         }
+        PortariaPK.validar(portaria);
 
-        PortariaPK pk = new PortariaPK(
-                portaria.getEmissor().getNome(),
-                portaria.getNumero(),
-                portaria.getPublicacao().getYear()
-        );
-        if (portarias.containsKey(pk)) {
-            portarias.put(pk, portaria);
-            saveData(); // Salva após atualização
-            return true;
+        long chave = keyOf(portaria);
+        PortariaOperationEvent evento = metrics.iniciar(Operacao.UPDATE);
+        int afetadas = 0;
+        long stamp = lock.writeLock();
+        try {
+            if (store.contains(chave)) {
+                Portaria anterior = store.put(chave, portaria);
+                persist(PortariaJournal.Registro.gravacao(PortariaJournal.Operacao.UPDATE, portaria),
+                        () -> store.put(chave, anterior));
+                fire(PortariaEvent.Tipo.UPDATED, chave, portaria, anterior);
+                afetadas = 1;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+            metrics.concluir(evento, afetadas);
         }
-        return false;
     }
 
-    /** Deleta uma portaria pela chave */
+    /**
+     * Deleta uma portaria pela chave
+     * @throws UncheckedIOException como em {@link #insert(Portaria)}
+     */
     public boolean delete(String emissorNome, Integer numero, Integer ano) {
-        PortariaPK pk = new PortariaPK(emissorNome, numero, ano);
-        boolean removed = portarias.remove(pk) != null;
-        if (removed) {
-            saveData(); // Salva após deleção
+        if (numero == null || ano == null) return false;
+        long chave = PortariaPK.chave(emissorNome, numero, ano);
+        PortariaOperationEvent evento = metrics.iniciar(Operacao.DELETE);
+        int afetadas = 0;
+        long stamp = lock.writeLock();
+        try {
+            Portaria removida = store.remove(chave);
+            if (removida == null) {
+                return false;
+            }
+            persist(PortariaJournal.Registro.exclusao(emissorNome, numero, ano), () -> store.put(chave, removida));
+            fire(PortariaEvent.Tipo.REMOVED, chave, removida, null);
+            afetadas = 1;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+            metrics.concluir(evento, afetadas);
         }
-        return removed;
     }
 
-    /** Deleta todas as portarias */
+    /**
+     * Deleta todas as portarias
+     * @throws UncheckedIOException como em {@link #insert(Portaria)}
+     */
     public int deleteAll() {
-        int size = portarias.size();
-        portarias.clear();
-        saveData(); // Salva após limpar
-        return size;
+        PortariaOperationEvent evento = metrics.iniciar(Operacao.DELETE_ALL);
+        int afetadas = 0;
+        long stamp = lock.writeLock();
+        try {
+            List<Portaria> anteriores = store.findAll();
+            clearAll();
+            persist(PortariaJournal.Registro.limpeza(), () -> {
+                store.beginBulk();
+                store.putAllAbsent(anteriores);
+                store.endBulk();
+            });
+            afetadas = anteriores.size();
+            fire(PortariaEvent.Tipo.CLEARED);
+            return afetadas;
+        } finally {
+            lock.unlockWrite(stamp);
+            metrics.concluir(evento, afetadas);
+        }
+    }
+
+    /**
+     * Executa uma consulta com leitura otimista: se nenhuma escrita ocorreu
+     * durante a consulta o resultado é usado sem bloquear; caso contrário a
+     * consulta é repetida com o lock de leitura.
+     */
+    private <T> T read(Operacao operacao, Supplier<T> consulta) {
+        PortariaOperationEvent evento = metrics.iniciar(operacao);
+        T result = null;
+        try {
+            result = read(consulta);
+            return result;
+        } finally {
+            metrics.concluir(evento, resultados(result));
+        }
+    }
+
+    /** Quantidade de portarias em um resultado de consulta */
+    private static int resultados(Object result) {
+        if (result instanceof Collection<?> lista) {
+            return lista.size();
+        }
+        if (result instanceof PortariaPage pagina) {
+            return pagina.getItens().size();
+        }
+        if (result instanceof Optional<?> portaria) {
+            return portaria.isPresent() ? 1 : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * Executa uma consulta pelo cache de resultados: um acerto não consulta
+     * o armazenamento; uma falha executa a consulta (com leitura otimista)
+     * e guarda o resultado.
+     * @param afetada verifica se uma portaria pode fazer parte do resultado
+     */
+    private List<Portaria> read(Operacao operacao, QueryCache.Consulta chave,
+                                Predicate<Portaria> afetada, Supplier<List<Portaria>> consulta) {
+        PortariaOperationEvent evento = metrics.iniciar(operacao);
+        List<Portaria> result = null;
+        try {
+            result = cache.get(chave, afetada, () -> read(consulta));
+            return result;
+        } finally {
+            metrics.concluir(evento, resultados(result));
+        }
+    }
+
+    /** Predicado das consultas por data: publicada entre os dias (epochDay, inclusive) */
+    private static Predicate<Portaria> publicadaEntre(long de, long ate) {
+        return p -> p.getPublicacao() != null
+                && p.getPublicacao().toEpochDay() >= de && p.getPublicacao().toEpochDay() <= ate;
+    }
+
+    private <T> T read(Supplier<T> consulta) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                T result = consulta.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // Estado inconsistente visto durante uma escrita: repete com o lock
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return consulta.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /** Busca uma portaria pela chave */
     public Optional<Portaria> findPortaria(String emissorNome, Integer numero, Integer ano) {
-        PortariaPK pk = new PortariaPK(emissorNome, numero, ano);
-        return Optional.ofNullable(portarias.get(pk));
+        if (numero == null || ano == null) return Optional.empty();
+        long chave = PortariaPK.chave(emissorNome, numero, ano);
+        return read(Operacao.FIND_PORTARIA, () -> Optional.ofNullable(store.get(chave)));
     }
 
     /** Retorna todas as portarias */
     public List<Portaria> findAll() {
-        return new ArrayList<>(portarias.values());
+        return read(Operacao.FIND_ALL, store::findAll);
     }
 
-    /** Busca por emissor */
+    /**
+     * Busca por emissor.
+     * Os emissores que atendem ao filtro são resolvidos primeiro no registro
+     * de EmissorTypes; o resultado é a união das portarias de cada um.
+     */
     public List<Portaria> findByEmissor(String emissor, boolean strict) {
-        return portarias.values().stream()
-                .filter(p -> {
-                    if (p.getEmissor() == null) return false;
-                    return search(p.getEmissor().getNome(), emissor, strict);
-                })
-                .collect(Collectors.toList());
+        List<Integer> emissores = new ArrayList<>();
+        for (EmissorTypes type : EmissorTypes.values()) {
+            if (search(type.getNome(), emissor, strict)) {
+                emissores.add(type.getIndex());
+            }
+        }
+        return read(Operacao.FIND_BY_EMISSOR, QueryCache.Consulta.of("emissor", emissores),
+                p -> p.getEmissor() != null && emissores.contains(p.getEmissor().getIndex()),
+                () -> store.findByEmissores(emissores));
     }
 
-    /** Busca por ano */
+    /** Busca por ano (pelo índice de datas) */
     public List<Portaria> findByAno(Integer ano) {
-        return portarias.values().stream()
-                .filter(p -> p.getPublicacao().getYear() == ano)
-                .collect(Collectors.toList());
+        long inicio = LocalDate.of(ano, 1, 1).toEpochDay();
+        long fim = LocalDate.of(ano, 12, 31).toEpochDay();
+        return read(Operacao.FIND_BY_ANO, QueryCache.Consulta.of("publicacao", inicio, fim),
+                publicadaEntre(inicio, fim), () -> store.findByPublicacao(inicio, fim));
     }
 
-    /** Busca por membro */
+    /**
+     * Busca por membro (pelo índice de trigramas).
+     * A busca parcial ignora acentos e maiúsculas: "conceicao" encontra "Conceição".
+     */
     public List<Portaria> findByMembro(String membro, boolean strict) {
-        return portarias.values().stream()
-                .filter(p -> search(p.getMembro(), membro, strict))
-                .collect(Collectors.toList());
+        if (membro == null) return new ArrayList<>();
+        if (strict) {
+            return read(Operacao.FIND_BY_MEMBRO, QueryCache.Consulta.of("membro", true, membro),
+                    p -> membro.equalsIgnoreCase(p.getMembro()),
+                    () -> store.findByMembro(membro, String::equalsIgnoreCase));
+        }
+        // A busca parcial só depende do termo normalizado
+        String termo = EmissorTypes.normalize(membro);
+        return read(Operacao.FIND_BY_MEMBRO, QueryCache.Consulta.of("membro", false, termo),
+                p -> EmissorTypes.normalize(p.getMembro()).contains(termo),
+                () -> store.findByMembro(membro, null));
     }
 
-    /** Busca por número */
+    /** Busca por número (pelo índice de números) */
     public List<Portaria> findByNumero(Integer numero) {
-        return portarias.values().stream()
-                .filter(p -> p.getNumero().equals(numero))
-                .collect(Collectors.toList());
+        if (numero == null) return new ArrayList<>();
+        return read(Operacao.FIND_BY_NUMERO, QueryCache.Consulta.of("numero", numero),
+                p -> numero.equals(p.getNumero()), () -> store.findByNumero(numero));
     }
 
-    /** Busca por data de publicação exata */
+    /** Busca por data de publicação exata (pelo índice de datas) */
     public List<Portaria> findByPublicacao(LocalDate data) {
-        return portarias.values().stream()
-                .filter(p -> p.getPublicacao().equals(data))
-                .collect(Collectors.toList());
+        long dia = data.toEpochDay();
+        return read(Operacao.FIND_BY_PUBLICACAO, QueryCache.Consulta.of("publicacao", dia, dia),
+                publicadaEntre(dia, dia), () -> store.findByPublicacao(dia, dia));
     }
 
-    /** Busca por período (inclusive) */
+    /** Busca por período (inclusive), em ordem de publicação */
     public List<Portaria> findByPeriodo(LocalDate start, LocalDate end) {
-        return portarias.values().stream()
-                .filter(p -> !p.getPublicacao().isBefore(start) && !p.getPublicacao().isAfter(end))
-                .collect(Collectors.toList());
+        long inicio = start.toEpochDay();
+        long fim = end.toEpochDay();
+        return read(Operacao.FIND_BY_PERIODO, QueryCache.Consulta.of("publicacao", inicio, fim),
+                publicadaEntre(inicio, fim), () -> store.findByPublicacao(inicio, fim));
+    }
+
+    /** Quantidade de portarias no repositório */
+    public int count() {
+        return store.size();
+    }
+
+    /** Todas as portarias na ordem indicada, sem reordenar o acervo */
+    public List<Portaria> findAll(PortariaOrder ordem) {
+        return read(Operacao.FIND_ALL, () -> store.slice(ordem, 0, store.size()));
+    }
+
+    /**
+     * Página de portarias em ordem de emissor, número e ano, a partir da
+     * posição {@code offset}. O acesso por posição é direto (O(k)); o
+     * cursor de {@link #findPage(String, int)} é estável diante de
+     * inclusões e exclusões entre uma página e outra.
+     */
+    public PortariaPage findPage(int offset, int limite) {
+        return findPage(PortariaOrder.EMISSOR_NUMERO_ANO, offset, limite);
+    }
+
+    /** Página de portarias na ordem indicada, a partir da posição {@code offset} */
+    public PortariaPage findPage(PortariaOrder ordem, int offset, int limite) {
+        if (offset < 0 || limite <= 0) {
+            throw new IllegalArgumentException("Offset deve ser >= 0 e limite > 0.");
+        }
+        return read(Operacao.FIND_PAGE, () -> page(ordem, store.slice(ordem, offset, comExcedente(limite)), limite));
+    }
+
+    /**
+     * Posição da portaria na ordem de emissor, número e ano (a mesma de
+     * {@link #findPage(int, int)}); se ela não estiver no repositório, a
+     * posição em que estaria.
+     */
+    public int positionOf(Portaria portaria) {
+        return read(() -> store.positionOf(portaria));
+    }
+
+    /**
+     * Página de portarias em ordem de emissor, número e ano, logo após o
+     * cursor de uma página anterior (null para começar do início).
+     * Um cursor depois da última chave possível devolve uma página vazia.
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public PortariaPage findPage(String cursor, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("Limite deve ser > 0.");
+        }
+        long depoisDe = cursor == null ? -1L : cursor(cursor);
+        return read(Operacao.FIND_PAGE,
+                () -> page(PortariaOrder.EMISSOR_NUMERO_ANO, store.after(depoisDe, comExcedente(limite)), limite));
+    }
+
+    /**
+     * Limite + 1, para saber se há mais uma página. Com Integer.MAX_VALUE
+     * a página já traz o acervo inteiro, que nunca passa desse tamanho.
+     */
+    private static int comExcedente(int limite) {
+        return limite == Integer.MAX_VALUE ? limite : limite + 1;
+    }
+
+    /** Chave de um cursor: hexadecimal sem sinal, de 0 até Long.MAX_VALUE */
+    private static long cursor(String cursor) {
+        try {
+            // Sem sinal: Long.parseLong aceitaria "-5" e "+5"
+            if (!cursor.isEmpty() && Character.digit(cursor.charAt(0), 16) >= 0) {
+                return Long.parseLong(cursor, 16);
+            }
+        } catch (NumberFormatException e) {
+            // tratado abaixo
+        }
+        throw new IllegalArgumentException("Cursor inválido: " + cursor);
+    }
+
+    /**
+     * Monta a página a partir de até limite + 1 itens (o excedente indica que há mais).
+     * O cursor só existe na ordem de emissor, número e ano.
+     */
+    private PortariaPage page(PortariaOrder ordem, List<Portaria> itens, int limite) {
+        boolean ultima = itens.size() <= limite;
+        if (!ultima) {
+            itens.remove(limite);
+        }
+        String cursor = itens.isEmpty() || ordem == PortariaOrder.PUBLICACAO ? null
+                : Long.toHexString(EmissorNúmeroAnoComparator.chave(itens.get(itens.size() - 1)));
+        return new PortariaPage(itens, cursor, ultima);
+    }
+
+    /**
+     * Consulta composta. No armazenamento padrão o planejador estima quantos
+     * candidatos cada índice aplicável devolveria (número, emissor, data ou
+     * trigramas do membro), lê apenas o mais seletivo e filtra os candidatos
+     * pelos demais critérios; no colunar os critérios são avaliados
+     * diretamente sobre as colunas.
+     */
+    public List<Portaria> find(PortariaCriteria criteria) {
+        List<Integer> emissores = null;
+        if (criteria.temEmissor()) {
+            emissores = new ArrayList<>();
+            for (EmissorTypes type : EmissorTypes.values()) {
+                if (criteria.getEmissorModo().matches(type.getNome(), criteria.getEmissor())) {
+                    emissores.add(type.getIndex());
+                }
+            }
+            if (emissores.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+        // Uma cópia: o predicado guardado no cache não muda se quem chamou alterar os critérios
+        PortariaCriteria copia = criteria.copia();
+        List<Integer> emissoresAceitos = emissores;
+        QueryCache.Consulta chave = QueryCache.Consulta.of("find", emissoresAceitos, copia.getNumero(),
+                copia.temData() ? copia.primeiroDia() : null, copia.temData() ? copia.ultimoDia() : null,
+                copia.temMembro() ? copia.getMembroModo() : null, copia.temMembro() ? copia.getMembro() : null);
+        return read(Operacao.FIND, chave, copia::matches, () -> store.find(copia, emissoresAceitos));
     }
 
     private boolean search(String field, String value, boolean strict) {
@@ -274,6 +929,26 @@ public class PortariaRepository {
         }
     }
 
+    /**
+     * Deserializador de Portaria: aceita o emissor pelo nome ou pelo índice,
+     * como na leitura do snapshot ({@link PortariaJsonReader#readPortaria}).
+     */
+    private static class PortariaDeserializer extends StdDeserializer<Portaria> {
+        public PortariaDeserializer() {
+            super(Portaria.class);
+        }
+
+        @Override
+        public Portaria deserialize(com.fasterxml.jackson.core.JsonParser p,
+                                    com.fasterxml.jackson.databind.DeserializationContext ctxt) throws IOException {
+            try {
+                return PortariaJsonReader.readPortaria(p);
+            } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+                throw JsonMappingException.from(p, "Portaria inválida: " + e.getMessage(), e);
+            }
+        }
+    }
+
     /**
      * Deserializador personalizado para EmissorTypes.
      */
@@ -0,0 +1,113 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Mecanismo de armazenamento do acervo usado pelo {@link PortariaRepository}.
+ * O repositório cuida do lock, do journal, da persistência e dos eventos;
+ * o armazenamento guarda as portarias e responde às consultas.
+ *
+ * O armazenamento não compartilha objetos com quem o usa: guarda uma cópia
+ * (ou os valores) da portaria recebida e as consultas devolvem portarias
+ * que podem ser alteradas sem alterar o acervo. Assim nenhuma alteração
+ * feita fora do lock de escrita chega ao acervo ou aos índices.
+ *
+ * As escritas são serializadas pelo repositório. As leituras podem ser
+ * otimistas: um resultado inconsistente (ou uma exceção) visto durante uma
+ * escrita é descartado e a consulta é repetida com o lock.
+ *
+ * Implementações: {@link IndexedStore} (objetos e índices, o padrão) e
+ * {@link ColumnarStore} (colunas primitivas), escolhidas por
+ * gep.armazenamento=objetos|colunar.
+ */
+interface PortariaStore {
+
+    /** Cria o armazenamento indicado pela propriedade gep.armazenamento */
+    static PortariaStore create() {
+        String tipo = System.getProperty("gep.armazenamento", "objetos");
+        return "colunar".equalsIgnoreCase(tipo) ? new ColumnarStore() : new IndexedStore();
+    }
+
+    /** Verifica se a chave existe, sem criar objetos */
+    boolean contains(long chave);
+
+    /** Portaria com a chave indicada ({@link PortariaPK#chave(Portaria)}), ou null */
+    Portaria get(long chave);
+
+    /**
+     * Grava a portaria com a chave indicada.
+     * @return a portaria substituída, ou null se a chave não existia
+     */
+    Portaria put(long chave, Portaria portaria);
+
+    /**
+     * Remove a portaria com a chave indicada.
+     * @return a portaria removida, ou null se a chave não existia
+     */
+    Portaria remove(long chave);
+
+    /**
+     * Em uma carga em lote, grava as portarias cujas chaves ainda não existem.
+     * @return as portarias não gravadas porque a chave já existia
+     */
+    List<Portaria> putAllAbsent(Collection<Portaria> portarias);
+
+    void clear();
+
+    int size();
+
+    /** Início de uma carga em lote; a estrutura pode ser reconstruída só no fim */
+    void beginBulk();
+
+    /** Fim da carga em lote: o armazenamento volta a ficar consistente */
+    void endBulk();
+
+    /**
+     * Todas as portarias, na ordem de armazenamento (sem cópia, para
+     * percorrer sob o lock: as portarias não devem ser alteradas).
+     */
+    Collection<Portaria> values();
+
+    /** Todas as portarias, na ordem de armazenamento */
+    List<Portaria> findAll();
+
+    List<Portaria> findByNumero(int numero);
+
+    /** Portarias dos emissores indicados (pelo índice do emissor) */
+    List<Portaria> findByEmissores(List<Integer> emissores);
+
+    /** Portarias publicadas entre os dias (epochDay, inclusive), em ordem de publicação */
+    List<Portaria> findByPublicacao(long de, long ate);
+
+    /**
+     * Portarias cujo membro atende ao predicado (membro, termo); com
+     * predicado null, as que contêm o termo ignorando acentos e maiúsculas.
+     */
+    List<Portaria> findByMembro(String termo, BiPredicate<String, String> predicado);
+
+    /**
+     * Portarias que atendem aos critérios.
+     * @param emissores índices dos emissores aceitos, ou null sem critério de emissor
+     */
+    List<Portaria> find(PortariaCriteria criteria, List<Integer> emissores);
+
+    /** Portaria na posição indicada da ordem (0 <= posicao < size()) */
+    Portaria get(PortariaOrder ordem, int posicao);
+
+    /** Até {@code limite} portarias a partir da posição {@code offset} da ordem */
+    List<Portaria> slice(PortariaOrder ordem, int offset, int limite);
+
+    /** Até {@code limite} portarias com chave de emissor, número e ano maior que {@code depoisDe} */
+    List<Portaria> after(long depoisDe, int limite);
+
+    /** Posição (ou posição de inserção) da portaria na ordem de emissor, número e ano */
+    int positionOf(Portaria portaria);
+
+    /** Tamanho de cada estrutura, para as métricas */
+    Map<String, Integer> sizes();
+}
@@ -0,0 +1,168 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Cache dos resultados das consultas do repositório, com descarte do menos
+ * usado (LRU). O tamanho é limitado pela quantidade de consultas e pela
+ * soma das portarias guardadas em todos os resultados.
+ *
+ * Cada resultado guarda, junto com a chave da consulta (os parâmetros já
+ * normalizados), um predicado que diz se uma portaria pode fazer parte
+ * dele. Uma modificação descarta só os resultados cujo predicado aceita a
+ * portaria nova ou a anterior: incluir uma portaria de 2024 não descarta a
+ * consulta por 2023. Uma limpeza ou recarga descarta tudo.
+ *
+ * O cache guarda as suas próprias cópias das portarias e entrega cópias a
+ * cada acerto: alterar uma portaria recebida de uma consulta não altera os
+ * resultados guardados.
+ *
+ * As invalidações são chamadas sob o lock de escrita do repositório. Um
+ * resultado calculado enquanto houve alguma invalidação não é guardado,
+ * pois pode já estar desatualizado.
+ */
+class QueryCache {
+
+    /** Chave de uma consulta: o seu nome e os parâmetros normalizados */
+    record Consulta(String nome, List<Object> parametros) {
+        static Consulta of(String nome, Object... parametros) {
+            return new Consulta(nome, Arrays.asList(parametros));
+        }
+    }
+
+    private static final class Entrada {
+        final Portaria[] resultado;
+        final Predicate<Portaria> afetada;
+
+        Entrada(Portaria[] resultado, Predicate<Portaria> afetada) {
+            this.resultado = resultado;
+            this.afetada = afetada;
+        }
+    }
+
+    private final int maxConsultas;
+    private final int maxPortarias;
+    private final LinkedHashMap<Consulta, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private int portarias;
+    private long geracao;
+    private long acertos;
+    private long falhas;
+    private long invalidacoes;
+    private long descartes;
+
+    /**
+     * @param maxConsultas quantidade máxima de resultados guardados (0 desliga o cache)
+     * @param maxPortarias soma máxima das portarias dos resultados guardados
+     */
+    QueryCache(int maxConsultas, int maxPortarias) {
+        this.maxConsultas = maxConsultas;
+        this.maxPortarias = maxPortarias;
+    }
+
+    /**
+     * Resultado da consulta: guardado, se houver; senão calculado e guardado.
+     * Quem chama recebe sempre uma lista nova, com portarias que pode alterar.
+     * @param afetada verifica se uma portaria pode fazer parte do resultado
+     */
+    List<Portaria> get(Consulta consulta, Predicate<Portaria> afetada, Supplier<List<Portaria>> calculo) {
+        if (maxConsultas <= 0) {
+            return calculo.get();
+        }
+        long inicio;
+        synchronized (this) {
+            Entrada entrada = entradas.get(consulta);
+            if (entrada != null) {
+                acertos++;
+                return copias(entrada.resultado);
+            }
+            falhas++;
+            inicio = geracao;
+        }
+        List<Portaria> result = calculo.get();
+        if (result.size() <= maxPortarias) {
+            Portaria[] resultado = new Portaria[result.size()];
+            for (int i = 0; i < resultado.length; i++) {
+                resultado[i] = new Portaria(result.get(i));
+            }
+            synchronized (this) {
+                if (geracao == inicio) {
+                    guardar(consulta, new Entrada(resultado, afetada));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<Portaria> copias(Portaria[] resultado) {
+        List<Portaria> result = new ArrayList<>(resultado.length);
+        for (Portaria portaria : resultado) {
+            result.add(new Portaria(portaria));
+        }
+        return result;
+    }
+
+    private void guardar(Consulta consulta, Entrada entrada) {
+        Entrada anterior = entradas.put(consulta, entrada);
+        if (anterior != null) {
+            portarias -= anterior.resultado.length;
+        }
+        portarias += entrada.resultado.length;
+        Iterator<Entrada> menosUsadas = entradas.values().iterator();
+        while (entradas.size() > maxConsultas || portarias > maxPortarias) {
+            portarias -= menosUsadas.next().resultado.length;
+            menosUsadas.remove();
+            descartes++;
+        }
+    }
+
+    /** Descarta os resultados que podem conter a portaria nova ou a anterior (ambas podem ser null) */
+    synchronized void invalidar(Portaria portaria, Portaria anterior) {
+        geracao++;
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            Entrada entrada = it.next();
+            if ((portaria != null && entrada.afetada.test(portaria))
+                    || (anterior != null && entrada.afetada.test(anterior))) {
+                portarias -= entrada.resultado.length;
+                it.remove();
+                invalidacoes++;
+            }
+        }
+    }
+
+    /** Descarta todos os resultados (limpeza ou recarga do acervo) */
+    synchronized void clear() {
+        geracao++;
+        invalidacoes += entradas.size();
+        entradas.clear();
+        portarias = 0;
+    }
+
+    /** Acertos, falhas, invalidações, descartes por tamanho e ocupação atual */
+    synchronized Map<String, Long> estatisticas() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("acertos", acertos);
+        result.put("falhas", falhas);
+        result.put("invalidacoes", invalidacoes);
+        result.put("descartes", descartes);
+        result.put("consultas", (long) entradas.size());
+        result.put("portarias", (long) portarias);
+        return result;
+    }
+
+    synchronized void zerarEstatisticas() {
+        acertos = 0;
+        falhas = 0;
+        invalidacoes = 0;
+        descartes = 0;
+    }
+}
@@ -0,0 +1,93 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.ToLongFunction;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Índice ordenado por uma chave numérica (por exemplo, o dia da publicação).
+ * Consultas por intervalo custam O(log n + k).
+ *
+ * O valor indexado de cada chave é guardado à parte, para que a remoção
+ * funcione mesmo que a portaria tenha sido alterada depois de indexada.
+ * As estruturas são concorrentes: a escrita é serializada pelo repositório
+ * e a leitura pode ocorrer em paralelo.
+ */
+class SortedIndex implements PortariaIndex {
+
+    private final ToLongFunction<Portaria> extrator;
+    private final ConcurrentSkipListMap<Long, Map<Long, Portaria>> arvore = new ConcurrentSkipListMap<>();
+    private final Map<Long, Long> valores = new ConcurrentHashMap<>();
+
+    SortedIndex(ToLongFunction<Portaria> extrator) {
+        this.extrator = extrator;
+    }
+
+    @Override
+    public void add(long chave, Portaria portaria) {
+        remove(chave);
+        long valor = extrator.applyAsLong(portaria);
+        valores.put(chave, valor);
+        arvore.computeIfAbsent(valor, v -> new ConcurrentHashMap<>(4)).put(chave, portaria);
+    }
+
+    @Override
+    public void remove(long chave) {
+        Long valor = valores.remove(chave);
+        if (valor == null) {
+            return;
+        }
+        Map<Long, Portaria> grupo = arvore.get(valor);
+        grupo.remove(chave);
+        if (grupo.isEmpty()) {
+            arvore.remove(valor);
+        }
+    }
+
+    @Override
+    public void clear() {
+        arvore.clear();
+        valores.clear();
+    }
+
+    @Override
+    public int size() {
+        return arvore.size();
+    }
+
+    /** Portarias com valor no intervalo [de, ate], em ordem crescente */
+    List<Portaria> range(long de, long ate) {
+        List<Portaria> result = new ArrayList<>();
+        if (de > ate) {
+            return result;
+        }
+        for (Map<Long, Portaria> grupo : arvore.subMap(de, true, ate, true).values()) {
+            result.addAll(grupo.values());
+        }
+        return result;
+    }
+
+    /**
+     * Quantidade de portarias no intervalo [de, ate].
+     * A contagem para assim que passar do limite, para que estimar um
+     * intervalo grande não custe mais que a alternativa.
+     */
+    int count(long de, long ate, int limite) {
+        if (de > ate) {
+            return 0;
+        }
+        int total = 0;
+        for (Map<Long, Portaria> grupo : arvore.subMap(de, true, ate, true).values()) {
+            total += grupo.size();
+            if (total > limite) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,211 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Visão ordenada do acervo mantida em arrays primitivos: as chaves de
+ * ordenação (primária e de desempate) são calculadas uma vez na indexação
+ * e guardadas em dois long[] paralelos ao array de portarias.
+ *
+ * Inclusões e exclusões fazem uma busca binária e deslocam o trecho
+ * seguinte do array (System.arraycopy), sem reordenar nada. O acesso por
+ * posição é O(1), então páginas por offset custam O(k) e a posição de uma
+ * portaria custa O(log n). Em cargas em lote ({@link #beginBulk()}) os
+ * arrays são reconstruídos uma única vez, com uma ordenação, no final.
+ *
+ * A escrita é serializada pelo repositório. Uma leitura otimista que
+ * coincida com uma escrita pode ver os arrays inconsistentes; o
+ * repositório descarta esse resultado e repete a leitura com o lock.
+ */
+class SortedView implements PortariaIndex {
+
+    private static final class Entrada {
+        final long primaria;
+        final long secundaria;
+        final Portaria portaria;
+
+        Entrada(long primaria, long secundaria, Portaria portaria) {
+            this.primaria = primaria;
+            this.secundaria = secundaria;
+            this.portaria = portaria;
+        }
+    }
+
+    private static final Comparator<Entrada> ORDEM = (a, b) -> {
+        int c = Long.compare(a.primaria, b.primaria);
+        return c != 0 ? c : Long.compare(a.secundaria, b.secundaria);
+    };
+
+    private final ToLongFunction<Portaria> primaria;
+    private final ToLongFunction<Portaria> secundaria;
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    private long[] primarias = new long[16];
+    private long[] secundarias = new long[16];
+    private Portaria[] itens = new Portaria[16];
+    private int tamanho;
+    private boolean emLote;
+
+    /**
+     * @param primaria chave de ordenação
+     * @param secundaria chave de desempate; o par de chaves deve ser único por portaria
+     */
+    SortedView(ToLongFunction<Portaria> primaria, ToLongFunction<Portaria> secundaria) {
+        this.primaria = primaria;
+        this.secundaria = secundaria;
+    }
+
+    @Override
+    public void add(long chave, Portaria portaria) {
+        Entrada nova = new Entrada(primaria.applyAsLong(portaria), secundaria.applyAsLong(portaria), portaria);
+        Entrada antiga = entradas.put(chave, nova);
+        if (emLote) {
+            return;
+        }
+        if (antiga != null) {
+            excluir(antiga);
+        }
+        inserir(nova);
+    }
+
+    @Override
+    public void remove(long chave) {
+        Entrada antiga = entradas.remove(chave);
+        if (antiga != null && !emLote) {
+            excluir(antiga);
+        }
+    }
+
+    @Override
+    public void clear() {
+        entradas.clear();
+        primarias = new long[16];
+        secundarias = new long[16];
+        itens = new Portaria[16];
+        tamanho = 0;
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+
+    @Override
+    public void beginBulk() {
+        emLote = true;
+    }
+
+    @Override
+    public void endBulk() {
+        emLote = false;
+        Entrada[] todas = entradas.values().toArray(new Entrada[0]);
+        Arrays.parallelSort(todas, ORDEM);
+        int capacidade = Math.max(16, todas.length + (todas.length >> 3));
+        long[] novasPrimarias = new long[capacidade];
+        long[] novasSecundarias = new long[capacidade];
+        Portaria[] novosItens = new Portaria[capacidade];
+        for (int i = 0; i < todas.length; i++) {
+            novasPrimarias[i] = todas[i].primaria;
+            novasSecundarias[i] = todas[i].secundaria;
+            novosItens[i] = todas[i].portaria;
+        }
+        primarias = novasPrimarias;
+        secundarias = novasSecundarias;
+        itens = novosItens;
+        tamanho = todas.length;
+    }
+
+    private void inserir(Entrada entrada) {
+        if (tamanho == itens.length) {
+            int capacidade = tamanho + (tamanho >> 1);
+            primarias = Arrays.copyOf(primarias, capacidade);
+            secundarias = Arrays.copyOf(secundarias, capacidade);
+            itens = Arrays.copyOf(itens, capacidade);
+        }
+        int i = lowerBound(entrada.primaria, entrada.secundaria);
+        int seguintes = tamanho - i;
+        System.arraycopy(primarias, i, primarias, i + 1, seguintes);
+        System.arraycopy(secundarias, i, secundarias, i + 1, seguintes);
+        System.arraycopy(itens, i, itens, i + 1, seguintes);
+        primarias[i] = entrada.primaria;
+        secundarias[i] = entrada.secundaria;
+        itens[i] = entrada.portaria;
+        tamanho++;
+    }
+
+    private void excluir(Entrada entrada) {
+        int i = lowerBound(entrada.primaria, entrada.secundaria);
+        if (i == tamanho || primarias[i] != entrada.primaria || secundarias[i] != entrada.secundaria) {
+            return;
+        }
+        int seguintes = tamanho - i - 1;
+        System.arraycopy(primarias, i + 1, primarias, i, seguintes);
+        System.arraycopy(secundarias, i + 1, secundarias, i, seguintes);
+        System.arraycopy(itens, i + 1, itens, i, seguintes);
+        tamanho--;
+        itens[tamanho] = null;
+    }
+
+    /** Primeira posição cujas chaves são maiores ou iguais a (p, s) */
+    private int lowerBound(long p, long s) {
+        int baixo = 0;
+        int alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            long mp = primarias[meio];
+            if (mp < p || (mp == p && secundarias[meio] < s)) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /**
+     * Posição da portaria na ordem da visão; se ela não estiver na visão,
+     * a posição em que estaria.
+     */
+    int positionOf(Portaria portaria) {
+        return lowerBound(primaria.applyAsLong(portaria), secundaria.applyAsLong(portaria));
+    }
+
+    /** Chave primária de ordenação da portaria */
+    long keyOf(Portaria portaria) {
+        return primaria.applyAsLong(portaria);
+    }
+
+    /** Até {@code limite} portarias a partir da posição {@code offset} */
+    List<Portaria> slice(int offset, int limite) {
+        int fim = (int) Math.min((long) offset + limite, tamanho);
+        if (offset >= fim) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(itens).subList(offset, fim));
+    }
+
+    /** Até {@code limite} portarias com chave primária maior que {@code depoisDe} */
+    List<Portaria> after(long depoisDe, int limite) {
+        if (depoisDe == Long.MAX_VALUE) {
+            return new ArrayList<>();
+        }
+        return slice(lowerBound(depoisDe + 1, Long.MIN_VALUE), limite);
+    }
+
+    /** Portaria na posição indicada da ordem (0 <= posicao < size()) */
+    Portaria get(int posicao) {
+        return itens[posicao];
+    }
+
+    /** Todas as portarias, em ordem */
+    List<Portaria> toList() {
+        return slice(0, tamanho);
+    }
+}
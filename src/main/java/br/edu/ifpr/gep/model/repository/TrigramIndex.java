@@ -0,0 +1,196 @@
+package br.edu.ifpr.gep.model.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.utils.EmissorTypes;
+
+/**
+ * Índice invertido de trigramas sobre um texto normalizado da portaria
+ * (sem acentos e em minúsculas, ver {@link EmissorTypes#normalize(String)}).
+ *
+ * Uma busca parcial usa a lista de trigramas mais curta do termo para
+ * reduzir os candidatos, que depois são verificados contra o texto completo.
+ * Termos com menos de três caracteres percorrem todas as entradas.
+ * As estruturas são concorrentes: a escrita é serializada pelo repositório
+ * e a leitura pode ocorrer em paralelo. Em cargas em lote as listas de
+ * trigramas são montadas uma única vez, em {@link #endBulk()}.
+ */
+class TrigramIndex implements PortariaIndex {
+
+    private static final class Entrada {
+        final Portaria portaria;
+        final String normalizado;
+        final long[] trigramas;
+
+        Entrada(Portaria portaria, String normalizado, long[] trigramas) {
+            this.portaria = portaria;
+            this.normalizado = normalizado;
+            this.trigramas = trigramas;
+        }
+    }
+
+    private final Function<Portaria, String> extrator;
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> postings = new ConcurrentHashMap<>();
+    private boolean emLote;
+
+    TrigramIndex(Function<Portaria, String> extrator) {
+        this.extrator = extrator;
+    }
+
+    @Override
+    public void add(long chave, Portaria portaria) {
+        remove(chave);
+        String texto = extrator.apply(portaria);
+        if (texto == null) {
+            return;
+        }
+        String normalizado = EmissorTypes.normalize(texto);
+        long[] trigramas = trigramas(normalizado);
+        entradas.put(chave, new Entrada(portaria, normalizado, trigramas));
+        if (emLote) {
+            return;
+        }
+        for (long trigrama : trigramas) {
+            postings.computeIfAbsent(trigrama, t -> ConcurrentHashMap.newKeySet()).add(chave);
+        }
+    }
+
+    @Override
+    public void remove(long chave) {
+        Entrada entrada = entradas.remove(chave);
+        if (entrada == null || emLote) {
+            return;
+        }
+        for (long trigrama : entrada.trigramas) {
+            Set<Long> posting = postings.get(trigrama);
+            posting.remove(chave);
+            if (posting.isEmpty()) {
+                postings.remove(trigrama);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        entradas.clear();
+        postings.clear();
+    }
+
+    @Override
+    public int size() {
+        return postings.size();
+    }
+
+    @Override
+    public void beginBulk() {
+        emLote = true;
+    }
+
+    /** Reconstrói as listas de trigramas a partir das entradas, já com o tamanho final */
+    @Override
+    public void endBulk() {
+        emLote = false;
+        Map<Long, List<Long>> agrupados = new HashMap<>();
+        for (Map.Entry<Long, Entrada> entrada : entradas.entrySet()) {
+            for (long trigrama : entrada.getValue().trigramas) {
+                agrupados.computeIfAbsent(trigrama, t -> new ArrayList<>()).add(entrada.getKey());
+            }
+        }
+        postings.clear();
+        agrupados.entrySet().parallelStream().forEach(grupo -> {
+            Set<Long> posting = ConcurrentHashMap.newKeySet(grupo.getValue().size());
+            posting.addAll(grupo.getValue());
+            postings.put(grupo.getKey(), posting);
+        });
+    }
+
+    /** Portarias cujo texto normalizado contém o termo normalizado */
+    List<Portaria> searchPartial(String termo) {
+        String normalizado = EmissorTypes.normalize(termo);
+        return collect(normalizado, entrada -> entrada.normalizado.contains(normalizado));
+    }
+
+    /**
+     * Portarias cujo texto original atende ao predicado.
+     * Os candidatos são os que contêm o termo normalizado, então o predicado
+     * deve implicar essa condição (igualdade ou contenção, com ou sem caixa).
+     */
+    List<Portaria> search(String termo, BiPredicate<String, String> predicado) {
+        String normalizado = EmissorTypes.normalize(termo);
+        return collect(normalizado, entrada -> predicado.test(extrator.apply(entrada.portaria), termo));
+    }
+
+    /** Estimativa do número de candidatos para o termo (menor lista de trigramas) */
+    int estimate(String termo) {
+        String normalizado = EmissorTypes.normalize(termo);
+        if (normalizado.length() < 3) {
+            return entradas.size();
+        }
+        int menor = Integer.MAX_VALUE;
+        for (long trigrama : trigramas(normalizado)) {
+            Set<Long> posting = postings.get(trigrama);
+            menor = Math.min(menor, posting == null ? 0 : posting.size());
+        }
+        return menor;
+    }
+
+    private List<Portaria> collect(String normalizado, Predicate<Entrada> verificar) {
+        List<Portaria> result = new ArrayList<>();
+        if (normalizado.length() < 3) {
+            for (Entrada entrada : entradas.values()) {
+                if (verificar.test(entrada)) {
+                    result.add(entrada.portaria);
+                }
+            }
+            return result;
+        }
+
+        Set<Long> menor = null;
+        for (long trigrama : trigramas(normalizado)) {
+            Set<Long> posting = postings.get(trigrama);
+            if (posting == null) {
+                return result; // algum trigrama do termo não ocorre em nenhum nome
+            }
+            if (menor == null || posting.size() < menor.size()) {
+                menor = posting;
+            }
+        }
+        for (long chave : menor) {
+            Entrada entrada = entradas.get(chave);
+            if (entrada != null && verificar.test(entrada)) {
+                result.add(entrada.portaria);
+            }
+        }
+        return result;
+    }
+
+    /** Trigramas distintos do texto, cada um empacotado em um long (3 x 16 bits) */
+    private static long[] trigramas(String texto) {
+        if (texto.length() < 3) {
+            return new long[0];
+        }
+        long[] result = new long[texto.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2);
+        }
+        Arrays.sort(result);
+        int distintos = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[distintos++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distintos);
+    }
+}
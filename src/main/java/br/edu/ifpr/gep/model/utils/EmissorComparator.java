@@ -7,6 +7,6 @@ import br.edu.ifpr.gep.model.Portaria;
 public class EmissorComparator implements Comparator<Portaria> {
 	@Override
 	public int compare(Portaria o1, Portaria o2) {
-		return o1.getEmissor().compareTo(o2.getEmissor());
+		return Integer.compare(o1.getEmissor().getIndex(), o2.getEmissor().getIndex());
 	}
 }
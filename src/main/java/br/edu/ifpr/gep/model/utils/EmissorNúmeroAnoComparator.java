@@ -7,14 +7,14 @@ import br.edu.ifpr.gep.model.Portaria;
 public class EmissorNúmeroAnoComparator implements Comparator<Portaria> {
     @Override
     public int compare(Portaria o1, Portaria o2) {
-        // 1. comparar o emissor
-        int emissorComp = o1.getEmissor().compareTo(o2.getEmissor());
+        // 1. comparar o emissor (pelo índice)
+        int emissorComp = Integer.compare(o1.getEmissor().getIndex(), o2.getEmissor().getIndex());
         if (emissorComp != 0) {
             return emissorComp;
         }
 
         // 2. se emissores iguais, compara números
-        int numeroComp = o1.getNumero().compareTo(o2.getNumero());
+        int numeroComp = Integer.compare(o1.getNumero(), o2.getNumero());
         if (numeroComp != 0) {
             return numeroComp;
         }
@@ -22,4 +22,21 @@ public class EmissorNúmeroAnoComparator implements Comparator<Portaria> {
         // 3. se nomes e números são iguais, compara anos
         return Integer.compare(o1.getPublicacao().getYear(), o2.getPublicacao().getYear());
     }
-}
\ No newline at end of file
+
+    /**
+     * Chave de ordenação pré-calculada, na mesma ordem deste comparador:
+     * índice do emissor (15 bits), número (32 bits) e ano (16 bits, de 0 a
+     * 65535) empacotados em um long. Chaves diferentes para chaves de
+     * portaria diferentes.
+     */
+    public static long chave(Portaria portaria) {
+        return chave(portaria.getEmissor().getIndex(), portaria.getNumero(), portaria.getPublicacao().getYear());
+    }
+
+    /** Chave de ordenação a partir do índice do emissor, do número e do ano */
+    public static long chave(int emissor, int numero, int ano) {
+        long numeroSemSinal = (long) numero - Integer.MIN_VALUE;
+        long anoLimitado = Math.max(0, Math.min(0xFFFF, ano));
+        return (long) emissor << 48 | numeroSemSinal << 16 | anoLimitado;
+    }
+}
@@ -4,92 +4,195 @@ package br.edu.ifpr.gep.model.utils;
  * Classe que representa os emissores de portarias do IFPR.
  * Cada emissor possui um índice numérico e um nome amigável para exibição.
  * Suporte a adição dinâmica de novos emissores.
+ *
+ * As buscas por índice e por nome usam mapas (O(1)); o nome normalizado de
+ * cada emissor é calculado uma única vez. Emissores adicionados com
+ * {@link #add(String)} são gravados em emissores.json (no diretório da
+ * propriedade gep.dados, como os dados do repositório) e recarregados na
+ * próxima execução. A ordem natural dos emissores é a do índice.
  */
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.Normalizer;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-public class EmissorTypes {
-    private static final List<EmissorTypes> VALUES = new ArrayList<>();
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+public class EmissorTypes implements Comparable<EmissorTypes> {
+    private static final List<EmissorTypes> VALUES = new CopyOnWriteArrayList<>();
+    private static final Map<Integer, EmissorTypes> BY_INDEX = new ConcurrentHashMap<>();
+    private static final Map<String, EmissorTypes> BY_NAME = new ConcurrentHashMap<>();
+    private static final Map<String, EmissorTypes> BY_EXACT_NAME = new ConcurrentHashMap<>();
+    private static final Pattern MARKS = Pattern.compile("\\p{M}");
+    private static final File DATA_FILE = new File(System.getProperty("gep.dados", "."), "emissores.json");
+    /** Maior índice aceito: a chave das portarias guarda o emissor em 15 bits e reserva 0x7FFF */
+    private static final int INDICE_MAXIMO = 0x7FFE;
+    private static final int PREDEFINIDOS;
 
     static {
         // Inicialização com os emissores pré-definidos
-        VALUES.add(new EmissorTypes(1, "Reitoria"));
-        VALUES.add(new EmissorTypes(2, "Pró-Reitoria de Ensino"));
-        VALUES.add(new EmissorTypes(3, "Pró-Reitoria de Administração"));
-        VALUES.add(new EmissorTypes(4, "Pró-Reitoria de Extensão, Pesquisa, Pós-Graduação e Inovação"));
-        VALUES.add(new EmissorTypes(5, "Pró-Reitoria de Pessoas"));
-        VALUES.add(new EmissorTypes(6, "Pró-Reitoria de Planejamento e Desenvolvimento Institucional"));
-        VALUES.add(new EmissorTypes(7, "Campus Arapongas (DG)"));
-        VALUES.add(new EmissorTypes(0, "Campus Assis Chateaubriand (DG)"));
-        VALUES.add(new EmissorTypes(8, "Campus Astorga (DG)"));
-        VALUES.add(new EmissorTypes(9, "Campus Barracão (DG)"));
-        VALUES.add(new EmissorTypes(10, "Campus Campo Largo (DG)"));
-        VALUES.add(new EmissorTypes(11, "Campus Capanema (DG)"));
-        VALUES.add(new EmissorTypes(12, "Campus Cascavel (DG)"));
-        VALUES.add(new EmissorTypes(13, "Campus Colombo (DG)"));
-        VALUES.add(new EmissorTypes(14, "Campus Coronel Vivida (DG)"));
-        VALUES.add(new EmissorTypes(15, "Campus Curitiba (DG)"));
-        VALUES.add(new EmissorTypes(16, "Campus Foz do Iguaçu (DG)"));
-        VALUES.add(new EmissorTypes(17, "Campus Goioerê (DG)"));
-        VALUES.add(new EmissorTypes(18, "Campus Irati (DG)"));
-        VALUES.add(new EmissorTypes(19, "Campus Ivaiporã (DG)"));
-        VALUES.add(new EmissorTypes(20, "Campus Jacarezinho (DG)"));
-        VALUES.add(new EmissorTypes(21, "Campus Jaguariaíva (DG)"));
-        VALUES.add(new EmissorTypes(22, "Campus Londrina (DG)"));
-        VALUES.add(new EmissorTypes(23, "Campus Palmas (DG)"));
-        VALUES.add(new EmissorTypes(24, "Campus Paranaguá (DG)"));
-        VALUES.add(new EmissorTypes(25, "Campus Paranavaí (DG)"));
-        VALUES.add(new EmissorTypes(26, "Campus Pinhais (DG)"));
-        VALUES.add(new EmissorTypes(27, "Campus Pitanga (DG)"));
-        VALUES.add(new EmissorTypes(28, "Campus Ponta Grossa (DG)"));
-        VALUES.add(new EmissorTypes(29, "Campus Quedas do Iguaçu (DG)"));
-        VALUES.add(new EmissorTypes(30, "Campus Telêmaco Borba (DG)"));
-        VALUES.add(new EmissorTypes(31, "Campus Toledo (DG)"));
-        VALUES.add(new EmissorTypes(32, "Campus Umuarama (DG)"));
-        VALUES.add(new EmissorTypes(33, "Campus União da Vitória (DG)"));
+        register(new EmissorTypes(1, "Reitoria"));
+        register(new EmissorTypes(2, "Pró-Reitoria de Ensino"));
+        register(new EmissorTypes(3, "Pró-Reitoria de Administração"));
+        register(new EmissorTypes(4, "Pró-Reitoria de Extensão, Pesquisa, Pós-Graduação e Inovação"));
+        register(new EmissorTypes(5, "Pró-Reitoria de Pessoas"));
+        register(new EmissorTypes(6, "Pró-Reitoria de Planejamento e Desenvolvimento Institucional"));
+        register(new EmissorTypes(7, "Campus Arapongas (DG)"));
+        register(new EmissorTypes(0, "Campus Assis Chateaubriand (DG)"));
+        register(new EmissorTypes(8, "Campus Astorga (DG)"));
+        register(new EmissorTypes(9, "Campus Barracão (DG)"));
+        register(new EmissorTypes(10, "Campus Campo Largo (DG)"));
+        register(new EmissorTypes(11, "Campus Capanema (DG)"));
+        register(new EmissorTypes(12, "Campus Cascavel (DG)"));
+        register(new EmissorTypes(13, "Campus Colombo (DG)"));
+        register(new EmissorTypes(14, "Campus Coronel Vivida (DG)"));
+        register(new EmissorTypes(15, "Campus Curitiba (DG)"));
+        register(new EmissorTypes(16, "Campus Foz do Iguaçu (DG)"));
+        register(new EmissorTypes(17, "Campus Goioerê (DG)"));
+        register(new EmissorTypes(18, "Campus Irati (DG)"));
+        register(new EmissorTypes(19, "Campus Ivaiporã (DG)"));
+        register(new EmissorTypes(20, "Campus Jacarezinho (DG)"));
+        register(new EmissorTypes(21, "Campus Jaguariaíva (DG)"));
+        register(new EmissorTypes(22, "Campus Londrina (DG)"));
+        register(new EmissorTypes(23, "Campus Palmas (DG)"));
+        register(new EmissorTypes(24, "Campus Paranaguá (DG)"));
+        register(new EmissorTypes(25, "Campus Paranavaí (DG)"));
+        register(new EmissorTypes(26, "Campus Pinhais (DG)"));
+        register(new EmissorTypes(27, "Campus Pitanga (DG)"));
+        register(new EmissorTypes(28, "Campus Ponta Grossa (DG)"));
+        register(new EmissorTypes(29, "Campus Quedas do Iguaçu (DG)"));
+        register(new EmissorTypes(30, "Campus Telêmaco Borba (DG)"));
+        register(new EmissorTypes(31, "Campus Toledo (DG)"));
+        register(new EmissorTypes(32, "Campus Umuarama (DG)"));
+        register(new EmissorTypes(33, "Campus União da Vitória (DG)"));
+        PREDEFINIDOS = VALUES.size();
+
+        // Emissores adicionados em execuções anteriores
+        load();
     }
 
     private final int index;
     private final String nome;
+    private final String normalizado;
 
     private EmissorTypes(int index, String nome) {
         this.index = index;
         this.nome = nome;
+        this.normalizado = normalize(nome);
+    }
+
+    private static void register(EmissorTypes type) {
+        VALUES.add(type);
+        BY_INDEX.put(type.index, type);
+        BY_NAME.putIfAbsent(type.normalizado, type);
+        BY_EXACT_NAME.putIfAbsent(type.nome, type);
     }
 
-    public static EmissorTypes add(String nome) {
+    /**
+     * Adiciona um novo emissor com o próximo índice livre. A lista de
+     * emissores adicionados é gravada antes: o emissor só passa a existir
+     * se a gravação der certo.
+     * @throws IllegalArgumentException se o nome for vazio ou já existir, ou
+     *         se não houver mais índices livres
+     * @throws IOException se emissores.json não pôde ser gravado
+     */
+    public static synchronized EmissorTypes add(String nome) throws IOException {
         if (nome == null || nome.trim().isEmpty()) {
             throw new IllegalArgumentException("Nome do emissor não pode ser vazio.");
         }
+        if (fromName(nome) != null) {
+            throw new IllegalArgumentException("Emissor já cadastrado: " + nome.trim());
+        }
         int nextIndex = VALUES.stream()
                 .mapToInt(e -> e.index)
                 .max()
                 .orElse(0) + 1;
+        if (nextIndex > INDICE_MAXIMO) {
+            throw new IllegalArgumentException("Limite de emissores atingido (índice " + INDICE_MAXIMO + ").");
+        }
         EmissorTypes newEmissor = new EmissorTypes(nextIndex, nome.trim());
-        VALUES.add(newEmissor);
+        save(newEmissor);
+        register(newEmissor);
         return newEmissor;
     }
 
-    private static String normalize(String input) {
+    /** Carrega os emissores adicionados dinamicamente (emissores.json) */
+    private static void load() {
+        if (!DATA_FILE.exists()) {
+            return;
+        }
+        try {
+            List<Map<String, Object>> lidos = new ObjectMapper().readValue(DATA_FILE,
+                    new TypeReference<List<Map<String, Object>>>() {});
+            for (Map<String, Object> item : lidos) {
+                int index = ((Number) item.get("index")).intValue();
+                String nome = (String) item.get("nome");
+                if (BY_INDEX.containsKey(index) || index < 0 || index > INDICE_MAXIMO || nome == null) {
+                    System.err.println("Emissor ignorado em " + DATA_FILE.getName() + ": " + item);
+                    continue;
+                }
+                register(new EmissorTypes(index, nome));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Erro ao carregar " + DATA_FILE.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Grava os emissores adicionados dinamicamente, mais o novo (os
+     * pré-definidos não são gravados)
+     */
+    private static void save(EmissorTypes novo) throws IOException {
+        List<EmissorTypes> tipos = new ArrayList<>(VALUES.subList(PREDEFINIDOS, VALUES.size()));
+        tipos.add(novo);
+        List<Map<String, Object>> adicionados = new ArrayList<>();
+        for (EmissorTypes type : tipos) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("index", type.index);
+            item.put("nome", type.nome);
+            adicionados.add(item);
+        }
+        File tmpFile = new File(DATA_FILE.getPath() + ".tmp");
+        try {
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(tmpFile, adicionados);
+            Files.move(tmpFile.toPath(), DATA_FILE.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IOException("Erro ao salvar " + DATA_FILE.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Normaliza um texto para comparação: remove acentos (NFD sem as marcas
+     * combinantes), converte para minúsculas e remove espaços das pontas.
+     */
+    public static String normalize(String input) {
         if (input == null) return "";
         String normalized = Normalizer.normalize(input, Normalizer.Form.NFD);
-        normalized = normalized.replaceAll("\\p{M}", "");
+        normalized = MARKS.matcher(normalized).replaceAll("");
         return normalized.toLowerCase().trim();
     }
 
+    /**
+     * Localiza um emissor pelo nome, ignorando acentos e maiúsculas.
+     * O nome exato de um emissor é resolvido sem normalização.
+     */
     public static EmissorTypes fromName(String name) {
-        if (name == null || name.trim().isEmpty()) return null;
-        String normName = normalize(name);
-        for (EmissorTypes type : values()) {
-            String normType = normalize(type.nome);
-            if (normType.equals(normName)) {
-                return type;
-            }
-        }
-        return null;
+        if (name == null) return null;
+        EmissorTypes exato = BY_EXACT_NAME.get(name);
+        if (exato != null) return exato;
+        if (name.trim().isEmpty()) return null;
+        return BY_NAME.get(normalize(name));
     }
 
     public static EmissorTypes valueOf(String upper) {
@@ -113,10 +216,11 @@ public class EmissorTypes {
      * @throws IllegalArgumentException se não houver emissor associado
      */
     public static EmissorTypes fromValue(int index) {
-        return VALUES.stream()
-                .filter(type -> type.index == index)
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Nenhum emissor para índice " + index));
+        EmissorTypes type = BY_INDEX.get(index);
+        if (type == null) {
+            throw new IllegalArgumentException("Nenhum emissor para índice " + index);
+        }
+        return type;
     }
 
     public static List<EmissorTypes> values() {
@@ -133,7 +237,9 @@ public class EmissorTypes {
         return fromName(value);
     }
 
+    /** Ordena os emissores pelo índice numérico */
+    @Override
     public int compareTo(EmissorTypes emissor) {
-        return 0;
+        return Integer.compare(index, emissor.index);
     }
 }
\ No newline at end of file
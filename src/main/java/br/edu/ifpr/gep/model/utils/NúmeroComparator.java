@@ -7,13 +7,6 @@ import br.edu.ifpr.gep.model.Portaria;
 public class NúmeroComparator implements Comparator<Portaria> {
 	@Override
 	public int compare(Portaria o1, Portaria o2) {
-		int o1Número = o1.getNumero().intValue();
-		int o2Número = o2.getNumero().intValue();
-
-		if (o1Número < o2Número) return -1;
-		else
-			if (o1Número > o2Número) return 1;
-
-		return 0;
+		return Integer.compare(o1.getNumero(), o2.getNumero());
 	}
 }
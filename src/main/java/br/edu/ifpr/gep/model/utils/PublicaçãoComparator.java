@@ -7,6 +7,11 @@ import br.edu.ifpr.gep.model.Portaria;
 public class PublicaçãoComparator implements Comparator<Portaria> {
 	@Override
 	public int compare(Portaria o1, Portaria o2) {
-		return o1.getPublicacao().compareTo(o2.getPublicacao());
+		return Long.compare(chave(o1), chave(o2));
+	}
+
+	/** Chave de ordenação pré-calculada: o dia da publicação (epochDay) */
+	public static long chave(Portaria portaria) {
+		return portaria.getPublicacao().toEpochDay();
 	}
 }
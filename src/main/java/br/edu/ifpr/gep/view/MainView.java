@@ -1,15 +1,24 @@
 package br.edu.ifpr.gep.view;
 
 import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.repository.PortariaEvent;
+import br.edu.ifpr.gep.model.repository.PortariaListener;
+import br.edu.ifpr.gep.model.repository.PortariaOrder;
+import br.edu.ifpr.gep.model.repository.PortariaPK;
 import br.edu.ifpr.gep.model.repository.PortariaRepository;
 import br.edu.ifpr.gep.model.utils.EmissorTypes;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.IntegerPropertyBase;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -18,6 +27,7 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
@@ -26,15 +36,25 @@ import javafx.scene.control.TabPane;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.cell.TextFieldTableCell;
 import javafx.scene.layout.AnchorPane;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.util.Callback;
+import java.io.File;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class MainView implements Initializable {
     private PortariaRepository repo = PortariaRepository.INSTANCE;
@@ -50,6 +70,7 @@ public class MainView implements Initializable {
     @FXML private Button incluirButton;
     @FXML private Button excluirButton;
     @FXML private Button excluirTodosButton;
+    @FXML private Button exportarButton;
     @FXML private Button voltarButton;
     @FXML private Button limparFiltroButton;
     @FXML private Button portariaButton;
@@ -79,6 +100,22 @@ public class MainView implements Initializable {
     @FXML private TableColumn<EmissorTypes, String> colEmissorNome;
     @FXML private Button addEmissorButton;
     private final ObservableList<Portaria> dados = FXCollections.observableArrayList();
+    // Posição de cada portaria de dados pela chave, para aplicar os eventos sem percorrer a lista;
+    // refeito só depois de uma exclusão no meio, de uma ordenação ou de uma nova consulta
+    private final Map<Long, Integer> posicoes = new HashMap<>();
+    private boolean posicoesValidas;
+    private PortariaPagedList todas; // acervo completo, lido por páginas
+    // Consultas e modificações rodam em threads virtuais, fora da thread do JavaFX
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ProgressIndicator progresso = new ProgressIndicator();
+    private Task<?> consultaAtual; // consulta em andamento (cancelada por uma nova)
+    private int emAndamento;
+    // Critério da consulta exibida (null quando a tabela mostra o acervo completo)
+    private Predicate<Portaria> filtro;
+    private Runnable repetirConsulta;
+    // Modificações do repositório chegam da thread que as fez
+    private final PortariaListener listener = evento -> Platform.runLater(() ->
+            UiActionEvent.medir("evento " + evento.getTipo(), () -> aplicar(evento)));
     private final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     @Override
@@ -110,12 +147,18 @@ public class MainView implements Initializable {
         colPublicacao.setOnEditCommit(event -> {
             try {
                 LocalDate newDate = LocalDate.parse(event.getNewValue(), dtf);
-                Portaria portaria = event.getRowValue();
+                if (newDate.getYear() != event.getRowValue().getPublicacao().getYear()) {
+                    // O ano faz parte da chave: mudá-lo seria outra portaria
+                    tableView.refresh();
+                    showAlert(Alert.AlertType.ERROR, "Erro", "A nova data deve ser do mesmo ano da portaria.");
+                    return;
+                }
+                // Edita uma cópia: a linha da tabela só muda pelo evento do repositório
+                Portaria portaria = new Portaria(event.getRowValue());
                 portaria.setPublicacao(newDate);
-                repo.update(portaria);
-                updateTable(); // Recarrega para refletir mudanças
-                lblStatus.setText("Data de publicação atualizada para: " + newDate.format(dtf));
+                atualizar(portaria, "Data de publicação atualizada para: " + newDate.format(dtf));
             } catch (DateTimeParseException e) {
+                tableView.refresh();
                 showAlert(Alert.AlertType.ERROR, "Erro", "Data inválida. Use o formato dd/MM/yyyy.");
             }
         });
@@ -134,15 +177,37 @@ public class MainView implements Initializable {
         tableView.setEditable(true);
         colNome.setCellFactory(TextFieldTableCell.forTableColumn());
         colNome.setOnEditCommit(event -> {
-            Portaria portaria = event.getRowValue();
+            Portaria portaria = new Portaria(event.getRowValue());
             portaria.setMembro(event.getNewValue());
-            repo.update(portaria);
-            updateTable(); // Recarrega para refletir mudanças
-            lblStatus.setText("Membro atualizado para: " + event.getNewValue());
+            atualizar(portaria, "Membro atualizado para: " + event.getNewValue());
         });
 
-        tableView.setItems(dados);
+        progresso.setPrefSize(16, 16);
+
+        // Ordenar o resultado pela coluna muda as posições
+        dados.addListener((ListChangeListener<Portaria>) mudanca -> {
+            while (mudanca.next()) {
+                if (mudanca.wasPermutated()) {
+                    posicoesValidas = false;
+                }
+            }
+        });
+
+        // O acervo completo é paginado e mantido na ordem do repositório;
+        // a ordenação por coluna vale apenas para os resultados de consultas
+        todas = new PortariaPagedList(repo);
+        tableView.setSortPolicy(table -> table.getItems() != todas && TableView.DEFAULT_SORT_POLICY.call(table));
         updateTable();
+        // A tabela acompanha as modificações sem ser recarregada
+        repo.addListener(listener);
+
+        // As ações dos botões (definidas no FXML) emitem eventos do JFR
+        for (Button botao : new Button[] {simularButton, incluirButton, excluirButton, excluirTodosButton,
+                exportarButton, voltarButton, limparFiltroButton, portariaButton, emissorButton, numeroButton,
+                publicacaoButton, periodoButton, nomeButton, btnCancelar, btnConfirmar,
+                btnDeleteCancelar, btnDeleteConfirmar, addEmissorButton}) {
+            instrumentar(botao);
+        }
 
         // Inicialmente, esconde os formulários
         if (addFormAnchor != null) {
@@ -178,31 +243,178 @@ public class MainView implements Initializable {
         emissorTable.setItems(FXCollections.observableArrayList(EmissorTypes.values()));
     }
 
+    // Grava a portaria editada na tabela; sem sucesso, a tabela volta a mostrar a linha original
+    private void atualizar(Portaria portaria, String mensagem) {
+        executar("Atualizando portaria...", () -> repo.update(portaria), ok -> {
+            if (!ok) {
+                tableView.refresh();
+            }
+            lblStatus.setText(ok ? mensagem : "Portaria não encontrada para atualização.");
+        });
+    }
+
     // Método para atualizar a tabela com dados do JSON
     private void updateTable() {
-        dados.setAll(repo.findAll());
-        lblStatus.setText(dados.size() + " portarias carregadas.");
+        filtro = null;
+        repetirConsulta = null;
+        todas.refresh();
+        tableView.setItems(todas);
+        lblStatus.setText(todas.size() + " portarias carregadas.");
+    }
+
+    // Exibe o resultado de uma consulta na tabela
+    private void exibir(List<Portaria> list, Predicate<Portaria> criterio) {
+        filtro = criterio;
+        dados.setAll(list);
+        posicoesValidas = false;
+        tableView.setItems(dados);
+    }
+
+    // Aplica uma modificação do repositório à lista exibida
+    private void aplicar(PortariaEvent evento) {
+        if (filtro == null) {
+            todas.apply(evento);
+            return;
+        }
+        switch (evento.getTipo()) {
+            case ADDED, UPDATED -> {
+                int index = indexOf(evento.getChave());
+                boolean atende = filtro.test(evento.getPortaria());
+                if (index >= 0 && atende) {
+                    dados.set(index, evento.getPortaria());
+                } else if (index >= 0) {
+                    remover(index, evento.getChave());
+                } else if (atende) {
+                    dados.add(evento.getPortaria());
+                    posicoes.put(evento.getChave().toLong(), dados.size() - 1);
+                }
+            }
+            case REMOVED -> {
+                int index = indexOf(evento.getChave());
+                if (index >= 0) {
+                    remover(index, evento.getChave());
+                }
+            }
+            case CLEARED -> {
+                dados.clear();
+                posicoes.clear();
+                posicoesValidas = true;
+            }
+            case RELOADED -> {
+                if (repetirConsulta != null) {
+                    repetirConsulta.run();
+                }
+            }
+        }
+    }
+
+    // Posição da portaria em dados (O(1), exceto quando o mapa precisa ser refeito)
+    private int indexOf(PortariaPK chave) {
+        if (!posicoesValidas) {
+            posicoes.clear();
+            for (int i = 0; i < dados.size(); i++) {
+                posicoes.put(PortariaPK.chave(dados.get(i)), i);
+            }
+            posicoesValidas = true;
+        }
+        Integer index = posicoes.get(chave.toLong());
+        return index == null ? -1 : index;
+    }
+
+    // Remove a linha; as posições seguintes mudam, então o mapa só continua válido se era a última
+    private void remover(int index, PortariaPK chave) {
+        dados.remove(index);
+        posicoes.remove(chave.toLong());
+        if (index < dados.size()) {
+            posicoesValidas = false;
+        }
+    }
+
+    // Envolve a ação do botão em um evento do JFR com o fx:id do botão
+    private void instrumentar(Button botao) {
+        if (botao == null || botao.getOnAction() == null) {
+            return;
+        }
+        EventHandler<ActionEvent> acao = botao.getOnAction();
+        String nome = botao.getId();
+        botao.setOnAction(e -> UiActionEvent.medir(nome, () -> acao.handle(e)));
+    }
+
+    // Executa um trabalho do repositório em segundo plano; o resultado é
+    // entregue na thread do JavaFX (onSucceeded da Task)
+    private <T> Task<T> executar(String mensagem, Callable<T> trabalho, Consumer<T> concluir) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return trabalho.call();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            finalizar();
+            UiActionEvent.medir(mensagem, () -> concluir.accept(task.getValue()));
+        });
+        task.setOnFailed(e -> {
+            finalizar();
+            Throwable erro = task.getException();
+            System.err.println("Erro em segundo plano: " + erro);
+            lblStatus.setText("Falha: " + erro.getMessage());
+            showAlert(Alert.AlertType.ERROR, "Erro", "Erro inesperado: " + erro.getMessage());
+        });
+        task.setOnCancelled(e -> finalizar());
+        emAndamento++;
+        lblStatus.setGraphic(progresso);
+        lblStatus.setText(mensagem);
+        executor.execute(task);
+        return task;
+    }
+
+    private void finalizar() {
+        if (--emAndamento == 0) {
+            lblStatus.setGraphic(null);
+        }
+    }
+
+    // Executa uma consulta, cancelando a anterior se ainda estiver em andamento
+    private void consultar(String mensagem, Callable<List<Portaria>> consulta,
+                           Predicate<Portaria> criterio, Function<List<Portaria>, String> status) {
+        cancelarConsulta();
+        repetirConsulta = () -> consultar(mensagem, consulta, criterio, status);
+        consultaAtual = executar(mensagem, consulta, list -> {
+            exibir(list, criterio);
+            tabPane.getSelectionModel().select(0);
+            lblStatus.setText(status.apply(list));
+        });
+    }
+
+    private void cancelarConsulta() {
+        if (consultaAtual != null) {
+            consultaAtual.cancel();
+            consultaAtual = null;
+        }
     }
 
     @FXML
     private void simularDados() {
-        repo.insert(new Portaria(1, 234, LocalDate.of(2000, 5, 30), "Alana Beatriz Pereira"));
-        repo.insert(new Portaria(2, 74, LocalDate.of(2015, 7, 11), "Pietra Maya Souza"));
-        repo.insert(new Portaria(3, 112, LocalDate.of(2001, 3, 27), "Sueli Lúcia Gabriela dos Santos"));
-        repo.insert(new Portaria(4, 234, LocalDate.of(2020, 11, 10), "Eduardo Cauã Martins"));
-        repo.insert(new Portaria(5, 3, LocalDate.of(2005, 9, 12), "Hugo Fernando Melo"));
-        repo.insert(new Portaria(1, 1001, LocalDate.of(2008, 2, 20), "Hadassa Isabella Esther Campos"));
-        repo.insert(new Portaria(2, 79, LocalDate.of(2011, 12, 1), "Juan Raul Danilo de Paula"));
-        repo.insert(new Portaria(3, 33, LocalDate.of(2000, 6, 30), "Débora Joana Farias"));
-        repo.insert(new Portaria(4, 79, LocalDate.of(2019, 5, 3), "Marcos Pedro Bryan Vieira"));
-        repo.insert(new Portaria(5, 98, LocalDate.of(2002, 4, 19), "Murilo Enzo Pedro Araújo"));
-        repo.insert(new Portaria(1, 101, LocalDate.of(2010, 10, 21), "Davi Thales Teixeira"));
-        repo.insert(new Portaria(2, 234, LocalDate.of(2018, 12, 2), "Anderson Thomas Miguel Lima"));
-        repo.insert(new Portaria(3, 7, LocalDate.of(2010, 1, 10), "Juliana Adriana Mariah Jesus"));
-        repo.insert(new Portaria(4, 234, LocalDate.of(2022, 6, 15), "Juliana Adriana Mariah Jesus"));
-        repo.insert(new Portaria(5, 11, LocalDate.of(2000, 5, 30), "Louise Aurora Sophia da Conceição"));
-        showAlert(Alert.AlertType.INFORMATION, "Sucesso", "Dados simulados com sucesso!");
-        updateTable();
+        executar("Simulando dados...", () -> {
+            repo.insert(new Portaria(1, 234, LocalDate.of(2000, 5, 30), "Alana Beatriz Pereira"));
+            repo.insert(new Portaria(2, 74, LocalDate.of(2015, 7, 11), "Pietra Maya Souza"));
+            repo.insert(new Portaria(3, 112, LocalDate.of(2001, 3, 27), "Sueli Lúcia Gabriela dos Santos"));
+            repo.insert(new Portaria(4, 234, LocalDate.of(2020, 11, 10), "Eduardo Cauã Martins"));
+            repo.insert(new Portaria(5, 3, LocalDate.of(2005, 9, 12), "Hugo Fernando Melo"));
+            repo.insert(new Portaria(1, 1001, LocalDate.of(2008, 2, 20), "Hadassa Isabella Esther Campos"));
+            repo.insert(new Portaria(2, 79, LocalDate.of(2011, 12, 1), "Juan Raul Danilo de Paula"));
+            repo.insert(new Portaria(3, 33, LocalDate.of(2000, 6, 30), "Débora Joana Farias"));
+            repo.insert(new Portaria(4, 79, LocalDate.of(2019, 5, 3), "Marcos Pedro Bryan Vieira"));
+            repo.insert(new Portaria(5, 98, LocalDate.of(2002, 4, 19), "Murilo Enzo Pedro Araújo"));
+            repo.insert(new Portaria(1, 101, LocalDate.of(2010, 10, 21), "Davi Thales Teixeira"));
+            repo.insert(new Portaria(2, 234, LocalDate.of(2018, 12, 2), "Anderson Thomas Miguel Lima"));
+            repo.insert(new Portaria(3, 7, LocalDate.of(2010, 1, 10), "Juliana Adriana Mariah Jesus"));
+            repo.insert(new Portaria(4, 234, LocalDate.of(2022, 6, 15), "Juliana Adriana Mariah Jesus"));
+            repo.insert(new Portaria(5, 11, LocalDate.of(2000, 5, 30), "Louise Aurora Sophia da Conceição"));
+            return null;
+        }, ignorado -> {
+            showAlert(Alert.AlertType.INFORMATION, "Sucesso", "Dados simulados com sucesso!");
+        });
     }
 
     @FXML
@@ -250,13 +462,14 @@ public class MainView implements Initializable {
 
             // Criação e inserção da Portaria
             Portaria portaria = new Portaria(indice, numero, data, membro);
-            if (repo.insert(portaria)) {
-                showAlert(Alert.AlertType.INFORMATION, "Sucesso", "Portaria incluída com sucesso!");
-                updateTable();
-                cancelarInclusao(); // Limpa e esconde após sucesso
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Erro", "Erro ao incluir portaria (já existe ou dados inválidos).");
-            }
+            executar("Incluindo portaria...", () -> repo.insert(portaria), ok -> {
+                if (ok) {
+                    showAlert(Alert.AlertType.INFORMATION, "Sucesso", "Portaria incluída com sucesso!");
+                    cancelarInclusao(); // Limpa e esconde após sucesso
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Erro", "Erro ao incluir portaria (já existe ou dados inválidos).");
+                }
+            });
         } catch (NumberFormatException e) {
             showAlert(Alert.AlertType.ERROR, "Erro", "Índice do Emissor e Número devem ser números válidos.");
         } catch (DateTimeParseException e) {
@@ -317,13 +530,14 @@ public class MainView implements Initializable {
             Integer ano = Integer.parseInt(anoStr);
 
             String emissorNome = EmissorTypes.fromValue(index).getNome();
-            if (repo.delete(emissorNome, num, ano)) {
-                showAlert(Alert.AlertType.INFORMATION, "Sucesso", "Portaria excluída com sucesso!");
-                updateTable();
-                cancelarExclusao(); // Limpa e esconde após sucesso
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Erro", "Portaria não encontrada.");
-            }
+            executar("Excluindo portaria...", () -> repo.delete(emissorNome, num, ano), ok -> {
+                if (ok) {
+                    showAlert(Alert.AlertType.INFORMATION, "Sucesso", "Portaria excluída com sucesso!");
+                    cancelarExclusao(); // Limpa e esconde após sucesso
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Erro", "Portaria não encontrada.");
+                }
+            });
         } catch (NumberFormatException e) {
             showAlert(Alert.AlertType.ERROR, "Erro", "Índice do Emissor, Número e Ano devem ser números válidos.");
         } catch (Exception e) {
@@ -365,18 +579,46 @@ public class MainView implements Initializable {
         if (new Alert(Alert.AlertType.CONFIRMATION, "Excluir todas as portarias?")
                 .showAndWait()
                 .orElse(ButtonType.CANCEL) == ButtonType.OK) {
-            int regs = repo.deleteAll();
-            showAlert(Alert.AlertType.INFORMATION, "Sucesso", regs + " portarias excluídas!");
-            updateTable();
+            cancelarConsulta();
+            executar("Excluindo todas as portarias...", repo::deleteAll, regs -> {
+                showAlert(Alert.AlertType.INFORMATION, "Sucesso", regs + " portarias excluídas!");
+            });
+        }
+    }
+
+    // Exporta o que a tabela mostra (o resultado da consulta ou o acervo completo),
+    // em segundo plano e direto para o arquivo
+    @FXML
+    private void exportar() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Exportar portarias");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl"),
+                new FileChooser.ExtensionFilter("CSV compactado (gzip)", "*.csv.gz"),
+                new FileChooser.ExtensionFilter("JSON Lines compactado (gzip)", "*.jsonl.gz"));
+        chooser.setInitialFileName("portarias.csv");
+        File escolhido = chooser.showSaveDialog(exportarButton.getScene().getWindow());
+        if (escolhido == null) return;
+        File arquivo = escolhido;
+        if (!escolhido.getName().contains(".")) {
+            // Sem extensão, usa a do filtro selecionado; sem filtro, JSON Lines
+            FileChooser.ExtensionFilter selecionado = chooser.getSelectedExtensionFilter();
+            String extensao = selecionado != null ? selecionado.getExtensions().get(0).substring(1) : ".jsonl";
+            arquivo = new File(escolhido.getPath() + extensao);
         }
+        File destino = arquivo;
+        Predicate<Portaria> criterio = filtro;
+        executar("Exportando portarias...", () -> repo.export(destino, criterio, PortariaOrder.EMISSOR_NUMERO_ANO),
+                exportadas -> lblStatus.setText(exportadas + " portarias exportadas para " + destino.getName() + "."));
     }
 
     @FXML
     private void consultarTodos() {
-        List<Portaria> list = repo.findAll();
-        dados.setAll(list);
+        cancelarConsulta(); // o acervo é lido por páginas, sob demanda
+        updateTable();
         tabPane.getSelectionModel().select(0);
-        lblStatus.setText("Consulta realizada: " + list.size() + " resultados.");
+        lblStatus.setText("Consulta realizada: " + todas.size() + " resultados.");
     }
 
     @FXML
@@ -389,14 +631,18 @@ public class MainView implements Initializable {
             Integer ano = promptInteger("Consultar Portaria", "Digite o ano:", true);
             if (ano == null) return;
             String emissorNome = EmissorTypes.fromValue(index).getNome();
-            Optional<Portaria> opt = repo.findPortaria(emissorNome, num, ano);
-            if (opt.isPresent()) {
-                dados.setAll(List.of(opt.get())); // Mostra só essa
-                tabPane.getSelectionModel().select(0);
-                lblStatus.setText("Portaria encontrada: " + opt.get().toString());
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Erro", "Portaria não encontrada.");
-            }
+            cancelarConsulta();
+            PortariaPK chave = new PortariaPK(emissorNome, num, ano);
+            consultaAtual = executar("Consultando portaria...", () -> repo.findPortaria(emissorNome, num, ano), opt -> {
+                if (opt.isPresent()) {
+                    exibir(List.of(opt.get()), p -> chave.equals(PortariaPK.of(p))); // Mostra só essa
+                    tabPane.getSelectionModel().select(0);
+                    lblStatus.setText("Portaria encontrada: " + opt.get().toString());
+                } else {
+                    lblStatus.setText("Portaria não encontrada.");
+                    showAlert(Alert.AlertType.ERROR, "Erro", "Portaria não encontrada.");
+                }
+            });
         } catch (Exception e) {
             System.err.println("Erro na consulta de portaria: " + e.getMessage());
             showAlert(Alert.AlertType.ERROR, "Erro", "Erro inesperado: " + e.getMessage());
@@ -407,10 +653,9 @@ public class MainView implements Initializable {
     private void consultarEmissor() {
         String nome = promptInput("Consultar por Emissor", "Digite o nome do emissor (parcial):", true);
         if (nome == null) return;
-        List<Portaria> list = repo.findByEmissor(nome, false);
-        dados.setAll(list);
-        tabPane.getSelectionModel().select(0);
-        lblStatus.setText("Filtrado por emissor '" + nome + "': " + list.size() + " resultados.");
+        consultar("Consultando por emissor...", () -> repo.findByEmissor(nome, false),
+                p -> p.getEmissor() != null && p.getEmissor().getNome().toLowerCase().contains(nome.toLowerCase()),
+                list -> "Filtrado por emissor '" + nome + "': " + list.size() + " resultados.");
     }
 
     @FXML
@@ -418,10 +663,9 @@ public class MainView implements Initializable {
         try {
             Integer num = promptInteger("Consultar por Número", "Digite o número:", true);
             if (num == null) return;
-            List<Portaria> list = repo.findByNumero(num);
-            dados.setAll(list);
-            tabPane.getSelectionModel().select(0);
-            lblStatus.setText("Filtrado por número " + num + ": " + list.size() + " resultados.");
+            consultar("Consultando por número...", () -> repo.findByNumero(num),
+                    p -> num.equals(p.getNumero()),
+                    list -> "Filtrado por número " + num + ": " + list.size() + " resultados.");
         } catch (Exception e) {
             System.err.println("Erro na consulta por número: " + e.getMessage());
             showAlert(Alert.AlertType.ERROR, "Erro", "Erro inesperado: " + e.getMessage());
@@ -433,10 +677,9 @@ public class MainView implements Initializable {
         try {
             LocalDate data = promptDate("Consultar por Publicação", "Digite a data de publicação (yyyy-mm-dd):", true);
             if (data == null) return;
-            List<Portaria> list = repo.findByPublicacao(data);
-            dados.setAll(list);
-            tabPane.getSelectionModel().select(0);
-            lblStatus.setText("Filtrado por publicação " + data + ": " + list.size() + " resultados.");
+            consultar("Consultando por publicação...", () -> repo.findByPublicacao(data),
+                    p -> data.equals(p.getPublicacao()),
+                    list -> "Filtrado por publicação " + data + ": " + list.size() + " resultados.");
         } catch (Exception e) {
             System.err.println("Erro na consulta por publicação: " + e.getMessage());
             showAlert(Alert.AlertType.ERROR, "Erro", "Erro inesperado: " + e.getMessage());
@@ -450,10 +693,9 @@ public class MainView implements Initializable {
             if (start == null) return;
             LocalDate end = promptDate("Consultar por Período", "Digite a data de fim (yyyy-mm-dd):", true);
             if (end == null) return;
-            List<Portaria> list = repo.findByPeriodo(start, end);
-            dados.setAll(list);
-            tabPane.getSelectionModel().select(0);
-            lblStatus.setText("Filtrado por período " + start + " a " + end + ": " + list.size() + " resultados.");
+            consultar("Consultando por período...", () -> repo.findByPeriodo(start, end),
+                    p -> p.getPublicacao() != null && !p.getPublicacao().isBefore(start) && !p.getPublicacao().isAfter(end),
+                    list -> "Filtrado por período " + start + " a " + end + ": " + list.size() + " resultados.");
         } catch (Exception e) {
             System.err.println("Erro na consulta por período: " + e.getMessage());
             showAlert(Alert.AlertType.ERROR, "Erro", "Erro inesperado: " + e.getMessage());
@@ -464,10 +706,9 @@ public class MainView implements Initializable {
     private void consultarNome() {
         String nome = promptInput("Consultar por Nome", "Digite o nome do membro (parcial):", true);
         if (nome == null) return;
-        List<Portaria> list = repo.findByMembro(nome, false);
-        dados.setAll(list);
-        tabPane.getSelectionModel().select(0);
-        lblStatus.setText("Filtrado por nome '" + nome + "': " + list.size() + " resultados.");
+        consultar("Consultando por nome...", () -> repo.findByMembro(nome, false),
+                p -> p.getMembro() != null && EmissorTypes.normalize(p.getMembro()).contains(EmissorTypes.normalize(nome)),
+                list -> "Filtrado por nome '" + nome + "': " + list.size() + " resultados.");
     }
 
     @FXML
@@ -486,6 +727,9 @@ public class MainView implements Initializable {
         } else {
             System.err.println("CSS não encontrado.");
         }
+        // O controlador da nova cena registra o seu próprio listener
+        cancelarConsulta();
+        repo.removeListener(listener);
         stage.setScene(scene);
         stage.show();
     }
@@ -566,9 +810,10 @@ public class MainView implements Initializable {
 
     @FXML
     private void limparFiltro() {
+        cancelarConsulta();
         updateTable(); // Recarrega todos os dados
         tabPane.getSelectionModel().select(0); // Vai pra aba Geral
-        lblStatus.setText("Filtro limpo: " + dados.size() + " portarias totais.");
+        lblStatus.setText("Filtro limpo: " + todas.size() + " portarias totais.");
     }
 
     private LocalDate promptDate(String title, String header, boolean allowCancel) {
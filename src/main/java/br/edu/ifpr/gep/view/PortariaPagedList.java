@@ -0,0 +1,131 @@
+package br.edu.ifpr.gep.view;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.repository.PortariaEvent;
+import br.edu.ifpr.gep.model.repository.PortariaRepository;
+import javafx.collections.ObservableListBase;
+
+/**
+ * Lista somente leitura para a TableView que busca as portarias do
+ * repositório por páginas, conforme as linhas são exibidas.
+ * Apenas as últimas páginas usadas ficam em memória. O repositório mantém
+ * a ordem de emissor, número e ano em uma visão com acesso por posição,
+ * então qualquer página (inclusive após arrastar a barra de rolagem) é
+ * lida diretamente pelo offset.
+ *
+ * Eventos do repositório são aplicados sem recarregar a lista: a posição
+ * da portaria afetada vem do próprio evento ({@link PortariaEvent#getPosicao()},
+ * calculada quando a modificação foi feita, e não quando o evento chega à
+ * thread do JavaFX), a mudança é publicada só para essa linha e apenas as
+ * páginas a partir dela são descartadas.
+ */
+class PortariaPagedList extends ObservableListBase<Portaria> {
+    private static final int TAMANHO_PAGINA = 200;
+    private static final int PAGINAS_EM_CACHE = 16;
+
+    private final PortariaRepository repo;
+    private final Map<Integer, List<Portaria>> paginas =
+            new LinkedHashMap<>(PAGINAS_EM_CACHE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, List<Portaria>> eldest) {
+                    return size() > PAGINAS_EM_CACHE;
+                }
+            };
+    private int size;
+
+    PortariaPagedList(PortariaRepository repo) {
+        this.repo = repo;
+        this.size = repo.count();
+    }
+
+    @Override
+    public Portaria get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        List<Portaria> pagina = pagina(index / TAMANHO_PAGINA);
+        int posicao = index % TAMANHO_PAGINA;
+        // O acervo pode ter diminuído desde a última contagem
+        return posicao < pagina.size() ? pagina.get(posicao) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private List<Portaria> pagina(int numero) {
+        List<Portaria> pagina = paginas.get(numero);
+        if (pagina == null) {
+            pagina = repo.findPage(numero * TAMANHO_PAGINA, TAMANHO_PAGINA).getItens();
+            paginas.put(numero, pagina);
+        }
+        return pagina;
+    }
+
+    /** Aplica um evento do repositório (na thread do JavaFX) */
+    void apply(PortariaEvent evento) {
+        switch (evento.getTipo()) {
+            case ADDED -> {
+                int index = Math.min(evento.getPosicao(), size);
+                descartarDesde(index);
+                size++;
+                beginChange();
+                nextAdd(index, index + 1);
+                endChange();
+            }
+            case UPDATED -> {
+                int index = evento.getPosicao();
+                if (index < size) {
+                    List<Portaria> pagina = paginas.get(index / TAMANHO_PAGINA);
+                    Portaria antiga = evento.getAnterior();
+                    if (pagina != null && index % TAMANHO_PAGINA < pagina.size()) {
+                        antiga = pagina.set(index % TAMANHO_PAGINA, evento.getPortaria());
+                    }
+                    beginChange();
+                    nextSet(index, antiga);
+                    endChange();
+                }
+            }
+            case REMOVED -> {
+                if (size == 0) {
+                    return;
+                }
+                // A posição em que a portaria removida estaria é a que ela ocupava
+                int index = Math.min(evento.getPosicao(), size - 1);
+                descartarDesde(index);
+                size--;
+                beginChange();
+                nextRemove(index, evento.getPortaria());
+                endChange();
+            }
+            default -> refresh();
+        }
+    }
+
+    /** Descarta as páginas cujo conteúdo muda com uma inclusão ou exclusão na posição */
+    private void descartarDesde(int index) {
+        int numero = index / TAMANHO_PAGINA;
+        paginas.keySet().removeIf(n -> n >= numero);
+    }
+
+    /** Descarta as páginas lidas e recarrega a contagem (após modificações no repositório) */
+    void refresh() {
+        int anterior = size;
+        paginas.clear();
+        size = repo.count();
+        beginChange();
+        if (anterior > 0) {
+            nextRemove(0, Collections.nCopies(anterior, (Portaria) null));
+        }
+        if (size > 0) {
+            nextAdd(0, size);
+        }
+        endChange();
+    }
+}
@@ -0,0 +1,37 @@
+package br.edu.ifpr.gep.view;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento do JFR emitido em torno do código que roda na thread do JavaFX
+ * (ações dos botões, conclusão das tarefas e aplicação das modificações do
+ * repositório). Um evento longo corresponde a uma tela travada.
+ */
+@Name("br.edu.ifpr.gep.UiAction")
+@Label("Ação da interface")
+@Category({"GEP", "Interface"})
+@Description("Trabalho executado na thread do JavaFX")
+class UiActionEvent extends Event {
+
+    @Label("Ação")
+    String acao;
+
+    /** Executa o trabalho dentro de um evento com o nome da ação */
+    static void medir(String acao, Runnable trabalho) {
+        UiActionEvent evento = new UiActionEvent();
+        evento.begin();
+        try {
+            trabalho.run();
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.acao = acao;
+                evento.commit();
+            }
+        }
+    }
+}
@@ -4,6 +4,10 @@ module gep {  // Ou o nome do seu módulo
     requires java.desktop;
     requires com.fasterxml.jackson.databind;
     requires com.fasterxml.jackson.datatype.jsr310;
+    requires java.management;
+    requires java.sql;
+    requires jdk.jfr;
+    requires jdk.httpserver;
 
     opens br.edu.ifpr.gep.aplicacao to javafx.fxml;
     opens br.edu.ifpr.gep.view to javafx.fxml;
@@ -12,4 +16,5 @@ module gep {  // Ou o nome do seu módulo
 
     exports br.edu.ifpr.gep.aplicacao;
     exports br.edu.ifpr.gep.view;
+    exports br.edu.ifpr.gep.model.repository to java.management;  // MBean de métricas
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package br.edu.ifpr.gep.aplicacao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.repository.PortariaOrder;
+import br.edu.ifpr.gep.model.repository.PortariaRepository;
+
+/**
+ * Importação pelo {@link ImportadorPortarias}, no repositório do diretório
+ * gep.dados. Só usa portarias da Reitoria com número a partir de
+ * {@link #NUMERO}, de 2023, que são excluídas no fim de cada teste.
+ */
+class ImportadorPortariasTest {
+
+    private static final int NUMERO = 700_000;
+    private static final int QUANTIDADE = 10;
+
+    @TempDir
+    File pasta;
+
+    private final PortariaRepository repo = PortariaRepository.INSTANCE;
+
+    @BeforeEach
+    @AfterEach
+    void excluirPortariasDoTeste() {
+        for (int i = 0; i < QUANTIDADE; i++) {
+            repo.delete("Reitoria", NUMERO + i, 2023);
+        }
+    }
+
+    private static boolean doTeste(Portaria portaria) {
+        return portaria.getEmissor().getIndex() == 1 && portaria.getNumero() >= NUMERO
+                && portaria.getNumero() < NUMERO + QUANTIDADE;
+    }
+
+    private Optional<Portaria> buscar(int i) {
+        return repo.findPortaria("Reitoria", NUMERO + i, 2023);
+    }
+
+    private File arquivo(String nome, String... linhas) throws IOException {
+        File arquivo = new File(pasta, nome);
+        Files.write(arquivo.toPath(), List.of(linhas), StandardCharsets.UTF_8);
+        return arquivo;
+    }
+
+    private ImportadorPortarias.Resultado importar(File entrada, File rejeitados) throws IOException {
+        return new ImportadorPortarias().importar(entrada, rejeitados, repo);
+    }
+
+    @Test
+    void leCsvComVirgulaColunasForaDeOrdemECamposEntreAspas() throws IOException {
+        File entrada = arquivo("portarias.csv",
+                "numero,membro,publicacao,emissor",
+                NUMERO + ",\"Silva, Ana \"\"Aninha\"\"\",01/02/2023,Reitoria",
+                (NUMERO + 1) + ",Bruno;Souza,2023-03-04,1");
+        ImportadorPortarias.Resultado resultado = importar(entrada, new File(pasta, "rejeitados.csv"));
+
+        assertEquals(2, resultado.getImportadas());
+        assertEquals(0, resultado.getRejeitadas());
+        assertFalse(resultado.isSemCabecalho());
+        assertEquals("Silva, Ana \"Aninha\"", buscar(0).orElseThrow().getMembro());
+        assertEquals(LocalDate.of(2023, 2, 1), buscar(0).orElseThrow().getPublicacao());
+        assertEquals("Bruno;Souza", buscar(1).orElseThrow().getMembro());
+    }
+
+    @Test
+    void leCsvSemCabecalhoNaOrdemPadrao() throws IOException {
+        File entrada = arquivo("portarias.csv",
+                "Reitoria;" + NUMERO + ";2023-05-06;\"Carla; Lima\"");
+        ImportadorPortarias.Resultado resultado = importar(entrada, new File(pasta, "rejeitados.csv"));
+
+        assertTrue(resultado.isSemCabecalho());
+        assertEquals(1, resultado.getImportadas());
+        assertEquals("Carla; Lima", buscar(0).orElseThrow().getMembro());
+    }
+
+    @Test
+    void gravaAsLinhasRejeitadasComONumeroEOMotivo() throws IOException {
+        assertTrue(repo.insert(new Portaria(1, NUMERO + 3, LocalDate.of(2023, 1, 1), "Já existente")));
+        File entrada = arquivo("portarias.csv",
+                "emissor;numero;publicacao;membro",
+                "Reitoria;" + NUMERO + ";2023-01-10;Primeira",
+                "Reitoria;" + NUMERO + ";2023-12-31;Repetida no arquivo",
+                "Reitoria;" + (NUMERO + 1) + ";31/02/2023;Data inválida",
+                "Emissor que não existe;" + (NUMERO + 2) + ";2023-01-10;Sem emissor",
+                "Reitoria;" + (NUMERO + 3) + ";2023-06-01;Já no repositório");
+        File rejeitados = new File(pasta, "rejeitados.csv");
+        ImportadorPortarias.Resultado resultado = importar(entrada, rejeitados);
+
+        assertEquals(5, resultado.getLidas());
+        assertEquals(1, resultado.getImportadas());
+        assertEquals(4, resultado.getRejeitadas());
+        assertEquals("Primeira", buscar(0).orElseThrow().getMembro());
+        assertEquals("Já existente", buscar(3).orElseThrow().getMembro());
+        assertEquals(List.of(
+                "linha;motivo;conteudo",
+                "3;\"chave repetida (linha 2)\";\"Reitoria;" + NUMERO + ";2023-12-31;Repetida no arquivo\"",
+                "4;\"data inválida: 31/02/2023\";\"Reitoria;" + (NUMERO + 1) + ";31/02/2023;Data inválida\"",
+                "5;\"emissor desconhecido: Emissor que não existe\";\"Emissor que não existe;" + (NUMERO + 2)
+                        + ";2023-01-10;Sem emissor\"",
+                "6;\"portaria já existe no repositório\";\"Reitoria;" + (NUMERO + 3) + ";2023-06-01;Já no repositório\""),
+                Files.readAllLines(rejeitados.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void naoCriaOArquivoDeRejeitadasSemRejeicoes() throws IOException {
+        File entrada = arquivo("portarias.jsonl",
+                "{\"emissor\":\"Reitoria\",\"numero\":" + NUMERO + ",\"publicacao\":\"2023-01-10\",\"membro\":\"Ana\"}");
+        File rejeitados = new File(pasta, "rejeitados.csv");
+        assertEquals(1, importar(entrada, rejeitados).getImportadas());
+        assertFalse(rejeitados.exists());
+    }
+
+    @Test
+    void devolveOsCodigosDeSaida() throws IOException {
+        assertEquals(2, ImportadorPortarias.executar(new String[0]));
+        assertEquals(1, ImportadorPortarias.executar(new String[] {new File(pasta, "nao-existe.csv").getPath()}));
+        File entrada = arquivo("portarias.csv", "emissor;numero;publicacao;membro",
+                "Reitoria;" + NUMERO + ";2023-01-10;Ana");
+        assertEquals(0, ImportadorPortarias.executar(new String[] {entrada.getPath()}));
+        assertTrue(buscar(0).isPresent());
+    }
+
+    @Test
+    void importaOQueFoiExportado() throws IOException {
+        List<Portaria> portarias = new ArrayList<>();
+        for (int i = 0; i < QUANTIDADE; i++) {
+            portarias.add(new Portaria(1, NUMERO + i, LocalDate.of(2023, 1 + i, 10),
+                    i % 2 == 0 ? "Membro; com \"aspas\" " + i : "Membro, çedilha " + i));
+        }
+        Predicate<Portaria> filtro = ImportadorPortariasTest::doTeste;
+        for (String nome : new String[] {"exportadas.csv", "exportadas.jsonl"}) {
+            assertEquals(List.of(), repo.insertAll(portarias));
+            File exportadas = new File(pasta, nome);
+            assertEquals(QUANTIDADE, repo.export(exportadas, filtro, PortariaOrder.EMISSOR_NUMERO_ANO));
+            excluirPortariasDoTeste();
+
+            ImportadorPortarias.Resultado resultado = importar(exportadas, new File(pasta, nome + ".rejeitados"));
+            assertEquals(QUANTIDADE, resultado.getImportadas(), nome);
+            assertEquals(0, resultado.getRejeitadas(), nome);
+            assertEquals(portarias, repo.findAll(PortariaOrder.EMISSOR_NUMERO_ANO).stream().filter(filtro).toList(),
+                    nome);
+            excluirPortariasDoTeste();
+        }
+    }
+}
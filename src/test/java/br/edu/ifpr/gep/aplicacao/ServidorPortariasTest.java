@@ -0,0 +1,206 @@
+package br.edu.ifpr.gep.aplicacao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.repository.ExportFormat;
+import br.edu.ifpr.gep.model.repository.PortariaOrder;
+import br.edu.ifpr.gep.model.repository.PortariaRepository;
+
+/**
+ * ETag e If-None-Match do {@link ServidorPortarias}, em uma porta livre de
+ * localhost. Usa o repositório do diretório gep.dados (target/dados-teste
+ * no mvn test) e só altera a portaria {@link #CAMINHO} e as do
+ * {@link #acervoGrande()}, que são excluídas no fim de cada teste.
+ */
+class ServidorPortariasTest {
+
+    private static final String CAMINHO = "/portarias/Reitoria/987654/2024";
+    private static final String PORTARIA =
+            "{\"emissor\":\"Reitoria\",\"numero\":987654,\"publicacao\":\"2024-06-10\",\"membro\":\"Teste do ETag\"}";
+
+    /** Portarias de número a partir deste, incluídas pelos testes de exportação */
+    private static final int NUMERO_ACERVO = 900_000;
+    private static final int TAMANHO_ACERVO = 2500;
+
+    private static ServidorPortarias servidor;
+    private static String base;
+
+    private record Resposta(int status, String etag, String corpo) {}
+
+    @BeforeAll
+    static void iniciar() throws IOException {
+        servidor = new ServidorPortarias(PortariaRepository.INSTANCE,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        servidor.start();
+        base = "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + servidor.getPorta();
+    }
+
+    @AfterAll
+    static void parar() {
+        servidor.stop();
+    }
+
+    @BeforeEach
+    @AfterEach
+    void excluirPortariasDoTeste() throws IOException {
+        requisicao("DELETE", CAMINHO, null);
+        for (int i = 0; i < TAMANHO_ACERVO; i++) {
+            PortariaRepository.INSTANCE.delete("Reitoria", NUMERO_ACERVO + i, 2023);
+        }
+    }
+
+    /** Inclui portarias suficientes para várias páginas de JSON Lines */
+    private static void acervoGrande() throws IOException {
+        List<Portaria> portarias = new ArrayList<>();
+        for (int i = 0; i < TAMANHO_ACERVO; i++) {
+            portarias.add(new Portaria(1, NUMERO_ACERVO + i, LocalDate.of(2023, 1, 1).plusDays(i % 365),
+                    "Membro da exportação " + i));
+        }
+        assertEquals(List.of(), PortariaRepository.INSTANCE.insertAll(portarias));
+    }
+
+    private static Resposta requisicao(String metodo, String caminho, String corpo, String... cabecalhos)
+            throws IOException {
+        HttpURLConnection conexao = (HttpURLConnection) URI.create(base + caminho).toURL().openConnection();
+        try {
+            conexao.setRequestMethod(metodo);
+            for (int i = 0; i < cabecalhos.length; i += 2) {
+                conexao.setRequestProperty(cabecalhos[i], cabecalhos[i + 1]);
+            }
+            if (corpo != null) {
+                conexao.setDoOutput(true);
+                conexao.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream out = conexao.getOutputStream()) {
+                    out.write(corpo.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = conexao.getResponseCode();
+            InputStream in = status >= 400 ? conexao.getErrorStream() : conexao.getInputStream();
+            String resposta = in == null ? "" : new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return new Resposta(status, conexao.getHeaderField("ETag"), resposta);
+        } finally {
+            conexao.disconnect();
+        }
+    }
+
+    @Test
+    void respondeNaoModificadoEnquantoOAcervoNaoMuda() throws IOException {
+        Resposta lista = requisicao("GET", "/portarias", null);
+        assertEquals(200, lista.status());
+        assertNotNull(lista.etag());
+
+        Resposta naoModificada = requisicao("GET", "/portarias", null, "If-None-Match", lista.etag());
+        assertEquals(304, naoModificada.status());
+        assertEquals(lista.etag(), naoModificada.etag());
+        assertEquals("", naoModificada.corpo());
+
+        assertEquals(304, requisicao("GET", "/portarias", null, "If-None-Match", "\"0\", " + lista.etag()).status());
+        assertEquals(304, requisicao("GET", "/portarias", null, "If-None-Match", "*").status());
+        assertEquals(304, requisicao("GET", "/consultas/ano?ano=2024", null, "If-None-Match", lista.etag()).status());
+        assertEquals(200, requisicao("GET", "/portarias", null, "If-None-Match", "\"0\"").status());
+    }
+
+    @Test
+    void trocaOETagACadaModificacao() throws IOException {
+        String antes = requisicao("GET", "/portarias", null).etag();
+
+        assertEquals(201, requisicao("POST", "/portarias", PORTARIA).status());
+        Resposta depoisDaInclusao = requisicao("GET", "/portarias", null, "If-None-Match", antes);
+        assertEquals(200, depoisDaInclusao.status());
+        assertNotEquals(antes, depoisDaInclusao.etag());
+        assertTrue(depoisDaInclusao.corpo().contains("Teste do ETag"));
+
+        Resposta portaria = requisicao("GET", CAMINHO, null, "If-None-Match", depoisDaInclusao.etag());
+        assertEquals(304, portaria.status());
+
+        assertEquals(204, requisicao("DELETE", CAMINHO, null).status());
+        Resposta depoisDaExclusao = requisicao("GET", CAMINHO, null, "If-None-Match", depoisDaInclusao.etag());
+        assertEquals(404, depoisDaExclusao.status());
+        Resposta lista = requisicao("GET", "/portarias", null, "If-None-Match", depoisDaInclusao.etag());
+        assertEquals(200, lista.status());
+        assertNotEquals(depoisDaInclusao.etag(), lista.etag());
+    }
+
+    @Test
+    void jsonLinesTrazOAcervoInteiroNasDuasOrdens() throws IOException {
+        acervoGrande();
+        ObjectMapper objectMapper = PortariaRepository.INSTANCE.getObjectMapper();
+        for (PortariaOrder ordem : PortariaOrder.values()) {
+            String parametro = ordem == PortariaOrder.PUBLICACAO ? "?ordem=publicacao" : "";
+            Resposta resposta = requisicao("GET", "/portarias" + parametro, null, "Accept", "application/x-ndjson");
+            assertEquals(200, resposta.status());
+            List<Portaria> lidas = new ArrayList<>();
+            for (String linha : resposta.corpo().split("\n")) {
+                lidas.add(objectMapper.readValue(linha, Portaria.class));
+            }
+            assertEquals(PortariaRepository.INSTANCE.findAll(ordem), lidas);
+        }
+    }
+
+    @Test
+    void exportacaoEmPaginasNaoBloqueiaAsEscritas() throws Exception {
+        acervoGrande();
+        CountDownLatch escrevendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        // Cliente parado: a primeira escrita no fluxo espera até o fim do teste
+        OutputStream clienteParado = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                escrevendo.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> exportacao = executor.submit(() -> PortariaRepository.INSTANCE.exportPaged(
+                    clienteParado, ExportFormat.JSON_LINES, PortariaOrder.EMISSOR_NUMERO_ANO, 100, false));
+            escrevendo.await();
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertEquals(201,
+                    requisicao("POST", "/portarias", PORTARIA).status()));
+            liberar.countDown();
+            assertTrue(exportacao.get() >= TAMANHO_ACERVO);
+        } finally {
+            liberar.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
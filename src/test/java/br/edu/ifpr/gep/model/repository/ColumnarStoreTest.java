@@ -0,0 +1,134 @@
+package br.edu.ifpr.gep.model.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/** Posições das ordens de chave e de publicação do {@link ColumnarStore} */
+class ColumnarStoreTest {
+
+    private static final Comparator<Portaria> POR_PUBLICACAO =
+            Comparator.comparing(Portaria::getPublicacao).thenComparingLong(PortariaPK::chave);
+
+    private final ColumnarStore store = new ColumnarStore();
+    private final TreeMap<Long, Portaria> esperado = new TreeMap<>();
+
+    private static Portaria portaria(Random random, int ano) {
+        return new Portaria(1 + random.nextInt(30), random.nextInt(200),
+                LocalDate.of(ano, 1, 1).plusDays(random.nextInt(365)), "Membro " + random.nextInt(50));
+    }
+
+    private void incluir(Portaria portaria) {
+        long chave = PortariaPK.chave(portaria);
+        store.put(chave, portaria);
+        esperado.put(chave, portaria);
+    }
+
+    /** Compara as duas ordens, posição a posição, com a ordenação das portarias esperadas */
+    private void verificarOrdens() {
+        List<Portaria> porChave = new ArrayList<>(esperado.values());
+        List<Portaria> porPublicacao = new ArrayList<>(porChave);
+        porPublicacao.sort(POR_PUBLICACAO);
+
+        assertEquals(porChave.size(), store.size());
+        assertEquals(porChave, store.slice(PortariaOrder.EMISSOR_NUMERO_ANO, 0, Integer.MAX_VALUE));
+        assertEquals(porPublicacao, store.slice(PortariaOrder.PUBLICACAO, 0, Integer.MAX_VALUE));
+        for (int i = 0; i < porChave.size(); i++) {
+            assertEquals(i, store.positionOf(porChave.get(i)));
+            assertEquals(porChave.get(i), store.get(PortariaOrder.EMISSOR_NUMERO_ANO, i));
+            assertEquals(porPublicacao.get(i), store.get(PortariaOrder.PUBLICACAO, i));
+        }
+    }
+
+    @Test
+    void mantemAsOrdensEmInclusoesAlteracoesEExclusoes() {
+        Random random = new Random(21);
+        for (int i = 0; i < 2000; i++) {
+            incluir(portaria(random, 2015 + random.nextInt(10)));
+        }
+        verificarOrdens();
+
+        List<Long> chaves = new ArrayList<>(esperado.keySet());
+        for (int i = 0; i < 300; i++) {
+            // Mesma chave, outra data do mesmo ano: a linha muda de lugar só na ordem de publicação
+            Portaria atual = esperado.get(chaves.get(random.nextInt(chaves.size())));
+            Portaria alterada = new Portaria(atual);
+            alterada.setPublicacao(atual.getPublicacao().withDayOfYear(1 + random.nextInt(365)));
+            alterada.setMembro("Alterado " + i);
+            incluir(alterada);
+        }
+        for (int i = 0; i < 500; i++) {
+            long chave = chaves.get(random.nextInt(chaves.size()));
+            assertEquals(esperado.remove(chave), store.remove(chave));
+        }
+        verificarOrdens();
+
+        // As linhas liberadas são reaproveitadas sem desordenar as posições
+        for (int i = 0; i < 400; i++) {
+            incluir(portaria(random, 2015 + random.nextInt(10)));
+        }
+        verificarOrdens();
+    }
+
+    @Test
+    void reconstroiAsOrdensNoFimDaCargaEmLote() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            incluir(portaria(random, 2020));
+        }
+        List<Portaria> lote = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            lote.add(portaria(random, 2010 + random.nextInt(15)));
+        }
+        List<Portaria> rejeitadas = new ArrayList<>();
+        for (Portaria portaria : lote) {
+            if (esperado.putIfAbsent(PortariaPK.chave(portaria), portaria) != null) {
+                rejeitadas.add(portaria);
+            }
+        }
+        store.beginBulk();
+        assertEquals(rejeitadas, store.putAllAbsent(lote));
+        store.endBulk();
+        verificarOrdens();
+    }
+
+    @Test
+    void ordenaAnosAcimaDoLimiteDeUmShortComSinal() {
+        // A coluna de anos é um short sem sinal: 40000 deve vir depois de 2024 na chave
+        Portaria futuro = new Portaria(1, 5, LocalDate.of(40000, 1, 1), "Futuro");
+        Portaria presente = new Portaria(1, 5, LocalDate.of(2024, 1, 1), "Presente");
+        incluir(futuro);
+        incluir(presente);
+        incluir(new Portaria(1, 5, LocalDate.of(0, 1, 1), "Ano zero"));
+        verificarOrdens();
+
+        assertEquals(List.of(futuro), store.after(PortariaPK.chave(presente), 10));
+    }
+
+    @Test
+    void paginaPorCursorAteOFim() {
+        Random random = new Random(12);
+        for (int i = 0; i < 500; i++) {
+            incluir(portaria(random, 2018 + random.nextInt(5)));
+        }
+        List<Portaria> lidas = new ArrayList<>();
+        long cursor = -1;
+        List<Portaria> pagina;
+        while (!(pagina = store.after(cursor, 37)).isEmpty()) {
+            lidas.addAll(pagina);
+            cursor = PortariaPK.chave(pagina.get(pagina.size() - 1));
+        }
+        assertEquals(new ArrayList<>(esperado.values()), lidas);
+        assertTrue(store.after(Long.MAX_VALUE, 10).isEmpty());
+    }
+}
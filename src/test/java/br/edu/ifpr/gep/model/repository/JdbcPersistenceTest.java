@@ -0,0 +1,135 @@
+package br.edu.ifpr.gep.model.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.repository.PortariaJournal.Operacao;
+import br.edu.ifpr.gep.model.repository.PortariaJournal.Registro;
+
+/** Gravação e carga da {@link JdbcPersistence}, no H2 e no SQLite */
+class JdbcPersistenceTest {
+
+    @TempDir
+    File dados;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final Portaria ana = new Portaria(1, 10, LocalDate.of(2023, 3, 1), "Ana");
+    private final Portaria bruno = new Portaria(2, 20, LocalDate.of(2024, 5, 2), "Bruno");
+    private final Portaria carla = new Portaria(3, 30, LocalDate.of(2024, 7, 3), "Carla");
+
+    @AfterEach
+    void voltarAoH2() {
+        System.clearProperty("gep.jdbc.url");
+    }
+
+    private static PortariaMetrics metrics(PortariaStore store) {
+        return new PortariaMetrics(store::size, store::sizes, () -> 0, () -> 0L,
+                DurabilityMode.SYNC::name, new QueryCache(0, 0));
+    }
+
+    private JsonFilePersistence arquivos(PortariaStore store) {
+        return new JsonFilePersistence(dados, store, new StampedLock(), objectMapper, metrics(store),
+                DurabilityMode.SYNC, 0);
+    }
+
+    /** Abre o banco do diretório de dados em um armazenamento novo (modo SYNC) */
+    private JdbcPersistence abrir(PortariaStore store) {
+        JdbcPersistence persistence = new JdbcPersistence(dados, store, arquivos(store), metrics(store),
+                DurabilityMode.SYNC, 0);
+        persistence.load();
+        return persistence;
+    }
+
+    private Set<Portaria> recarregar() throws IOException {
+        PortariaStore store = new IndexedStore();
+        try (JdbcPersistence persistence = abrir(store)) {
+            return new HashSet<>(store.values());
+        }
+    }
+
+    /** Inclusões, uma alteração da mesma chave (MERGE ou INSERT OR REPLACE) e uma exclusão */
+    private void gravarERecarregar() throws IOException {
+        Portaria nova = new Portaria(carla);
+        nova.setPublicacao(LocalDate.of(2024, 9, 9));
+        nova.setMembro("Carla Alterada");
+        try (JdbcPersistence persistence = abrir(new IndexedStore())) {
+            persistence.record(Registro.gravacao(Operacao.INSERT, ana));
+            persistence.record(Registro.gravacao(Operacao.INSERT, bruno));
+            persistence.record(Registro.gravacao(Operacao.INSERT, carla));
+            persistence.record(Registro.gravacao(Operacao.UPDATE, nova));
+            persistence.record(Registro.exclusao(ana.getEmissor().getNome(), ana.getNumero(), 2023));
+        }
+        assertEquals(Set.of(bruno, nova), recarregar());
+    }
+
+    @Test
+    void gravaERecarregaNoH2() throws IOException {
+        gravarERecarregar();
+        assertTrue(new File(dados, "portarias.mv.db").exists());
+    }
+
+    @Test
+    void gravaERecarregaNoSqlite() throws IOException {
+        File banco = new File(dados, "portarias.db");
+        System.setProperty("gep.jdbc.url", "jdbc:sqlite:" + banco.getAbsolutePath());
+        gravarERecarregar();
+        assertTrue(banco.exists());
+    }
+
+    @Test
+    void importaOsArquivosNaPrimeiraExecucao() throws IOException {
+        PortariaStore store = new IndexedStore();
+        try (JsonFilePersistence persistence = arquivos(store)) {
+            persistence.load();
+            for (Portaria portaria : List.of(ana, bruno)) {
+                store.put(PortariaPK.chave(portaria), portaria);
+                persistence.record(Registro.gravacao(Operacao.INSERT, portaria));
+            }
+        }
+        assertEquals(Set.of(ana, bruno), recarregar());
+
+        // Nas execuções seguintes o acervo vem do banco, não dos arquivos
+        assertTrue(new File(dados, "portarias.journal").delete());
+        new File(dados, "portarias.json").delete();
+        assertEquals(Set.of(ana, bruno), recarregar());
+    }
+
+    @Test
+    void desfazACargaInteiraSeUmComandoFalhar() throws IOException {
+        try (JdbcPersistence persistence = abrir(new IndexedStore())) {
+            persistence.record(Registro.gravacao(Operacao.INSERT, ana));
+            List<Portaria> carga = new ArrayList<>();
+            for (int i = 0; i < 1500; i++) {
+                carga.add(new Portaria(2, 1000 + i, LocalDate.of(2022, 1, 1), "Membro " + i));
+            }
+            // Membro maior que a coluna: o erro vem depois de um lote já executado
+            carga.get(1200).setMembro("x".repeat(1001));
+            assertThrows(IOException.class, () -> persistence.saveAll(carga));
+
+            persistence.saveAll(List.of(bruno));
+        }
+        assertEquals(Set.of(ana, bruno), recarregar());
+    }
+}
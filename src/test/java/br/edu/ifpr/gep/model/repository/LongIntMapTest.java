@@ -0,0 +1,118 @@
+package br.edu.ifpr.gep.model.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/** Remoção com deslocamento das entradas seguintes no {@link LongIntMap} */
+class LongIntMapTest {
+
+    /** Chaves sorteadas de um conjunto pequeno, para formar sequências longas e dar a volta na tabela */
+    private static long[] chaves(Random random, int quantidade) {
+        long[] chaves = new long[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            chaves[i] = switch (i % 3) {
+                case 0 -> i;
+                case 1 -> (long) (1 + random.nextInt(30)) << 48 | (long) random.nextInt(1 << 20) << 16 | 2024;
+                default -> random.nextLong();
+            };
+        }
+        chaves[quantidade - 1] = Long.MIN_VALUE;
+        return chaves;
+    }
+
+    private static void verificar(Map<Long, Integer> esperado, LongIntMap mapa, long[] chaves) {
+        assertEquals(esperado.size(), mapa.size());
+        for (long chave : chaves) {
+            assertEquals(esperado.getOrDefault(chave, LongIntMap.AUSENTE), mapa.get(chave), "chave " + chave);
+        }
+    }
+
+    @Test
+    void encontraTodasAsChavesDepoisDeCadaRemocao() {
+        for (int quantidade : new int[] {12, 20, 200}) {
+            Random random = new Random(quantidade);
+            long[] chaves = chaves(random, quantidade);
+            Map<Long, Integer> esperado = new HashMap<>();
+            LongIntMap mapa = new LongIntMap(16);
+            for (int i = 0; i < 50_000; i++) {
+                long chave = chaves[random.nextInt(quantidade)];
+                if (random.nextBoolean()) {
+                    int valor = random.nextInt(1000);
+                    assertEquals(esperado.getOrDefault(chave, LongIntMap.AUSENTE), mapa.put(chave, valor));
+                    esperado.put(chave, valor);
+                } else {
+                    assertEquals(esperado.getOrDefault(chave, LongIntMap.AUSENTE), mapa.remove(chave));
+                    esperado.remove(chave);
+                    verificar(esperado, mapa, chaves);
+                }
+            }
+            verificar(esperado, mapa, chaves);
+        }
+    }
+
+    /** Próxima chave, a partir de inicio, cuja posição ideal em uma tabela de 16 posições é a indicada */
+    private static long chaveNaPosicao(int posicao, long inicio) {
+        long chave = inicio;
+        while (LongIntMap.posicao(chave, 15) != posicao) {
+            chave++;
+        }
+        return chave;
+    }
+
+    @Test
+    void deslocaEntradasQueDeramAVoltaNaTabela() {
+        // Sequência que começa na posição 14 e continua nas posições 0 e 1
+        long a = chaveNaPosicao(14, 0);
+        long b = chaveNaPosicao(14, a + 1);
+        long d = chaveNaPosicao(0, 0);
+        long c = chaveNaPosicao(14, b + 1);
+        LongIntMap mapa = new LongIntMap(8);
+        mapa.put(a, 1); // posição 14
+        mapa.put(b, 2); // 15
+        mapa.put(d, 3); // 0
+        mapa.put(c, 4); // 1, depois de dar a volta
+
+        // Livre na posição 0: c volta para ela, mesmo com a posição ideal no fim da tabela
+        assertEquals(3, mapa.remove(d));
+        assertEquals(4, mapa.get(c));
+        // Livre na posição 14: b e c voltam uma posição, c atravessando o fim da tabela
+        assertEquals(1, mapa.remove(a));
+        assertEquals(2, mapa.get(b));
+        assertEquals(4, mapa.get(c));
+        assertEquals(4, mapa.remove(c));
+        assertEquals(2, mapa.get(b));
+        assertEquals(1, mapa.size());
+    }
+
+    @Test
+    void esvaziaEReaproveitaATabela() {
+        LongIntMap mapa = new LongIntMap(4);
+        for (long chave = 0; chave < 1000; chave++) {
+            mapa.put(chave, (int) chave);
+        }
+        for (long chave = 0; chave < 1000; chave += 2) {
+            assertEquals((int) chave, mapa.remove(chave));
+        }
+        for (long chave = 0; chave < 1000; chave++) {
+            assertEquals(chave % 2 == 0 ? LongIntMap.AUSENTE : (int) chave, mapa.get(chave));
+        }
+        for (long chave = 1; chave < 1000; chave += 2) {
+            mapa.remove(chave);
+        }
+        assertEquals(0, mapa.size());
+        assertEquals(LongIntMap.AUSENTE, mapa.remove(1));
+        mapa.put(7, 0);
+        assertEquals(0, mapa.get(7));
+    }
+
+    @Test
+    void rejeitaValoresNegativos() {
+        assertThrows(IllegalArgumentException.class, () -> new LongIntMap(16).put(1, LongIntMap.AUSENTE));
+    }
+}
@@ -0,0 +1,106 @@
+package br.edu.ifpr.gep.model.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/** Remoção com deslocamento das entradas seguintes no {@link LongObjectMap} */
+class LongObjectMapTest {
+
+    private static void verificar(Map<Long, String> esperado, LongObjectMap<String> mapa, long[] chaves) {
+        assertEquals(esperado.size(), mapa.size());
+        for (long chave : chaves) {
+            assertEquals(esperado.get(chave), mapa.get(chave), "chave " + chave);
+            assertEquals(esperado.containsKey(chave), mapa.containsKey(chave));
+        }
+        List<String> valores = new ArrayList<>(mapa.values());
+        valores.sort(null);
+        List<String> valoresEsperados = new ArrayList<>(esperado.values());
+        valoresEsperados.sort(null);
+        assertEquals(valoresEsperados, valores);
+    }
+
+    @Test
+    void encontraTodasAsChavesDepoisDeCadaRemocao() {
+        for (int quantidade : new int[] {12, 20, 200}) {
+            Random random = new Random(quantidade);
+            long[] chaves = new long[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                // Chaves pequenas, chaves de portaria empacotadas e chaves quaisquer
+                chaves[i] = i % 2 == 0 ? i : (long) (1 + random.nextInt(30)) << 48 | random.nextInt(1 << 20);
+            }
+            Map<Long, String> esperado = new HashMap<>();
+            LongObjectMap<String> mapa = new LongObjectMap<>(16);
+            for (int i = 0; i < 50_000; i++) {
+                long chave = chaves[random.nextInt(quantidade)];
+                switch (random.nextInt(3)) {
+                    case 0 -> assertEquals(esperado.put(chave, "v" + i), mapa.put(chave, "v" + i));
+                    case 1 -> assertEquals(esperado.putIfAbsent(chave, "a" + i), mapa.putIfAbsent(chave, "a" + i));
+                    default -> {
+                        assertEquals(esperado.remove(chave), mapa.remove(chave));
+                        verificar(esperado, mapa, chaves);
+                    }
+                }
+            }
+            verificar(esperado, mapa, chaves);
+        }
+    }
+
+    /** Próxima chave, a partir de inicio, cuja posição ideal em uma tabela de 16 posições é a indicada */
+    private static long chaveNaPosicao(int posicao, long inicio) {
+        long chave = inicio;
+        while (LongObjectMap.posicao(chave, 15) != posicao) {
+            chave++;
+        }
+        return chave;
+    }
+
+    @Test
+    void deslocaEntradasQueDeramAVoltaNaTabela() {
+        // Sequência que começa na posição 14 e continua nas posições 0 e 1
+        long a = chaveNaPosicao(14, 0);
+        long b = chaveNaPosicao(14, a + 1);
+        long d = chaveNaPosicao(0, 0);
+        long c = chaveNaPosicao(14, b + 1);
+        LongObjectMap<String> mapa = new LongObjectMap<>(8);
+        mapa.put(a, "a"); // posição 14
+        mapa.put(b, "b"); // 15
+        mapa.put(d, "d"); // 0
+        mapa.put(c, "c"); // 1, depois de dar a volta
+
+        // Livre na posição 0: c volta para ela, mesmo com a posição ideal no fim da tabela
+        assertEquals("d", mapa.remove(d));
+        assertEquals("c", mapa.get(c));
+        // Livre na posição 14: b e c voltam uma posição, c atravessando o fim da tabela
+        assertEquals("a", mapa.remove(a));
+        assertEquals("b", mapa.get(b));
+        assertEquals("c", mapa.get(c));
+        assertEquals("c", mapa.remove(c));
+        assertEquals("b", mapa.get(b));
+        assertEquals(List.of("b"), new ArrayList<>(mapa.values()));
+    }
+
+    @Test
+    void removeAteEsvaziar() {
+        LongObjectMap<String> mapa = new LongObjectMap<>(4);
+        for (long chave = 0; chave < 1000; chave++) {
+            mapa.put(chave * 31, "v" + chave);
+        }
+        for (long chave = 999; chave >= 0; chave--) {
+            assertEquals("v" + chave, mapa.remove(chave * 31));
+            assertNull(mapa.get(chave * 31));
+            if (chave > 0) {
+                assertEquals("v" + (chave - 1), mapa.get((chave - 1) * 31));
+            }
+        }
+        assertEquals(0, mapa.size());
+        assertEquals(List.of(), new ArrayList<>(mapa.values()));
+    }
+}
@@ -0,0 +1,176 @@
+package br.edu.ifpr.gep.model.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/** Agrupamento, sequência de durabilidade, falhas e encerramento do {@link PersistenceWriter} */
+class PersistenceWriterTest {
+
+    /** Destino em memória; o registro "erro" faz a gravação falhar */
+    private static class Destino implements PersistenceWriter.Destino<String> {
+        final List<List<String>> lotes = new CopyOnWriteArrayList<>();
+        final AtomicInteger syncs = new AtomicInteger();
+        final CountDownLatch liberarSegundoLote = new CountDownLatch(1);
+        volatile boolean bloquearSegundoLote;
+        volatile boolean fechado;
+
+        @Override
+        public void append(List<String> registros) throws IOException {
+            if (registros.contains("erro")) {
+                throw new IOException("falha simulada");
+            }
+            if (bloquearSegundoLote && lotes.size() == 1) {
+                try {
+                    liberarSegundoLote.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            lotes.add(new ArrayList<>(registros));
+        }
+
+        @Override
+        public void sync() {
+            syncs.incrementAndGet();
+        }
+
+        @Override
+        public void reset() {
+            lotes.clear();
+        }
+
+        @Override
+        public void close() {
+            fechado = true;
+        }
+
+        List<String> gravados() {
+            List<String> result = new ArrayList<>();
+            lotes.forEach(result::addAll);
+            return result;
+        }
+    }
+
+    private final Destino destino = new Destino();
+
+    @Test
+    void groupCommitGravaAsSubmissoesDaJanelaEmUmLote() throws IOException {
+        try (PersistenceWriter<String> writer = new PersistenceWriter<>(destino, null, DurabilityMode.GROUP_COMMIT, 300)) {
+            long ultima = 0;
+            for (String registro : List.of("a", "b", "c", "d")) {
+                ultima = writer.submit(registro);
+            }
+            assertTrue(writer.awaitDurable(ultima));
+            assertEquals(List.of(List.of("a", "b", "c", "d")), destino.lotes);
+            assertEquals(1, destino.syncs.get());
+        }
+    }
+
+    @Test
+    void groupCommitAgrupaOsPedidosDeSnapshot() throws IOException {
+        AtomicInteger snapshots = new AtomicInteger();
+        try (PersistenceWriter<String> writer = new PersistenceWriter<>(null, snapshots::incrementAndGet,
+                DurabilityMode.GROUP_COMMIT, 300)) {
+            writer.submitSnapshot();
+            writer.submitSnapshot();
+            assertTrue(writer.awaitDurable(writer.submitSnapshot()));
+            assertEquals(1, snapshots.get());
+        }
+    }
+
+    @Test
+    void periodicGravaLogoESincronizaUmaVezPorIntervalo() throws IOException {
+        try (PersistenceWriter<String> writer = new PersistenceWriter<>(destino, null, DurabilityMode.PERIODIC, 300)) {
+            writer.submit("a");
+            writer.submit("b");
+            long ultima = writer.submit("c");
+            assertEquals(0, destino.syncs.get());
+            assertTrue(writer.awaitDurable(ultima));
+            assertEquals(List.of("a", "b", "c"), destino.gravados());
+            assertEquals(1, destino.syncs.get());
+        }
+    }
+
+    @Test
+    void esperaSoAteASubmissaoPedidaEstarNoDisco() throws Exception {
+        destino.bloquearSegundoLote = true;
+        try (PersistenceWriter<String> writer = new PersistenceWriter<>(destino, null, DurabilityMode.GROUP_COMMIT, 0)) {
+            long primeira = writer.submit("a");
+            assertTrue(writer.awaitDurable(primeira));
+            long segunda = writer.submit("b");
+
+            // O segundo lote está parado no destino: só a espera por ele fica bloqueada
+            CompletableFuture<Boolean> espera = CompletableFuture.supplyAsync(() -> writer.awaitDurable(segunda));
+            assertThrows(TimeoutException.class, () -> espera.get(200, TimeUnit.MILLISECONDS));
+            assertTrue(writer.awaitDurable(primeira));
+
+            destino.liberarSegundoLote.countDown();
+            assertTrue(espera.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of("a", "b"), destino.gravados());
+        } finally {
+            destino.liberarSegundoLote.countDown();
+        }
+    }
+
+    @Test
+    void depoisDeUmaFalhaRecusaAsSubmissoesEOFlushFalha() throws IOException {
+        try (PersistenceWriter<String> writer = new PersistenceWriter<>(destino, null, DurabilityMode.GROUP_COMMIT, 0)) {
+            writer.submit("a");
+            assertTrue(writer.flush());
+
+            long comErro = writer.submit("erro");
+            assertFalse(writer.awaitDurable(comErro));
+            assertNotNull(writer.getFalha());
+            assertThrows(IOException.class, () -> writer.submit("b"));
+            assertThrows(IOException.class, writer::submitSnapshot);
+            assertFalse(writer.flush());
+            assertEquals(List.of("a"), destino.gravados());
+        }
+    }
+
+    @Test
+    void syncLancaOErroNaPropriaSubmissao() throws IOException {
+        try (PersistenceWriter<String> writer = new PersistenceWriter<>(destino, null, DurabilityMode.SYNC, 0)) {
+            writer.submit("a");
+            assertEquals(1, destino.syncs.get());
+
+            IOException erro = assertThrows(IOException.class, () -> writer.submit("erro"));
+            assertEquals("falha simulada", erro.getMessage());
+            assertThrows(IOException.class, () -> writer.submit("b"));
+            assertFalse(writer.flush());
+            assertEquals(List.of("a"), destino.gravados());
+        }
+    }
+
+    @Test
+    void closeGravaOQueEstaNaFilaEFechaODestino() throws IOException {
+        for (DurabilityMode mode : List.of(DurabilityMode.GROUP_COMMIT, DurabilityMode.PERIODIC)) {
+            Destino destino = new Destino();
+            // Janela longa: sem o close, nada seria sincronizado durante o teste
+            PersistenceWriter<String> writer = new PersistenceWriter<>(destino, null, mode, 60_000);
+            writer.submit("a");
+            writer.submit("b");
+            writer.submit("c");
+            writer.close();
+
+            assertEquals(List.of("a", "b", "c"), destino.gravados(), mode.name());
+            assertTrue(destino.syncs.get() >= 1, mode.name());
+            assertTrue(destino.fechado, mode.name());
+        }
+    }
+}
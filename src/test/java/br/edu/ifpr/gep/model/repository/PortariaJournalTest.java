@@ -0,0 +1,179 @@
+package br.edu.ifpr.gep.model.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.repository.PortariaJournal.Operacao;
+import br.edu.ifpr.gep.model.repository.PortariaJournal.Registro;
+
+/** Reaplicação do journal sobre o snapshot, pela {@link JsonFilePersistence} */
+class PortariaJournalTest {
+
+    @TempDir
+    File dados;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final Portaria removida = new Portaria(1, 10, LocalDate.of(2023, 3, 1), "Ana");
+    private final Portaria mantida = new Portaria(2, 20, LocalDate.of(2024, 5, 2), "Bruno");
+    private final Portaria alterada = new Portaria(3, 30, LocalDate.of(2024, 7, 3), "Carla");
+
+    /** Carrega o diretório de dados em um armazenamento novo (modo SYNC: cada registro é gravado na hora) */
+    private JsonFilePersistence abrir(PortariaStore store) {
+        PortariaMetrics metrics = new PortariaMetrics(store::size, store::sizes, () -> 0, () -> 0L,
+                DurabilityMode.SYNC::name, new QueryCache(0, 0));
+        JsonFilePersistence persistence = new JsonFilePersistence(dados, store, new StampedLock(), objectMapper,
+                metrics, DurabilityMode.SYNC, 0);
+        persistence.load();
+        return persistence;
+    }
+
+    /** Aplica a modificação como o repositório faz: no armazenamento e depois na persistência */
+    private static void gravar(PortariaStore store, PortariaPersistence persistence, Operacao op, Portaria portaria)
+            throws IOException {
+        store.put(PortariaPK.chave(portaria), portaria);
+        persistence.record(Registro.gravacao(op, portaria));
+    }
+
+    private static void excluir(PortariaStore store, PortariaPersistence persistence, Portaria portaria)
+            throws IOException {
+        String emissor = portaria.getEmissor().getNome();
+        int ano = portaria.getPublicacao().getYear();
+        store.remove(PortariaPK.chave(emissor, portaria.getNumero(), ano));
+        persistence.record(Registro.exclusao(emissor, portaria.getNumero(), ano));
+    }
+
+    /** Grava inclusões, uma limpeza, uma alteração e uma exclusão; devolve o estado esperado */
+    private Set<Portaria> modificar(PortariaStore store, PortariaPersistence persistence) throws IOException {
+        gravar(store, persistence, Operacao.INSERT, new Portaria(4, 40, LocalDate.of(2022, 1, 4), "Antes da limpeza"));
+        store.clear();
+        persistence.record(Registro.limpeza());
+        gravar(store, persistence, Operacao.INSERT, removida);
+        gravar(store, persistence, Operacao.INSERT, mantida);
+        gravar(store, persistence, Operacao.INSERT, alterada);
+        Portaria nova = new Portaria(alterada);
+        nova.setMembro("Carla Alterada");
+        gravar(store, persistence, Operacao.UPDATE, nova);
+        excluir(store, persistence, removida);
+        return Set.of(mantida, nova);
+    }
+
+    private Set<Portaria> recarregar() throws IOException {
+        PortariaStore store = new IndexedStore();
+        try (JsonFilePersistence persistence = abrir(store)) {
+            return new HashSet<>(store.values());
+        }
+    }
+
+    @Test
+    void reconstroiOEstadoSoPeloJournal() throws IOException {
+        PortariaStore store = new IndexedStore();
+        Set<Portaria> esperado;
+        try (JsonFilePersistence persistence = abrir(store)) {
+            esperado = modificar(store, persistence);
+        }
+        assertFalse(new File(dados, "portarias.json").exists());
+        assertEquals(esperado, recarregar());
+    }
+
+    @Test
+    void reaplicarSobreUmSnapshotQueJaTemAsModificacoesNaoAlteraOEstado() throws IOException {
+        // Queda entre a gravação do snapshot e o descarte do journal: o journal inteiro é reaplicado
+        File journal = new File(dados, "portarias.journal");
+        PortariaStore store = new IndexedStore();
+        Set<Portaria> esperado;
+        byte[] registros;
+        try (JsonFilePersistence persistence = abrir(store)) {
+            esperado = modificar(store, persistence);
+            registros = Files.readAllBytes(journal.toPath());
+            persistence.checkpoint();
+        }
+        assertEquals(0, journal.length());
+        Files.write(journal.toPath(), registros);
+
+        assertEquals(esperado, recarregar());
+        assertEquals(esperado, recarregar());
+    }
+
+    @Test
+    void ignoraAUltimaLinhaIncompletaEContinuaGravandoDepoisDela() throws IOException {
+        File journal = new File(dados, "portarias.journal");
+        PortariaStore store = new IndexedStore();
+        Set<Portaria> esperado;
+        try (JsonFilePersistence persistence = abrir(store)) {
+            esperado = new HashSet<>(modificar(store, persistence));
+        }
+        Files.writeString(journal.toPath(), "{\"op\":\"INSERT\",\"emissor\":1,\"num",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        store = new IndexedStore();
+        try (JsonFilePersistence persistence = abrir(store)) {
+            assertEquals(esperado, new HashSet<>(store.values()));
+            Portaria depois = new Portaria(5, 50, LocalDate.of(2025, 2, 5), "Depois da queda");
+            gravar(store, persistence, Operacao.INSERT, depois);
+            esperado.add(depois);
+        }
+        assertEquals(esperado, recarregar());
+    }
+
+    @Test
+    void mantemAUltimaLinhaCompletaSemQuebraEContinuaGravandoDepoisDela() throws IOException {
+        File journal = new File(dados, "portarias.journal");
+        PortariaStore store = new IndexedStore();
+        Set<Portaria> esperado;
+        try (JsonFilePersistence persistence = abrir(store)) {
+            esperado = new HashSet<>(modificar(store, persistence));
+        }
+        // Registro inteiro, só sem o '\n' do fim
+        Portaria semQuebra = new Portaria(6, 60, LocalDate.of(2025, 3, 6), "Sem quebra de linha");
+        String linha = objectMapper.writeValueAsString(Registro.gravacao(Operacao.INSERT, semQuebra));
+        Files.writeString(journal.toPath(), linha, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        esperado.add(semQuebra);
+
+        store = new IndexedStore();
+        try (JsonFilePersistence persistence = abrir(store)) {
+            assertEquals(esperado, new HashSet<>(store.values()));
+            Portaria depois = new Portaria(5, 50, LocalDate.of(2025, 2, 5), "Depois da linha sem quebra");
+            gravar(store, persistence, Operacao.INSERT, depois);
+            esperado.add(depois);
+        }
+        assertEquals(esperado, recarregar());
+    }
+
+    @Test
+    void naoIniciaPeloJsonQuandoOSnapshotBinarioEstaIlegivel() throws IOException {
+        File binario = new File(dados, "portarias.bin");
+        Files.write(binario.toPath(), new byte[] {'G', 'E', 'P', 'B', 0, 0, 0, 9});
+        Files.writeString(new File(dados, "portarias.json").toPath(), "{\"versao\":2,\"portarias\":[]}");
+        System.setProperty("gep.snapshot", "binario");
+        try {
+            assertThrows(IllegalStateException.class, () -> abrir(new IndexedStore()));
+        } finally {
+            System.clearProperty("gep.snapshot");
+        }
+        assertTrue(binario.exists());
+        assertTrue(new File(dados, "portarias.bin.corrompido").exists());
+    }
+}
@@ -0,0 +1,53 @@
+package br.edu.ifpr.gep.model.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/** Leitura de uma portaria pelo {@link PortariaJsonReader} */
+class PortariaJsonReaderTest {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private Portaria ler(String json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            parser.nextToken();
+            Portaria portaria = PortariaJsonReader.readPortaria(parser);
+            // O objeto é consumido até o fim, mesmo quando há erro
+            assertEquals(JsonToken.END_OBJECT, parser.currentToken());
+            return portaria;
+        }
+    }
+
+    private static String comNumero(String numero) {
+        return "{\"emissor\":1,\"numero\":" + numero + ",\"publicacao\":\"2024-03-01\",\"membro\":\"Ana\"}";
+    }
+
+    @Test
+    void leOsCamposDaPortaria() throws IOException {
+        assertEquals(new Portaria(1, 42, LocalDate.of(2024, 3, 1), "Ana"), ler(comNumero("42")));
+        assertEquals(new Portaria(1, Integer.MAX_VALUE, LocalDate.of(2024, 3, 1), "Ana"),
+                ler(comNumero(String.valueOf(Integer.MAX_VALUE))));
+    }
+
+    @Test
+    void recusaNumerosQueNaoSaoInteirosDoTamanhoDeUmInt() {
+        for (String numero : new String[] {"\"42\"", "42.0", "4.2e1", "true", "3000000000", "-3000000000"}) {
+            IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                    () -> ler(comNumero(numero)), numero);
+            assertEquals("numero não é um número inteiro: " + numero.replace("\"", ""), erro.getMessage());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> ler("{\"emissor\":4294967297,\"numero\":1,\"publicacao\":\"2024-03-01\"}"));
+    }
+}
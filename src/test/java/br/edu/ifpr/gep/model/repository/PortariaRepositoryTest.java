@@ -0,0 +1,52 @@
+package br.edu.ifpr.gep.model.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.edu.ifpr.gep.model.Portaria;
+
+/**
+ * Consultas do {@link PortariaRepository}, no diretório gep.dados
+ * (target/dados-teste no mvn test). Só altera as portarias de
+ * {@link #NUMERO}, que são excluídas no fim de cada teste.
+ */
+class PortariaRepositoryTest {
+
+    private static final int NUMERO = 800_000;
+
+    private final PortariaRepository repo = PortariaRepository.INSTANCE;
+
+    @BeforeEach
+    @AfterEach
+    void excluirPortariasDoTeste() {
+        for (int i = 0; i < 3; i++) {
+            repo.delete("Reitoria", NUMERO + i, 2022);
+        }
+    }
+
+    @Test
+    void paginaComLimiteMaximoTrazOAcervoInteiro() throws IOException {
+        List<Portaria> portarias = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            portarias.add(new Portaria(1, NUMERO + i, LocalDate.of(2022, 6, 1 + i), "Membro " + i));
+        }
+        assertEquals(List.of(), repo.insertAll(portarias));
+        for (PortariaOrder ordem : PortariaOrder.values()) {
+            PortariaPage pagina = repo.findPage(ordem, 0, Integer.MAX_VALUE);
+            assertEquals(repo.findAll(ordem), pagina.getItens());
+            assertTrue(pagina.isUltima());
+        }
+        PortariaPage pagina = repo.findPage((String) null, Integer.MAX_VALUE);
+        assertEquals(repo.findAll(PortariaOrder.EMISSOR_NUMERO_ANO), pagina.getItens());
+        assertTrue(pagina.isUltima());
+    }
+}
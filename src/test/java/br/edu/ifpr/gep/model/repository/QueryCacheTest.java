@@ -0,0 +1,156 @@
+package br.edu.ifpr.gep.model.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import br.edu.ifpr.gep.model.Portaria;
+import br.edu.ifpr.gep.model.repository.QueryCache.Consulta;
+
+/** Acertos e invalidações do {@link QueryCache} */
+class QueryCacheTest {
+
+    private final Portaria de2023 = new Portaria(1, 1, LocalDate.of(2023, 4, 1), "Ana");
+    private final Portaria de2024 = new Portaria(1, 2, LocalDate.of(2024, 4, 1), "Bruno");
+
+    private int calculos;
+
+    private static Predicate<Portaria> doAno(int ano) {
+        return portaria -> portaria.getPublicacao().getYear() == ano;
+    }
+
+    /** Cálculo que conta as execuções (uma falha do cache) */
+    private Supplier<List<Portaria>> calculo(Portaria... resultado) {
+        return () -> {
+            calculos++;
+            List<Portaria> result = new ArrayList<>();
+            for (Portaria portaria : resultado) {
+                result.add(new Portaria(portaria));
+            }
+            return result;
+        };
+    }
+
+    private List<Portaria> porAno(QueryCache cache, int ano, Portaria... resultado) {
+        return cache.get(Consulta.of("ano", ano), doAno(ano), calculo(resultado));
+    }
+
+    @Test
+    void devolveOResultadoGuardadoSemRecalcular() {
+        QueryCache cache = new QueryCache(16, 1000);
+        assertEquals(List.of(de2023), porAno(cache, 2023, de2023));
+        assertEquals(List.of(de2023), porAno(cache, 2023, de2023));
+        assertEquals(1, calculos);
+        assertEquals(1L, cache.estatisticas().get("acertos"));
+        assertEquals(1L, cache.estatisticas().get("falhas"));
+    }
+
+    @Test
+    void alterarOResultadoRecebidoNaoAlteraOCache() {
+        QueryCache cache = new QueryCache(16, 1000);
+        List<Portaria> primeiro = porAno(cache, 2023, de2023);
+        primeiro.get(0).setMembro("Alterado por quem consultou");
+        List<Portaria> segundo = porAno(cache, 2023, de2023);
+        segundo.get(0).setMembro("Alterado outra vez");
+        segundo.clear();
+
+        assertEquals(List.of(de2023), porAno(cache, 2023, de2023));
+        assertEquals(1, calculos);
+    }
+
+    @Test
+    void descartaSoOsResultadosQuePodemConterAPortaria() {
+        QueryCache cache = new QueryCache(16, 1000);
+        porAno(cache, 2023, de2023);
+        porAno(cache, 2024, de2024);
+
+        // Uma inclusão em 2024 não afeta a consulta por 2023
+        cache.invalidar(new Portaria(1, 3, LocalDate.of(2024, 5, 1), "Nova"), null);
+        porAno(cache, 2023, de2023);
+        assertEquals(2, calculos);
+        porAno(cache, 2024, de2024);
+        assertEquals(3, calculos);
+        assertEquals(1L, cache.estatisticas().get("invalidacoes"));
+    }
+
+    @Test
+    void descartaOResultadoQueTinhaAPortariaAnterior() {
+        QueryCache cache = new QueryCache(16, 1000);
+        porAno(cache, 2023, de2023);
+
+        // Exclusão: só a anterior
+        cache.invalidar(null, de2023);
+        porAno(cache, 2023);
+        assertEquals(2, calculos);
+
+        // Alteração que tira a portaria do resultado: a nova não é de 2023, a anterior era
+        Portaria anterior = new Portaria(1, 4, LocalDate.of(2023, 1, 1), "Carla");
+        Portaria nova = new Portaria(anterior);
+        nova.setPublicacao(LocalDate.of(2024, 1, 1));
+        cache.invalidar(nova, anterior);
+        porAno(cache, 2023);
+        assertEquals(3, calculos);
+    }
+
+    @Test
+    void naoGuardaUmResultadoCalculadoDuranteUmaInvalidacao() {
+        QueryCache cache = new QueryCache(16, 1000);
+        cache.get(Consulta.of("ano", 2023), doAno(2023), () -> {
+            calculos++;
+            // Uma escrita concorrente termina enquanto a consulta ainda calcula
+            cache.invalidar(de2024, null);
+            return new ArrayList<>(List.of(de2023));
+        });
+        porAno(cache, 2023, de2023);
+        assertEquals(2, calculos);
+        porAno(cache, 2023, de2023);
+        assertEquals(2, calculos);
+    }
+
+    @Test
+    void limpezaDescartaTudo() {
+        QueryCache cache = new QueryCache(16, 1000);
+        porAno(cache, 2023, de2023);
+        porAno(cache, 2024, de2024);
+        cache.clear();
+        assertEquals(0L, cache.estatisticas().get("consultas"));
+        porAno(cache, 2023, de2023);
+        porAno(cache, 2024, de2024);
+        assertEquals(4, calculos);
+    }
+
+    @Test
+    void respeitaOsLimitesDeConsultasEDePortarias() {
+        QueryCache cache = new QueryCache(2, 3);
+        porAno(cache, 2021, de2023);
+        porAno(cache, 2022, de2023);
+        porAno(cache, 2021, de2023);     // 2021 passa a ser a mais usada
+        porAno(cache, 2023, de2023);     // descarta 2022, a menos usada
+        assertEquals(3, calculos);
+        porAno(cache, 2021, de2023);
+        assertEquals(3, calculos);
+        porAno(cache, 2022, de2023);
+        assertEquals(4, calculos);
+
+        // Um resultado maior que o limite de portarias não é guardado
+        porAno(cache, 2024, de2023, de2023, de2023, de2024);
+        porAno(cache, 2024, de2023, de2023, de2023, de2024);
+        assertEquals(6, calculos);
+        assertEquals(2L, cache.estatisticas().get("portarias"));
+    }
+
+    @Test
+    void tamanhoZeroDesligaOCache() {
+        QueryCache cache = new QueryCache(0, 1000);
+        porAno(cache, 2023, de2023);
+        porAno(cache, 2023, de2023);
+        assertEquals(2, calculos);
+        assertEquals(0L, cache.estatisticas().get("consultas"));
+    }
+}
@@ -0,0 +1,37 @@
+package br.edu.ifpr.gep.model.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+/** Inclusão de emissores pelo {@link EmissorTypes#add(String)}, no diretório gep.dados */
+class EmissorTypesTest {
+
+    @Test
+    void naoRegistraOEmissorSeAGravacaoFalhar() {
+        File emissores = new File(System.getProperty("gep.dados", "."), "emissores.json");
+        File bloqueio = new File(emissores.getPath() + ".tmp");
+        // Um diretório no lugar do arquivo temporário impede a gravação
+        assertTrue(bloqueio.mkdirs());
+        try {
+            int antes = EmissorTypes.values().size();
+            assertThrows(IOException.class, () -> EmissorTypes.add("Emissor sem gravação"));
+            assertNull(EmissorTypes.fromName("Emissor sem gravação"));
+            assertEquals(antes, EmissorTypes.values().size());
+        } finally {
+            bloqueio.delete();
+        }
+    }
+
+    @Test
+    void recusaNomesVaziosERepetidos() {
+        assertThrows(IllegalArgumentException.class, () -> EmissorTypes.add("  "));
+        assertThrows(IllegalArgumentException.class, () -> EmissorTypes.add("REITORIA"));
+    }
+}